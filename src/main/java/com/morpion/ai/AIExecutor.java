@@ -0,0 +1,154 @@
+package com.morpion.ai;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.morpion.model.Board;
+
+/**
+ * Exécuteur partagé des recherches de coups : un petit nombre de threads dédiés et une file
+ * d'attente bornée, pour que la réflexion des joueurs artificiels ne bloque jamais le thread
+ * de l'interface ni ceux du réseau.
+ * 
+ * <p>Chaque demande porte une échéance (le temps passé dans la file compte) et peut être annulée ;
+ * seul son coup final est publié, sur l'exécuteur choisi par le demandeur (par exemple
+ * {@code Platform::runLater}), et jamais après une annulation faite depuis ce même exécuteur.</p>
+ */
+public final class AIExecutor {
+    
+    private static final Logger LOGGER = Logger.getLogger(AIExecutor.class.getName());
+    
+    // Nombre de threads de l'exécuteur partagé (par défaut, la moitié des cœurs)
+    private static final int THREADS = Integer.getInteger("morpion.ai.threads",
+            Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+    
+    // Nombre maximal de demandes en attente dans l'exécuteur partagé
+    private static final int QUEUE_CAPACITY = Integer.getInteger("morpion.ai.queueCapacity", 1024);
+    
+    private final ThreadPoolExecutor executor;
+    
+    /**
+     * Crée un exécuteur
+     * 
+     * @param threads Nombre de threads de recherche
+     * @param queueCapacity Nombre maximal de demandes en attente
+     */
+    public AIExecutor(int threads, int queueCapacity) {
+        AtomicInteger count = new AtomicInteger();
+        int poolSize = Math.max(1, threads);
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), task -> {
+                    Thread thread = new Thread(task, "morpion-ai-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+    
+    /**
+     * Obtient l'exécuteur partagé par toute l'application
+     * (taille réglée par {@code morpion.ai.threads} et {@code morpion.ai.queueCapacity})
+     * 
+     * @return L'exécuteur partagé
+     */
+    public static AIExecutor shared() {
+        return Holder.SHARED;
+    }
+    
+    private static final class Holder {
+        static final AIExecutor SHARED = new AIExecutor(THREADS, QUEUE_CAPACITY);
+    }
+    
+    /**
+     * Demande un coup. La grille appartient ensuite à la recherche : l'appelant passe une copie.
+     * 
+     * @param ai Le joueur artificiel
+     * @param board La grille courante
+     * @param player Le joueur qui doit jouer (1 ou 2)
+     * @param budgetMillis Temps accordé à la demande, attente dans la file comprise
+     * @param publisher L'exécuteur sur lequel publier le coup
+     * @param onMove Reçoit le coup [row, col] (null si aucune case n'est libre ou si la recherche a échoué) ;
+     *               il est toujours appelé, sauf après une annulation ou l'arrêt de l'exécuteur
+     * @return La demande, pour pouvoir l'annuler
+     * @throws RejectedExecutionException Si la file d'attente est pleine ou l'exécuteur arrêté
+     */
+    public Request submit(AIPlayer ai, Board board, int player, long budgetMillis,
+            Executor publisher, Consumer<int[]> onMove) {
+        Request request = new Request(System.nanoTime() + budgetMillis * 1_000_000L);
+        request.future = executor.submit(() -> {
+            int[] found = null;
+            try {
+                found = ai.chooseMove(board, player, request.deadline);
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.SEVERE, "Erreur lors de la recherche d'un coup par " + ai.getName(), e);
+            } catch (Error e) {
+                // Débordement de pile, mémoire épuisée... : le coup null est publié avant de relancer
+                LOGGER.log(Level.SEVERE, "Erreur grave lors de la recherche d'un coup par " + ai.getName(), e);
+                throw e;
+            } finally {
+                // Publier dans tous les cas : le demandeur ne doit pas attendre un coup qui ne viendra jamais
+                publish(request, publisher, onMove, found);
+            }
+        });
+        return request;
+    }
+    
+    private static void publish(Request request, Executor publisher, Consumer<int[]> onMove, int[] move) {
+        if (!request.cancelled && !Thread.currentThread().isInterrupted()) {
+            publisher.execute(() -> {
+                if (!request.cancelled) {
+                    onMove.accept(move);
+                }
+            });
+        }
+    }
+    
+    /**
+     * Arrête l'exécuteur et interrompt les recherches en cours
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+    
+    /**
+     * Demande de coup en cours
+     */
+    public static final class Request {
+        
+        private final long deadline;
+        private volatile boolean cancelled;
+        private volatile Future<?> future;
+        
+        private Request(long deadline) {
+            this.deadline = deadline;
+        }
+        
+        /**
+         * Annule la demande : la recherche est interrompue si elle a commencé,
+         * et son coup ne sera pas publié
+         */
+        public void cancel() {
+            cancelled = true;
+            Future<?> running = future;
+            if (running != null) {
+                running.cancel(true);
+            }
+        }
+        
+        /**
+         * Indique si la demande a été annulée
+         * 
+         * @return true après {@link #cancel()}
+         */
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.morpion.ai;
+
+import java.util.function.Supplier;
+
+import com.morpion.model.Board;
+import com.morpion.model.GameVariant;
+
+/**
+ * Joueur artificiel : choisit un coup pour une position donnée.
+ * Les implémentations ne modifient pas durablement la grille reçue (elles peuvent y jouer
+ * des coups d'essai, mais la rendent dans son état initial).
+ */
+public interface AIPlayer {
+    
+    /**
+     * Choisit le coup à jouer
+     * 
+     * @param board La grille courante
+     * @param player Le joueur qui doit jouer (1 ou 2)
+     * @return Le coup [row, col], ou null si aucune case n'est libre
+     */
+    int[] chooseMove(Board board, int player);
+    
+    /**
+     * Choisit le coup à jouer avant une échéance. Une recherche s'arrête au plus tôt entre son
+     * propre budget de temps et l'échéance, ou dès que le thread appelant est interrompu,
+     * et renvoie alors le meilleur coup trouvé. Par défaut, l'échéance est ignorée.
+     * 
+     * @param board La grille courante
+     * @param player Le joueur qui doit jouer (1 ou 2)
+     * @param deadlineNanos L'échéance, au sens de {@link System#nanoTime()}
+     * @return Le coup [row, col], ou null si aucune case n'est libre
+     */
+    default int[] chooseMove(Board board, int player, long deadlineNanos) {
+        return chooseMove(board, player);
+    }
+    
+    /**
+     * Crée le joueur le plus adapté à une variante : la table de jeu parfait pour le
+     * morpion classique ; pour les autres grilles, la recherche alpha-bêta, ou la recherche
+     * de Monte-Carlo avec {@code -Dmorpion.ai.strategy=mcts}
+     * 
+     * @param variant La variante de la partie
+     * @return Le joueur
+     */
+    static AIPlayer forVariant(GameVariant variant) {
+        if (variant.isClassic()) {
+            return PerfectPlayTable.getInstance();
+        }
+        if (useMonteCarlo()) {
+            return new MonteCarloPlayer();
+        }
+        return new AlphaBetaPlayer();
+    }
+    
+    /**
+     * Obtient le nom du joueur que {@link #forVariant} crée pour une variante, sans le créer
+     * 
+     * @param variant La variante de la partie
+     * @return Le nom du joueur
+     */
+    static String nameForVariant(GameVariant variant) {
+        if (variant.isClassic()) {
+            return PerfectPlayTable.class.getSimpleName();
+        }
+        return useMonteCarlo() ? MonteCarloPlayer.class.getSimpleName() : AlphaBetaPlayer.class.getSimpleName();
+    }
+    
+    private static boolean useMonteCarlo() {
+        return "mcts".equalsIgnoreCase(System.getProperty("morpion.ai.strategy"));
+    }
+    
+    /**
+     * Crée un joueur qui délègue à une instance par thread : les threads d'un exécuteur peuvent
+     * ainsi servir de nombreuses parties en ne gardant qu'un joueur (et sa table) chacun
+     * 
+     * @param name Le nom du joueur, fourni d'avance : le demander ne crée pas de joueur sur le thread appelant
+     * @param factory Crée le joueur d'un thread, à sa première recherche
+     * @return Le joueur partagé
+     */
+    static AIPlayer perThread(String name, Supplier<? extends AIPlayer> factory) {
+        ThreadLocal<AIPlayer> players = ThreadLocal.withInitial(factory);
+        return new AIPlayer() {
+            @Override
+            public int[] chooseMove(Board board, int player) {
+                return players.get().chooseMove(board, player);
+            }
+            
+            @Override
+            public int[] chooseMove(Board board, int player, long deadlineNanos) {
+                return players.get().chooseMove(board, player, deadlineNanos);
+            }
+            
+            @Override
+            public String getName() {
+                return name;
+            }
+        };
+    }
+    
+    /**
+     * Obtient le nom du joueur, pour les journaux
+     * 
+     * @return Le nom
+     */
+    default String getName() {
+        return getClass().getSimpleName();
+    }
+}
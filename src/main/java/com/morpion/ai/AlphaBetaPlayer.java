@@ -0,0 +1,372 @@
+package com.morpion.ai;
+
+import java.util.Arrays;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.morpion.model.Board;
+
+/**
+ * Joueur artificiel par recherche négamax avec élagage alpha-bêta.
+ * 
+ * <ul>
+ *   <li>Approfondissement itératif : la recherche recommence à une profondeur croissante
+ *       tant que le budget de temps du coup n'est pas épuisé ; le coup retenu est celui de la
+ *       dernière profondeur terminée.</li>
+ *   <li>Table de transposition indexée par une clé de Zobrist mise à jour à chaque coup d'essai.</li>
+ *   <li>Ordre des coups : coup de la table, coups « killer », puis coups qui prolongent
+ *       les plus longs alignements (des deux joueurs).</li>
+ *   <li>Sur les grandes grilles, seules les cases voisines des pions déjà posés sont examinées,
+ *       et les feuilles sont évaluées par les alignements ouverts de chaque joueur.</li>
+ * </ul>
+ * Sur la grille 3x3, l'arbre complet est parcouru en quelques millisecondes : le jeu est parfait.
+ * Une instance n'est pas destinée à être partagée entre plusieurs parties simultanées
+ * ({@link #chooseMove} est synchronisée).
+ */
+public class AlphaBetaPlayer implements AIPlayer {
+    
+    private static final Logger LOGGER = Logger.getLogger(AlphaBetaPlayer.class.getName());
+    
+    /**
+     * Budget de temps par coup, en millisecondes
+     */
+    public static final long DEFAULT_TIME_BUDGET_MILLIS = Long.getLong("morpion.ai.timeBudgetMs", 500);
+    
+    // Nombre d'entrées de la table de transposition (18 octets par entrée)
+    private static final int TABLE_ENTRIES = Integer.getInteger("morpion.ai.transpositionEntries", 1 << 18);
+    
+    // Profondeur maximale d'une recherche
+    private static final int MAX_DEPTH = 64;
+    
+    // Valeur d'une victoire ; on y retranche la distance pour préférer les victoires rapides
+    static final int WIN = 1_000_000;
+    private static final int WIN_THRESHOLD = WIN - 1_000;
+    private static final int INFINITY = WIN + 1;
+    
+    // Valeur d'un alignement selon sa longueur (tronquée au-delà)
+    private static final int[] RUN_VALUES = {0, 1, 10, 100, 1_000, 10_000, 100_000};
+    
+    // Clé ajoutée quand c'est au joueur 2 de jouer
+    private static final long PLAYER2_TO_MOVE = TranspositionTable.pieceKey(Integer.MAX_VALUE >>> 1, 2);
+    
+    private final long timeBudgetMillis;
+    private final int maxDepth;
+    private final TranspositionTable table;
+    private final int[][] killers;
+    
+    // État de la recherche en cours
+    private Board board;
+    private int size;
+    private int winLength;
+    private long key;
+    private long deadline;
+    private boolean aborted;
+    private long nodes;
+    private int tableSize = -1;        // Règles pour lesquelles la table est remplie
+    private int tableWinLength = -1;
+    
+    /**
+     * Crée un joueur avec le budget de temps par défaut
+     */
+    public AlphaBetaPlayer() {
+        this(DEFAULT_TIME_BUDGET_MILLIS, MAX_DEPTH);
+    }
+    
+    /**
+     * Crée un joueur
+     * 
+     * @param timeBudgetMillis Temps de réflexion maximal par coup, en millisecondes
+     * @param maxDepth Profondeur maximale de la recherche (en demi-coups)
+     */
+    public AlphaBetaPlayer(long timeBudgetMillis, int maxDepth) {
+        this.timeBudgetMillis = timeBudgetMillis;
+        this.maxDepth = Math.max(1, Math.min(maxDepth, MAX_DEPTH));
+        this.table = new TranspositionTable(TABLE_ENTRIES);
+        this.killers = new int[MAX_DEPTH + 1][2];
+    }
+    
+    @Override
+    public int[] chooseMove(Board board, int player) {
+        return chooseMove(board, player, System.nanoTime() + timeBudgetMillis * 1_000_000L);
+    }
+    
+    @Override
+    public synchronized int[] chooseMove(Board board, int player, long deadlineNanos) {
+        if (board.isFull()) {
+            return null;
+        }
+        long start = System.nanoTime();
+        prepare(board, start, deadlineNanos);
+        
+        int[] moves = orderedMoves(player, -1, 0);
+        int bestMove = moves[0];
+        int bestScore = 0;
+        int completedDepth = 0;
+        int emptyCells = size * size - board.getMoveCount();
+        
+        for (int depth = 1; depth <= Math.min(maxDepth, emptyCells); depth++) {
+            int alpha = -INFINITY;
+            int iterationMove = -1;
+            for (int index : moves) {
+                play(index, player);
+                int score = -negamax(depth - 1, -INFINITY, -alpha, 3 - player, 1, index);
+                undo(index, player);
+                if (aborted) {
+                    break;
+                }
+                if (score > alpha) {
+                    alpha = score;
+                    iterationMove = index;
+                }
+            }
+            if (aborted) {
+                break;
+            }
+            
+            bestMove = iterationMove;
+            bestScore = alpha;
+            completedDepth = depth;
+            table.store(key ^ (player == 2 ? PLAYER2_TO_MOVE : 0), depth, alpha, TranspositionTable.EXACT, bestMove);
+            moveToFront(moves, bestMove);
+            
+            // Issue forcée trouvée : inutile de chercher plus loin
+            if (Math.abs(bestScore) >= WIN_THRESHOLD) {
+                break;
+            }
+        }
+        
+        if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.log(Level.FINE, "Coup ({0}, {1}) : valeur {2}, profondeur {3}, {4} nœuds en {5} ms",
+                    new Object[]{bestMove / size, bestMove % size, bestScore, completedDepth, nodes,
+                            (System.nanoTime() - start) / 1_000_000});
+        }
+        this.board = null;
+        return new int[] {bestMove / size, bestMove % size};
+    }
+    
+    /**
+     * Initialise l'état de la recherche
+     */
+    private void prepare(Board board, long start, long deadlineNanos) {
+        this.board = board;
+        this.size = board.getSize();
+        this.winLength = board.getWinLength();
+        long budgetDeadline = start + timeBudgetMillis * 1_000_000L;
+        this.deadline = deadlineNanos - budgetDeadline < 0 ? deadlineNanos : budgetDeadline;
+        this.aborted = false;
+        this.nodes = 0;
+        for (int[] killer : killers) {
+            killer[0] = -1;
+            killer[1] = -1;
+        }
+        
+        // La table ne sert qu'à une même règle du jeu
+        if (size != tableSize || winLength != tableWinLength) {
+            table.clear();
+            tableSize = size;
+            tableWinLength = winLength;
+        }
+        
+        long[] positionKey = {0};
+        board.forEachOccupied((row, col, player) ->
+                positionKey[0] ^= TranspositionTable.pieceKey(row * size + col, player));
+        this.key = positionKey[0];
+    }
+    
+    /**
+     * Recherche négamax
+     * 
+     * @param depth Profondeur restante
+     * @param alpha Borne inférieure
+     * @param beta Borne supérieure
+     * @param player Le joueur qui doit jouer
+     * @param ply Distance à la racine
+     * @param lastIndex La case du coup qui vient d'être joué par l'adversaire
+     * @return La valeur de la position pour le joueur qui doit jouer
+     */
+    private int negamax(int depth, int alpha, int beta, int player, int ply, int lastIndex) {
+        // Le coup précédent a-t-il terminé la partie ?
+        if (board.completesLine(lastIndex / size, lastIndex % size)) {
+            return -(WIN - ply);
+        }
+        if (board.isFull()) {
+            return 0;
+        }
+        if (depth == 0) {
+            return evaluate(player);
+        }
+        if ((++nodes & 1023) == 0
+                && (System.nanoTime() - deadline > 0 || Thread.currentThread().isInterrupted())) {
+            aborted = true;
+        }
+        if (aborted) {
+            return 0;
+        }
+        
+        long positionKey = key ^ (player == 2 ? PLAYER2_TO_MOVE : 0);
+        int alphaOrigin = alpha;
+        int tableMove = -1;
+        int slot = table.probe(positionKey);
+        if (slot >= 0) {
+            tableMove = table.move(slot);
+            if (table.depth(slot) >= depth) {
+                int score = fromTable(table.score(slot), ply);
+                byte flag = table.flag(slot);
+                if (flag == TranspositionTable.EXACT) {
+                    return score;
+                } else if (flag == TranspositionTable.LOWER_BOUND) {
+                    alpha = Math.max(alpha, score);
+                } else {
+                    beta = Math.min(beta, score);
+                }
+                if (alpha >= beta) {
+                    return score;
+                }
+            }
+        }
+        
+        int best = -INFINITY;
+        int bestMove = -1;
+        for (int index : orderedMoves(player, tableMove, ply)) {
+            play(index, player);
+            int score = -negamax(depth - 1, -beta, -alpha, 3 - player, ply + 1, index);
+            undo(index, player);
+            if (aborted) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                bestMove = index;
+            }
+            if (best > alpha) {
+                alpha = best;
+            }
+            if (alpha >= beta) {
+                // Coupure : retenir ce coup pour les positions sœurs
+                if (killers[ply][0] != index) {
+                    killers[ply][1] = killers[ply][0];
+                    killers[ply][0] = index;
+                }
+                break;
+            }
+        }
+        
+        byte flag = best <= alphaOrigin ? TranspositionTable.UPPER_BOUND
+                : best >= beta ? TranspositionTable.LOWER_BOUND : TranspositionTable.EXACT;
+        table.store(positionKey, depth, toTable(best, ply), flag, bestMove);
+        return best;
+    }
+    
+    private void play(int index, int player) {
+        board.set(index / size, index % size, player);
+        key ^= TranspositionTable.pieceKey(index, player);
+    }
+    
+    private void undo(int index, int player) {
+        board.set(index / size, index % size, 0);
+        key ^= TranspositionTable.pieceKey(index, player);
+    }
+    
+    // Les valeurs de victoire sont stockées relativement à la position, et non à la racine
+    private static int toTable(int score, int ply) {
+        return score >= WIN_THRESHOLD ? score + ply : score <= -WIN_THRESHOLD ? score - ply : score;
+    }
+    
+    private static int fromTable(int score, int ply) {
+        return score >= WIN_THRESHOLD ? score - ply : score <= -WIN_THRESHOLD ? score + ply : score;
+    }
+    
+    /**
+     * Liste les coups à examiner, du plus prometteur au moins prometteur
+     * 
+     * @param player Le joueur qui doit jouer
+     * @param tableMove Le meilleur coup connu par la table, -1 si aucun
+     * @param ply Distance à la racine (pour les coups « killer »)
+     * @return Les indices des cases
+     */
+    private int[] orderedMoves(int player, int tableMove, int ply) {
+        int[] moves = MoveGenerator.candidateMoves(board);
+        long[] keyed = new long[moves.length];
+        for (int i = 0; i < moves.length; i++) {
+            int index = moves[i];
+            long priority;
+            if (index == tableMove) {
+                priority = Integer.MAX_VALUE;
+            } else if (index == killers[ply][0] || index == killers[ply][1]) {
+                priority = Integer.MAX_VALUE - 1;
+            } else {
+                priority = moveScore(index, player);
+            }
+            // Priorité dans les bits de poids fort, indice dans les 32 bits de poids faible
+            keyed[i] = (priority << 32) | index;
+        }
+        Arrays.sort(keyed);
+        for (int i = 0; i < moves.length; i++) {
+            moves[i] = (int) keyed[moves.length - 1 - i];
+        }
+        return moves;
+    }
+    
+    /**
+     * Intérêt d'un coup pour l'ordre de recherche : longueur des alignements qu'il prolonge
+     * pour le joueur et qu'il coupe chez l'adversaire
+     */
+    private long moveScore(int index, int player) {
+        int row = index / size;
+        int col = index % size;
+        long score = 0;
+        for (int[] direction : Board.DIRECTIONS) {
+            for (int who = 1; who <= 2; who++) {
+                int run = 1 + board.countFrom(row, col, direction[0], direction[1], who, winLength)
+                        + board.countFrom(row, col, -direction[0], -direction[1], who, winLength);
+                long value = runValue(Math.min(run, winLength) + (run >= winLength ? 1 : 0));
+                // Gagner vaut mieux que bloquer
+                score += (who == player) ? value * 2 : value;
+            }
+        }
+        return Math.min(score, Integer.MAX_VALUE - 2);
+    }
+    
+    /**
+     * Évaluation statique d'une position, du point de vue du joueur qui doit jouer :
+     * somme des alignements ouverts de chaque joueur, pondérés par leur longueur
+     */
+    private int evaluate(int player) {
+        long[] totals = new long[3];
+        board.forEachOccupied((row, col, who) -> {
+            for (int[] direction : Board.DIRECTIONS) {
+                int beforeRow = row - direction[0];
+                int beforeCol = col - direction[1];
+                boolean beforeInside = board.contains(beforeRow, beforeCol);
+                // Ne compter chaque alignement qu'une fois, depuis son premier pion
+                if (beforeInside && board.get(beforeRow, beforeCol) == who) {
+                    continue;
+                }
+                int run = 1 + board.countFrom(row, col, direction[0], direction[1], who, winLength);
+                int afterRow = row + direction[0] * run;
+                int afterCol = col + direction[1] * run;
+                int openEnds = (beforeInside && board.get(beforeRow, beforeCol) == 0 ? 1 : 0)
+                        + (board.contains(afterRow, afterCol) && board.get(afterRow, afterCol) == 0 ? 1 : 0);
+                totals[who] += runValue(run) * openEnds;
+            }
+        });
+        long score = totals[player] - totals[3 - player];
+        return (int) Math.max(-WIN_THRESHOLD + 1, Math.min(WIN_THRESHOLD - 1, score));
+    }
+    
+    private long runValue(int run) {
+        // Un alignement d'une case de moins que la victoire vaut autant quelle que soit la règle
+        int scaled = run + 5 - winLength;
+        return RUN_VALUES[Math.max(0, Math.min(scaled, RUN_VALUES.length - 1))];
+    }
+    
+    private static void moveToFront(int[] moves, int move) {
+        for (int i = 0; i < moves.length; i++) {
+            if (moves[i] == move) {
+                System.arraycopy(moves, 0, moves, 1, i);
+                moves[0] = move;
+                return;
+            }
+        }
+    }
+}
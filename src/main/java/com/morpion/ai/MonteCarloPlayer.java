@@ -0,0 +1,377 @@
+package com.morpion.ai;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.morpion.model.Board;
+
+/**
+ * Joueur artificiel par recherche arborescente de Monte-Carlo (MCTS) avec sélection UCT.
+ * 
+ * <p>La recherche est parallélisée à la racine : chaque tâche du {@link ForkJoinPool} construit
+ * son propre arbre sur sa propre copie de la grille, sans aucun état partagé, puis les visites
+ * des coups de la racine sont additionnées et le coup le plus visité est joué. Le débit croît
+ * ainsi presque linéairement avec le nombre de cœurs.</p>
+ * 
+ * <p>Les parties aléatoires jouent et annulent leurs coups sur la grille de la tâche, dans des
+ * tableaux réutilisés d'une itération à l'autre : elles n'allouent rien. Elles se limitent à la
+ * zone qui entoure les pions déjà posés, ce qui les garde courtes sur les grandes grilles.</p>
+ * 
+ * <p>La recherche s'arrête au premier des deux budgets atteint : le temps par coup
+ * ({@code morpion.ai.timeBudgetMs}) ou le nombre total d'itérations
+ * ({@code morpion.ai.mcts.iterations}). Une instance peut servir à plusieurs parties à la fois.</p>
+ */
+public class MonteCarloPlayer implements AIPlayer {
+    
+    private static final Logger LOGGER = Logger.getLogger(MonteCarloPlayer.class.getName());
+    
+    /**
+     * Nombre maximal d'itérations par coup, toutes tâches confondues
+     */
+    public static final int DEFAULT_ITERATIONS = Integer.getInteger("morpion.ai.mcts.iterations", 1_000_000);
+    
+    // Nombre de tâches de recherche (par défaut, le parallélisme du pool)
+    private static final int WORKERS = Integer.getInteger("morpion.ai.mcts.workers", 0);
+    
+    // Constante d'exploration de UCT
+    private static final double EXPLORATION = Math.sqrt(2);
+    
+    // Marge ajoutée autour des pions pour délimiter la zone des parties aléatoires
+    private static final int PLAYOUT_MARGIN = 2;
+    
+    // Nombre maximal de cases libres retenues pour une partie aléatoire
+    private static final int PLAYOUT_CELLS = 1 << 16;
+    
+    private final ForkJoinPool pool;
+    private final long timeBudgetMillis;
+    private final int maxIterations;
+    
+    /**
+     * Crée un joueur sur le pool commun, avec les budgets par défaut
+     */
+    public MonteCarloPlayer() {
+        this(ForkJoinPool.commonPool(), AlphaBetaPlayer.DEFAULT_TIME_BUDGET_MILLIS, DEFAULT_ITERATIONS);
+    }
+    
+    /**
+     * Crée un joueur
+     * 
+     * @param pool Le pool qui exécute les tâches de recherche
+     * @param timeBudgetMillis Budget de temps par coup, en millisecondes
+     * @param maxIterations Nombre maximal d'itérations par coup
+     */
+    public MonteCarloPlayer(ForkJoinPool pool, long timeBudgetMillis, int maxIterations) {
+        this.pool = pool;
+        this.timeBudgetMillis = timeBudgetMillis;
+        this.maxIterations = Math.max(1, maxIterations);
+    }
+    
+    @Override
+    public int[] chooseMove(Board board, int player) {
+        return chooseMove(board, player, System.nanoTime() + timeBudgetMillis * 1_000_000);
+    }
+    
+    @Override
+    public int[] chooseMove(Board board, int player, long deadlineNanos) {
+        if (board.isFull()) {
+            return null;
+        }
+        long start = System.nanoTime();
+        int size = board.getSize();
+        int[] moves = MoveGenerator.candidateMoves(board);
+        
+        // Coups forcés : gagner tout de suite, sinon empêcher la victoire immédiate de l'adversaire
+        int forced = MoveGenerator.winningMove(board, moves, player);
+        if (forced < 0) {
+            forced = MoveGenerator.winningMove(board, moves, 3 - player);
+        }
+        if (forced >= 0 || moves.length == 1) {
+            int move = forced >= 0 ? forced : moves[0];
+            return new int[] {move / size, move % size};
+        }
+        
+        int workers = WORKERS > 0 ? WORKERS : Math.max(1, pool.getParallelism());
+        long budgetDeadline = start + timeBudgetMillis * 1_000_000;
+        long deadline = deadlineNanos - budgetDeadline < 0 ? deadlineNanos : budgetDeadline;
+        Thread caller = Thread.currentThread();
+        int iterations = (maxIterations + workers - 1) / workers;
+        SplittableRandom seeds = new SplittableRandom();
+        Search[] searches = new Search[workers];
+        for (int i = 0; i < workers; i++) {
+            searches[i] = new Search(board.copy(), player, moves, iterations, deadline, caller, seeds.split());
+        }
+        long[] visits = pool.invoke(new RecursiveTask<long[]>() {
+            @Override
+            protected long[] compute() {
+                ForkJoinTask.invokeAll(searches);
+                long[] total = new long[moves.length];
+                for (Search search : searches) {
+                    int[] counts = search.join();
+                    for (int i = 0; i < total.length; i++) {
+                        total[i] += counts[i];
+                    }
+                }
+                return total;
+            }
+        });
+        
+        int best = 0;
+        long totalVisits = 0;
+        for (int i = 0; i < visits.length; i++) {
+            totalVisits += visits[i];
+            if (visits[i] > visits[best]) {
+                best = i;
+            }
+        }
+        if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.log(Level.FINE, "Coup ({0}, {1}) : {2} visites sur {3} itérations, {4} tâches en {5} ms",
+                    new Object[]{moves[best] / size, moves[best] % size, visits[best], totalVisits, workers,
+                            (System.nanoTime() - start) / 1_000_000});
+        }
+        return new int[] {moves[best] / size, moves[best] % size};
+    }
+    
+    /**
+     * Nœud de l'arbre d'une tâche
+     */
+    private static final class Node {
+        final Node parent;
+        final int move;             // Case jouée pour arriver ici, -1 à la racine
+        final int player;           // Joueur qui a joué ce coup
+        final int winner;           // Pour un nœud terminal : le gagnant, ou 0 pour une partie nulle
+        final boolean terminal;
+        int[] untried;              // Coups restant à développer, calculés à la première expansion
+        int untriedCount;
+        Node[] children;
+        int childCount;
+        int visits;
+        double wins;                // Victoires du joueur qui a joué ce coup (une nulle compte pour 1/2)
+        
+        Node(Node parent, int move, int player, boolean terminal, int winner) {
+            this.parent = parent;
+            this.move = move;
+            this.player = player;
+            this.terminal = terminal;
+            this.winner = winner;
+        }
+    }
+    
+    /**
+     * Recherche indépendante : un arbre, une grille, un générateur aléatoire
+     */
+    private static final class Search extends RecursiveTask<int[]> {
+        
+        private static final long serialVersionUID = 1L;
+        
+        private final Board board;
+        private final int size;
+        private final int player;
+        private final int[] rootMoves;
+        private final int iterations;
+        private final long deadline;
+        private final Thread caller;         // Thread demandeur : son interruption arrête la recherche
+        private final SplittableRandom random;
+        
+        // Tampons réutilisés : coups joués pendant l'itération, cases libres de la partie aléatoire
+        private int[] played = new int[64];
+        private int[] free = new int[64];
+        private int playedCount;
+        
+        // Zone occupée par les pions (lignes et colonnes extrêmes)
+        private int minRow;
+        private int maxRow;
+        private int minCol;
+        private int maxCol;
+        
+        Search(Board board, int player, int[] rootMoves, int iterations, long deadline, Thread caller,
+                SplittableRandom random) {
+            this.board = board;
+            this.size = board.getSize();
+            this.player = player;
+            this.rootMoves = rootMoves;
+            this.iterations = iterations;
+            this.deadline = deadline;
+            this.caller = caller;
+            this.random = random;
+        }
+        
+        @Override
+        protected int[] compute() {
+            Node root = new Node(null, -1, 3 - player, false, 0);
+            root.untried = rootMoves.clone();
+            root.untriedCount = rootMoves.length;
+            root.children = new Node[rootMoves.length];
+            computeBounds();
+            int savedMinRow = minRow;
+            int savedMaxRow = maxRow;
+            int savedMinCol = minCol;
+            int savedMaxCol = maxCol;
+            
+            for (int iteration = 0; iteration < iterations; iteration++) {
+                if ((iteration & 15) == 0 && (System.nanoTime() - deadline > 0 || caller.isInterrupted())) {
+                    break;
+                }
+                playedCount = 0;
+                Node node = select(root);
+                int winner = node.terminal ? node.winner : playout(3 - node.player);
+                for (; node != null; node = node.parent) {
+                    node.visits++;
+                    node.wins += winner == node.player ? 1 : winner == 0 ? 0.5 : 0;
+                }
+                for (int i = playedCount - 1; i >= 0; i--) {
+                    board.set(played[i] / size, played[i] % size, 0);
+                }
+                minRow = savedMinRow;
+                maxRow = savedMaxRow;
+                minCol = savedMinCol;
+                maxCol = savedMaxCol;
+            }
+            
+            int[] visits = new int[rootMoves.length];
+            for (int i = 0; i < root.childCount; i++) {
+                Node child = root.children[i];
+                visits[Arrays.binarySearch(rootMoves, child.move)] = child.visits;
+            }
+            return visits;
+        }
+        
+        /**
+         * Descend dans l'arbre par UCT jusqu'à un nœud non développé, puis y ajoute un enfant
+         */
+        private Node select(Node node) {
+            while (!node.terminal) {
+                if (node.untried == null) {
+                    node.untried = MoveGenerator.candidateMoves(board);
+                    node.untriedCount = node.untried.length;
+                    node.children = new Node[node.untriedCount];
+                }
+                if (node.untriedCount > 0) {
+                    return expand(node);
+                }
+                if (node.childCount == 0) {
+                    return node;         // Aucune case candidate : la partie aléatoire conclura
+                }
+                node = bestChild(node);
+                play(node.move, node.player);
+            }
+            return node;
+        }
+        
+        private Node expand(Node node) {
+            int pick = random.nextInt(node.untriedCount);
+            int move = node.untried[pick];
+            node.untried[pick] = node.untried[--node.untriedCount];
+            int mover = 3 - node.player;
+            play(move, mover);
+            int row = move / size;
+            int col = move % size;
+            Node child;
+            if (board.completesLine(row, col)) {
+                child = new Node(node, move, mover, true, mover);
+            } else {
+                child = new Node(node, move, mover, board.isFull(), 0);
+            }
+            node.children[node.childCount++] = child;
+            return child;
+        }
+        
+        private static Node bestChild(Node node) {
+            double logVisits = Math.log(node.visits);
+            Node best = null;
+            double bestValue = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < node.childCount; i++) {
+                Node child = node.children[i];
+                double value = child.wins / child.visits + EXPLORATION * Math.sqrt(logVisits / child.visits);
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = child;
+                }
+            }
+            return best;
+        }
+        
+        /**
+         * Termine la partie au hasard dans la zone des pions
+         * 
+         * @param toMove Le joueur qui doit jouer
+         * @return Le gagnant, ou 0 si la zone se remplit sans alignement
+         */
+        private int playout(int toMove) {
+            int count = 0;
+            int firstRow = Math.max(0, minRow - PLAYOUT_MARGIN);
+            int lastRow = Math.min(size - 1, maxRow + PLAYOUT_MARGIN);
+            int firstCol = Math.max(0, minCol - PLAYOUT_MARGIN);
+            int lastCol = Math.min(size - 1, maxCol + PLAYOUT_MARGIN);
+            long area = (long) (lastRow - firstRow + 1) * (lastCol - firstCol + 1);
+            int capacity = (int) Math.min(area, PLAYOUT_CELLS);
+            if (free.length < capacity) {
+                free = new int[capacity];
+            }
+            for (int row = firstRow; row <= lastRow && count < free.length; row++) {
+                for (int col = firstCol; col <= lastCol && count < free.length; col++) {
+                    if (board.get(row, col) == 0) {
+                        free[count++] = row * size + col;
+                    }
+                }
+            }
+            if (played.length < playedCount + count) {
+                played = Arrays.copyOf(played, playedCount + count);
+            }
+            while (count > 0) {
+                int pick = random.nextInt(count);
+                int move = free[pick];
+                free[pick] = free[--count];
+                board.set(move / size, move % size, toMove);
+                played[playedCount++] = move;
+                if (board.completesLine(move / size, move % size)) {
+                    return toMove;
+                }
+                toMove = 3 - toMove;
+            }
+            return 0;
+        }
+        
+        private void play(int move, int mover) {
+            int row = move / size;
+            int col = move % size;
+            board.set(row, col, mover);
+            if (playedCount == played.length) {
+                played = Arrays.copyOf(played, playedCount * 2);
+            }
+            played[playedCount++] = move;
+            minRow = Math.min(minRow, row);
+            maxRow = Math.max(maxRow, row);
+            minCol = Math.min(minCol, col);
+            maxCol = Math.max(maxCol, col);
+        }
+        
+        private void computeBounds() {
+            minRow = size / 2;
+            maxRow = size / 2;
+            minCol = size / 2;
+            maxCol = size / 2;
+            int[] bounds = {minRow, maxRow, minCol, maxCol};
+            if (board.getMoveCount() > 0) {
+                bounds[0] = Integer.MAX_VALUE;
+                bounds[1] = Integer.MIN_VALUE;
+                bounds[2] = Integer.MAX_VALUE;
+                bounds[3] = Integer.MIN_VALUE;
+                board.forEachOccupied((row, col, cell) -> {
+                    bounds[0] = Math.min(bounds[0], row);
+                    bounds[1] = Math.max(bounds[1], row);
+                    bounds[2] = Math.min(bounds[2], col);
+                    bounds[3] = Math.max(bounds[3], col);
+                });
+            }
+            minRow = bounds[0];
+            maxRow = bounds[1];
+            minCol = bounds[2];
+            maxCol = bounds[3];
+        }
+    }
+}
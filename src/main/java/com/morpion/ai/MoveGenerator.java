@@ -0,0 +1,87 @@
+package com.morpion.ai;
+
+import java.util.Arrays;
+
+import com.morpion.model.Board;
+
+/**
+ * Choix des cases examinées par les joueurs artificiels.
+ * Une case est désignée par son indice {@code ligne * taille + colonne}.
+ */
+final class MoveGenerator {
+    
+    // Grilles assez petites pour examiner toutes les cases libres
+    static final int SMALL_BOARD_CELLS = 25;
+    
+    private MoveGenerator() {
+    }
+    
+    /**
+     * Liste les cases libres à examiner : toutes sur une petite grille, sinon celles qui touchent
+     * un pion (la case centrale si la grille est vide)
+     * 
+     * @param board La grille
+     * @return Les indices des cases, triés
+     */
+    static int[] candidateMoves(Board board) {
+        int size = board.getSize();
+        int cells = size * size;
+        if (cells <= SMALL_BOARD_CELLS) {
+            int[] moves = new int[cells - board.getMoveCount()];
+            int count = 0;
+            for (int index = 0; index < cells; index++) {
+                if (board.get(index / size, index % size) == 0) {
+                    moves[count++] = index;
+                }
+            }
+            return moves;
+        }
+        
+        if (board.getMoveCount() == 0) {
+            return new int[] {(size / 2) * size + size / 2};
+        }
+        int[][] buffer = {new int[board.getMoveCount() * 8]};
+        int[] count = {0};
+        board.forEachOccupied((row, col, player) -> {
+            for (int r = row - 1; r <= row + 1; r++) {
+                for (int c = col - 1; c <= col + 1; c++) {
+                    if (board.contains(r, c) && board.get(r, c) == 0) {
+                        buffer[0][count[0]++] = r * size + c;
+                    }
+                }
+            }
+        });
+        int[] moves = Arrays.copyOf(buffer[0], count[0]);
+        Arrays.sort(moves);
+        int unique = 0;
+        for (int i = 0; i < moves.length; i++) {
+            if (i == 0 || moves[i] != moves[i - 1]) {
+                moves[unique++] = moves[i];
+            }
+        }
+        return Arrays.copyOf(moves, unique);
+    }
+    
+    /**
+     * Cherche parmi des cases libres un coup qui complète un alignement
+     * 
+     * @param board La grille
+     * @param moves Les indices des cases à essayer
+     * @param player Le joueur
+     * @return L'indice du coup gagnant, ou -1 s'il n'y en a pas
+     */
+    static int winningMove(Board board, int[] moves, int player) {
+        int size = board.getSize();
+        for (int index : moves) {
+            int row = index / size;
+            int col = index % size;
+            board.set(row, col, player);
+            boolean win = board.completesLine(row, col);
+            board.set(row, col, 0);
+            if (win) {
+                return index;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,369 @@
+package com.morpion.ai;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.morpion.model.BitBoard;
+import com.morpion.model.Board;
+import com.morpion.model.CompactBoard;
+
+/**
+ * Table de jeu parfait du morpion classique 3x3 : pour chaque position atteignable,
+ * le meilleur coup et l'issue de la partie avec un jeu parfait des deux côtés.
+ * 
+ * <p>Les 5 478 positions atteignables sont résolues une seule fois, puis réduites par les
+ * 8 symétries de la grille (rotations et réflexions) : seule la position canonique de chaque
+ * classe est conservée, soit 765 entrées de 4 octets triées par indice canonique.
+ * Un coup se choisit alors sans aucune recherche : calcul de l'indice canonique,
+ * recherche dichotomique, puis retour du coup dans l'orientation de la grille.</p>
+ * 
+ * <p>Le format de la table est directement projetable en mémoire : un fichier produit par
+ * {@link #save} (ou par {@code java com.morpion.ai.PerfectPlayTable fichier} à la construction)
+ * est relu par {@link #load} sans copie. Avec la propriété {@code morpion.ai.perfectTable},
+ * l'instance partagée est chargée depuis ce fichier, qui est créé au premier usage s'il
+ * n'existe pas ; sinon elle est calculée en mémoire au premier usage.</p>
+ * 
+ * <p>La table est immuable : une même instance peut servir à toutes les parties.</p>
+ */
+public final class PerfectPlayTable implements AIPlayer {
+    
+    private static final Logger LOGGER = Logger.getLogger(PerfectPlayTable.class.getName());
+    
+    /**
+     * Issue d'une partie nulle
+     */
+    public static final int DRAW = 0;
+    
+    /**
+     * Issue d'une victoire du joueur qui doit jouer
+     */
+    public static final int WIN = 1;
+    
+    /**
+     * Issue d'une défaite du joueur qui doit jouer
+     */
+    public static final int LOSS = 2;
+    
+    // En-tête du fichier : signature "MPT1" puis nombre d'entrées
+    private static final int MAGIC = 0x4D505431;
+    private static final int HEADER_BYTES = 8;
+    
+    // Une entrée : indice canonique (bits 8 à 31), issue (bits 4 et 5), coup (bits 0 à 3)
+    private static final int ENTRY_BYTES = 4;
+    private static final int NO_MOVE = 0xF;
+    
+    // Nombre de positions possibles en base 3 (vide, joueur 1, joueur 2)
+    private static final int CODES = 19_683;
+    
+    // Puissances de 3, pour l'indice ternaire des cases
+    private static final int[] POW3 = {1, 3, 9, 27, 81, 243, 729, 2_187, 6_561};
+    
+    // Pour chaque symétrie, la case d'arrivée de chaque case, et l'inverse
+    private static final int[][] SYMMETRIES = new int[8][9];
+    private static final int[][] INVERSES = new int[8][9];
+    
+    static {
+        for (int cell = 0; cell < 9; cell++) {
+            int row = cell / 3;
+            int col = cell % 3;
+            int[][] images = {
+                {row, col}, {col, 2 - row}, {2 - row, 2 - col}, {2 - col, row},     // Rotations
+                {row, 2 - col}, {col, row}, {2 - row, col}, {2 - col, 2 - row}      // Réflexions
+            };
+            for (int s = 0; s < 8; s++) {
+                int image = BitBoard.index(images[s][0], images[s][1]);
+                SYMMETRIES[s][cell] = image;
+                INVERSES[s][image] = cell;
+            }
+        }
+    }
+    
+    // Lectures absolues uniquement : la table peut être lue par plusieurs threads à la fois
+    private final ByteBuffer buffer;
+    private final int count;
+    
+    private PerfectPlayTable(ByteBuffer buffer) throws IOException {
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Table de jeu parfait invalide");
+        }
+        int entries = buffer.getInt(4);
+        if (entries < 0 || buffer.capacity() != HEADER_BYTES + entries * ENTRY_BYTES) {
+            throw new IOException("Table de jeu parfait tronquée : " + entries + " entrées annoncées");
+        }
+        this.buffer = buffer;
+        this.count = entries;
+    }
+    
+    /**
+     * Obtient la table partagée, calculée ou chargée au premier appel
+     * 
+     * @return La table
+     */
+    public static PerfectPlayTable getInstance() {
+        return Holder.INSTANCE;
+    }
+    
+    private static final class Holder {
+        static final PerfectPlayTable INSTANCE = createShared();
+    }
+    
+    private static PerfectPlayTable createShared() {
+        String path = System.getProperty("morpion.ai.perfectTable");
+        if (path == null) {
+            return generate();
+        }
+        Path file = Paths.get(path);
+        if (Files.exists(file)) {
+            try {
+                return load(file);
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Impossible de charger la table de jeu parfait {0}, elle est recalculée", file);
+            }
+        }
+        PerfectPlayTable table = generate();
+        try {
+            table.save(file);
+            LOGGER.log(Level.INFO, "Table de jeu parfait enregistrée dans {0}", file);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Impossible d'enregistrer la table de jeu parfait " + file, e);
+        }
+        return table;
+    }
+    
+    /**
+     * Résout toutes les positions atteignables et construit la table en mémoire
+     * 
+     * @return La table
+     */
+    public static PerfectPlayTable generate() {
+        byte[] scores = new byte[CODES];
+        byte[] moves = new byte[CODES];
+        boolean[] reached = new boolean[CODES];
+        solve(0, 0, scores, moves, reached);
+        
+        // Ne garder que les positions canoniques, dans l'ordre croissant de leur indice
+        int entries = 0;
+        for (int code = 0; code < CODES; code++) {
+            if (reached[code] && canonical(bitsOf(code)) >>> 3 == code) {
+                entries++;
+            }
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + entries * ENTRY_BYTES);
+        buffer.putInt(MAGIC).putInt(entries);
+        for (int code = 0; code < CODES; code++) {
+            if (reached[code] && canonical(bitsOf(code)) >>> 3 == code) {
+                int score = scores[code];
+                int outcome = score > 0 ? WIN : score < 0 ? LOSS : DRAW;
+                buffer.putInt(code << 8 | outcome << 4 | (moves[code] & 0xF));
+            }
+        }
+        try {
+            return new PerfectPlayTable(buffer);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    /**
+     * Résout une position par négamax exhaustif, en mémorisant chaque position déjà vue.
+     * Le score est positif si le joueur qui doit jouer gagne, d'autant plus grand que la victoire
+     * est rapide (et négatif, d'autant plus petit que la défaite est rapide).
+     * 
+     * @return Le score de la position pour le joueur qui doit jouer
+     */
+    private static int solve(int bits, int code, byte[] scores, byte[] moves, boolean[] reached) {
+        if (reached[code]) {
+            return scores[code];
+        }
+        reached[code] = true;
+        int occupied = BitBoard.occupied(bits);
+        int empty = 9 - Integer.bitCount(occupied);
+        int player = (empty & 1) == 1 ? 1 : 2;
+        int best;
+        int bestMove = NO_MOVE;
+        if (BitBoard.isWin(BitBoard.mask(bits, 3 - player))) {
+            best = -(empty + 1);
+        } else if (empty == 0) {
+            best = 0;
+        } else {
+            best = Integer.MIN_VALUE;
+            for (int cell = 0; cell < 9; cell++) {
+                if ((occupied & (1 << cell)) != 0) {
+                    continue;
+                }
+                int child = BitBoard.set(bits, cell / 3, cell % 3, player);
+                int score = -solve(child, code + player * POW3[cell], scores, moves, reached);
+                if (score > best) {
+                    best = score;
+                    bestMove = cell;
+                }
+            }
+        }
+        scores[code] = (byte) best;
+        moves[code] = (byte) bestMove;
+        return best;
+    }
+    
+    /**
+     * Charge une table enregistrée par {@link #save}, projetée en mémoire
+     * 
+     * @param file Le fichier de la table
+     * @return La table
+     * @throws IOException Si le fichier est illisible ou invalide
+     */
+    public static PerfectPlayTable load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new PerfectPlayTable(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+    
+    /**
+     * Enregistre la table dans un fichier
+     * 
+     * @param file Le fichier à créer ou remplacer
+     * @throws IOException En cas d'erreur d'écriture
+     */
+    public void save(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer content = buffer.duplicate();
+            content.clear();
+            while (content.hasRemaining()) {
+                channel.write(content);
+            }
+        }
+    }
+    
+    /**
+     * Obtient le nombre de positions canoniques de la table
+     * 
+     * @return Le nombre d'entrées
+     */
+    public int size() {
+        return count;
+    }
+    
+    /**
+     * Obtient le meilleur coup d'une position
+     * 
+     * @param bits La grille compacte (voir {@link BitBoard})
+     * @return L'indice de la case à jouer (0-8), ou -1 si la partie est terminée
+     * @throws IllegalArgumentException Si la position n'est pas atteignable
+     */
+    public int bestMove(int bits) {
+        int canonical = canonical(bits);
+        int move = entry(canonical >>> 3) & 0xF;
+        return move == NO_MOVE ? -1 : INVERSES[canonical & 7][move];
+    }
+    
+    /**
+     * Obtient l'issue d'une position avec un jeu parfait des deux côtés
+     * 
+     * @param bits La grille compacte (voir {@link BitBoard})
+     * @return {@link #WIN}, {@link #LOSS} ou {@link #DRAW}, du point de vue du joueur qui doit jouer
+     * @throws IllegalArgumentException Si la position n'est pas atteignable
+     */
+    public int outcome(int bits) {
+        return (entry(canonical(bits) >>> 3) >>> 4) & 0x3;
+    }
+    
+    /**
+     * {@inheritDoc}
+     * Renvoie aussi null si la partie est déjà gagnée.
+     * 
+     * @throws IllegalArgumentException Si la grille n'est pas une grille 3x3/3, si ce n'est pas
+     *         au joueur de jouer ou si la position n'est pas atteignable
+     */
+    @Override
+    public int[] chooseMove(Board board, int player) {
+        int bits = toBits(board);
+        int empty = 9 - Integer.bitCount(BitBoard.occupied(bits));
+        if (empty > 0 && player != ((empty & 1) == 1 ? 1 : 2)) {
+            throw new IllegalArgumentException("Ce n'est pas au joueur " + player + " de jouer");
+        }
+        int move = bestMove(bits);
+        return move < 0 ? null : new int[]{move / 3, move % 3};
+    }
+    
+    private static int toBits(Board board) {
+        if (board instanceof CompactBoard) {
+            return ((CompactBoard) board).getBits();
+        }
+        if (board.getSize() != 3 || board.getWinLength() != 3) {
+            throw new IllegalArgumentException("La table de jeu parfait ne couvre que la grille 3x3/3");
+        }
+        int[] bits = {0};
+        board.forEachOccupied((row, col, player) -> bits[0] = BitBoard.set(bits[0], row, col, player));
+        return bits[0];
+    }
+    
+    /**
+     * Calcule l'indice canonique d'une position : le plus petit indice ternaire parmi ses 8 images
+     * 
+     * @return L'indice canonique décalé de 3 bits, combiné au numéro de la symétrie qui y mène
+     */
+    private static int canonical(int bits) {
+        int best = Integer.MAX_VALUE;
+        for (int s = 0; s < 8; s++) {
+            int[] symmetry = SYMMETRIES[s];
+            int code = 0;
+            for (int occupied = BitBoard.occupied(bits); occupied != 0; occupied &= occupied - 1) {
+                int cell = Integer.numberOfTrailingZeros(occupied);
+                int player = (bits >>> cell) & 1 | ((bits >>> (cell + BitBoard.PLAYER2_SHIFT)) & 1) << 1;
+                code += player * POW3[symmetry[cell]];
+            }
+            best = Math.min(best, code << 3 | s);
+        }
+        return best;
+    }
+    
+    private static int bitsOf(int code) {
+        int bits = 0;
+        for (int cell = 0; cell < 9; cell++, code /= 3) {
+            bits = BitBoard.set(bits, cell / 3, cell % 3, code % 3);
+        }
+        return bits;
+    }
+    
+    // Recherche dichotomique de l'entrée d'un indice canonique
+    private int entry(int code) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int entry = buffer.getInt(HEADER_BYTES + middle * ENTRY_BYTES);
+            int key = entry >>> 8;
+            if (key < code) {
+                low = middle + 1;
+            } else if (key > code) {
+                high = middle - 1;
+            } else {
+                return entry;
+            }
+        }
+        throw new IllegalArgumentException("Position non atteignable au morpion");
+    }
+    
+    /**
+     * Génère la table à la construction
+     * 
+     * @param args Le fichier de la table à créer
+     * @throws IOException En cas d'erreur d'écriture
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage : java com.morpion.ai.PerfectPlayTable <fichier>");
+            System.exit(1);
+        }
+        PerfectPlayTable table = generate();
+        table.save(Paths.get(args[0]));
+        System.out.println(table.size() + " positions canoniques enregistrées dans " + args[0]);
+    }
+}
@@ -0,0 +1,108 @@
+package com.morpion.ai;
+
+import java.util.Arrays;
+
+/**
+ * Table de transposition de la recherche alpha-bêta, indexée par une clé de Zobrist.
+ * Stockée dans des tableaux parallèles de types primitifs (aucun objet par entrée) ;
+ * en cas de collision, l'entrée la plus profonde est conservée.
+ */
+final class TranspositionTable {
+    
+    // Nature de la valeur stockée
+    static final byte EXACT = 1;
+    static final byte LOWER_BOUND = 2;   // Coupure bêta : la valeur réelle est au moins celle-ci
+    static final byte UPPER_BOUND = 3;   // Aucun coup n'a dépassé alpha : la valeur réelle est au plus celle-ci
+    
+    private final long[] keys;
+    private final int[] scores;
+    private final int[] moves;           // Indice de la case du meilleur coup, -1 si inconnu
+    private final byte[] depths;
+    private final byte[] flags;          // 0 pour une entrée vide
+    private final int mask;
+    
+    /**
+     * Crée une table vide
+     * 
+     * @param entries Nombre d'entrées (arrondi à la puissance de 2 inférieure)
+     */
+    TranspositionTable(int entries) {
+        int capacity = Integer.highestOneBit(Math.max(entries, 1024));
+        this.keys = new long[capacity];
+        this.scores = new int[capacity];
+        this.moves = new int[capacity];
+        this.depths = new byte[capacity];
+        this.flags = new byte[capacity];
+        this.mask = capacity - 1;
+    }
+    
+    /**
+     * Clé de Zobrist d'un pion : calculée à la volée par un mélange de bits (SplitMix64)
+     * plutôt que tirée dans une table, pour rester utilisable sur les grilles creuses géantes
+     * 
+     * @param index Indice de la case
+     * @param player Le joueur (1 ou 2)
+     * @return La clé à combiner par ou exclusif avec celle de la position
+     */
+    static long pieceKey(int index, int player) {
+        long z = ((long) index << 1 | (player - 1)) * 0x9E3779B97F4A7C15L + 0x632BE59BD9B4E019L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+    
+    /**
+     * Cherche l'entrée d'une position
+     * 
+     * @param key La clé de la position
+     * @return L'emplacement de l'entrée, ou -1 si la position est absente
+     */
+    int probe(long key) {
+        int slot = (int) key & mask;
+        return (flags[slot] != 0 && keys[slot] == key) ? slot : -1;
+    }
+    
+    int score(int slot) {
+        return scores[slot];
+    }
+    
+    int move(int slot) {
+        return moves[slot];
+    }
+    
+    int depth(int slot) {
+        return depths[slot];
+    }
+    
+    byte flag(int slot) {
+        return flags[slot];
+    }
+    
+    /**
+     * Enregistre le résultat de la recherche d'une position
+     * 
+     * @param key La clé de la position
+     * @param depth La profondeur de la recherche
+     * @param score La valeur trouvée
+     * @param flag La nature de la valeur (EXACT, LOWER_BOUND ou UPPER_BOUND)
+     * @param move L'indice du meilleur coup, -1 si inconnu
+     */
+    void store(long key, int depth, int score, byte flag, int move) {
+        int slot = (int) key & mask;
+        if (flags[slot] != 0 && keys[slot] != key && depths[slot] > depth) {
+            return;
+        }
+        keys[slot] = key;
+        scores[slot] = score;
+        moves[slot] = move;
+        depths[slot] = (byte) Math.min(depth, Byte.MAX_VALUE);
+        flags[slot] = flag;
+    }
+    
+    /**
+     * Vide la table
+     */
+    void clear() {
+        Arrays.fill(flags, (byte) 0);
+    }
+}
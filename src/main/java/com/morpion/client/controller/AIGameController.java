@@ -1,7 +1,12 @@
 package com.morpion.client.controller;
 
+import com.morpion.ai.AIExecutor;
+import com.morpion.ai.AIPlayer;
+import com.morpion.ai.AlphaBetaPlayer;
+import com.morpion.client.view.BoardLayout;
 import com.morpion.client.view.GameSymbols;
 import com.morpion.model.GameState;
+import com.morpion.model.GameVariant;
 
 import javafx.application.Platform;
 import javafx.fxml.FXML;
@@ -16,9 +21,7 @@ import javafx.scene.layout.Pane;
 import javafx.stage.Stage;
 
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Random;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -35,7 +38,8 @@ public class AIGameController {
     
     private GameState gameState;
     private Pane[][] tiles;
-    private Random random = new Random();
+    private final AIPlayer aiPlayer = AIPlayer.forVariant(GameVariant.DEFAULT);
+    private AIExecutor.Request pendingMove;   // Recherche en cours de l'IA, null si aucune
     
     // IDs des joueurs
     private final String PLAYER_ID = "human_player";
@@ -50,8 +54,8 @@ public class AIGameController {
      */
     @FXML
     public void initialize() {
-        // Initialiser l'état du jeu
-        gameState = new GameState();
+        // Initialiser l'état du jeu (variante configurée par morpion.game.boardSize et morpion.game.winLength)
+        gameState = new GameState(GameVariant.DEFAULT);
         gameState.setStatus(GameState.GameStatus.IN_PROGRESS);
         
         // Initialiser les joueurs
@@ -70,27 +74,9 @@ public class AIGameController {
      */
     private void initializeBoard() {
         System.out.println("Initialisation du plateau: " + boardGrid.getWidth() + "x" + boardGrid.getHeight());
-        tiles = new Pane[3][3];
-        
-        for (int row = 0; row < 3; row++) {
-            for (int col = 0; col < 3; col++) {
-                Pane tile = new Pane();
-                tile.getStyleClass().add("game-tile");
-                tile.setMinSize(70, 70);
-                tile.setPrefSize(80, 80);
-                
-                System.out.println("Création tuile " + row + "," + col);
-                
-                final int finalRow = row;
-                final int finalCol = col;
-                
-                tile.setOnMouseClicked(event -> handleTileClick(finalRow, finalCol));
-                
-                tiles[row][col] = tile;
-                boardGrid.add(tile, col, row);
-            }
-        }
-        System.out.println("Plateau initialisé avec " + 3*3 + " tuiles");
+        int size = gameState.getSize();
+        tiles = BoardLayout.createTiles(boardGrid, size, this::handleTileClick);
+        System.out.println("Plateau initialisé avec " + size * size + " tuiles");
     }
     
     /**
@@ -122,159 +108,66 @@ public class AIGameController {
             
             // Si la partie est toujours en cours, c'est au tour de l'IA
             if (gameState.getStatus() == GameState.GameStatus.IN_PROGRESS) {
-                // Laisser un petit délai pour simuler la "réflexion" de l'IA
-                new Thread(() -> {
-                    try {
-                        Thread.sleep(500); // Attendre 500ms avant que l'IA joue
-                        Platform.runLater(this::makeAIMove);
-                    } catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
-                    }
-                }).start();
+                // Chercher le coup sur l'exécuteur de l'IA, pour ne pas figer l'interface
+                long version = gameState.getVersion();
+                try {
+                    pendingMove = AIExecutor.shared().submit(aiPlayer, gameState.copyBoard(), AI_VALUE,
+                            AlphaBetaPlayer.DEFAULT_TIME_BUDGET_MILLIS, Platform::runLater,
+                            move -> makeAIMove(move, version));
+                } catch (RejectedExecutionException e) {
+                    // Ne pas laisser la partie bloquée sur le tour de l'ordinateur
+                    LOGGER.log(Level.SEVERE, "Impossible de lancer la recherche du coup de l'ordinateur, coup de secours", e);
+                    playFallbackMove();
+                }
             }
         }
     }
     
     /**
-     * Fait jouer l'IA avec une stratégie intelligente
+     * Joue le coup choisi par l'IA
+     * 
+     * @param move Le coup [row, col]
+     * @param version La version de l'état pour laquelle le coup a été cherché
      */
-    private void makeAIMove() {
-        if (gameState.getStatus() != GameState.GameStatus.IN_PROGRESS) {
+    private void makeAIMove(int[] move, long version) {
+        pendingMove = null;
+        
+        // Ignorer le coup si la partie a été réinitialisée entre-temps
+        if (gameState.getStatus() != GameState.GameStatus.IN_PROGRESS || gameState.getVersion() != version) {
             return;
         }
         
-        // Trouver le meilleur coup
-        int[] bestMove = findBestMove();
+        // La recherche a échoué : jouer quand même plutôt que bloquer la partie
+        if (move == null) {
+            LOGGER.warning("Aucun coup trouvé par l'ordinateur, coup de secours");
+            playFallbackMove();
+            return;
+        }
         
         // Jouer le coup
-        gameState.makeMove(bestMove[0], bestMove[1], AI_ID);
+        gameState.makeMove(move[0], move[1], AI_ID);
         
         // Mettre à jour l'interface
         updateUI();
     }
     
     /**
-     * Trouve le meilleur coup pour l'IA
-     * 
-     * @return Un tableau de 2 entiers [row, col] représentant le meilleur coup
-     */
-    private int[] findBestMove() {
-        int[][] grid = gameState.getGrid();
-        
-        // 1. Vérifier si l'IA peut gagner en un coup
-        int[] winningMove = findWinningMove(grid, AI_VALUE);
-        if (winningMove != null) {
-            return winningMove;
-        }
-        
-        // 2. Bloquer le joueur s'il peut gagner au prochain coup
-        int[] blockingMove = findWinningMove(grid, HUMAN_VALUE);
-        if (blockingMove != null) {
-            return blockingMove;
-        }
-        
-        // 3. Prendre le centre s'il est libre
-        if (grid[1][1] == 0) {
-            return new int[] {1, 1};
-        }
-        
-        // 4. Prendre un coin libre
-        List<int[]> corners = new ArrayList<>();
-        int[][] cornerPositions = {{0, 0}, {0, 2}, {2, 0}, {2, 2}};
-        for (int[] corner : cornerPositions) {
-            if (grid[corner[0]][corner[1]] == 0) {
-                corners.add(corner);
-            }
-        }
-        if (!corners.isEmpty()) {
-            return corners.get(random.nextInt(corners.size()));
-        }
-        
-        // 5. Prendre un côté libre
-        List<int[]> sides = new ArrayList<>();
-        int[][] sidePositions = {{0, 1}, {1, 0}, {1, 2}, {2, 1}};
-        for (int[] side : sidePositions) {
-            if (grid[side[0]][side[1]] == 0) {
-                sides.add(side);
-            }
-        }
-        if (!sides.isEmpty()) {
-            return sides.get(random.nextInt(sides.size()));
-        }
-        
-        // Cas improbable : aucun mouvement disponible
-        return null;
-    }
-    
-    /**
-     * Trouve un coup gagnant pour le joueur spécifié
-     * 
-     * @param grid La grille de jeu
-     * @param playerValue La valeur du joueur (1 ou 2)
-     * @return Un coup gagnant s'il existe, null sinon
+     * Fait jouer à l'ordinateur la première case libre, quand sa recherche n'a pas abouti
      */
-    private int[] findWinningMove(int[][] grid, int playerValue) {
-        // Vérifier les lignes
-        for (int row = 0; row < 3; row++) {
-            int count = 0;
-            int emptyCol = -1;
-            for (int col = 0; col < 3; col++) {
-                if (grid[row][col] == playerValue) {
-                    count++;
-                } else if (grid[row][col] == 0) {
-                    emptyCol = col;
-                }
-            }
-            if (count == 2 && emptyCol != -1) {
-                return new int[] {row, emptyCol};
-            }
+    private void playFallbackMove() {
+        if (gameState.getStatus() != GameState.GameStatus.IN_PROGRESS || gameState.getCurrentPlayer() != AI_VALUE) {
+            return;
         }
-        
-        // Vérifier les colonnes
-        for (int col = 0; col < 3; col++) {
-            int count = 0;
-            int emptyRow = -1;
-            for (int row = 0; row < 3; row++) {
-                if (grid[row][col] == playerValue) {
-                    count++;
-                } else if (grid[row][col] == 0) {
-                    emptyRow = row;
+        int size = gameState.getSize();
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                if (gameState.getCell(row, col) == 0) {
+                    gameState.makeMove(row, col, AI_ID);
+                    updateUI();
+                    return;
                 }
             }
-            if (count == 2 && emptyRow != -1) {
-                return new int[] {emptyRow, col};
-            }
         }
-        
-        // Vérifier la diagonale principale
-        int count = 0;
-        int emptyIndex = -1;
-        for (int i = 0; i < 3; i++) {
-            if (grid[i][i] == playerValue) {
-                count++;
-            } else if (grid[i][i] == 0) {
-                emptyIndex = i;
-            }
-        }
-        if (count == 2 && emptyIndex != -1) {
-            return new int[] {emptyIndex, emptyIndex};
-        }
-        
-        // Vérifier l'autre diagonale
-        count = 0;
-        emptyIndex = -1;
-        for (int i = 0; i < 3; i++) {
-            if (grid[i][2-i] == playerValue) {
-                count++;
-            } else if (grid[i][2-i] == 0) {
-                emptyIndex = i;
-            }
-        }
-        if (count == 2 && emptyIndex != -1) {
-            return new int[] {emptyIndex, 2-emptyIndex};
-        }
-        
-        return null;
     }
     
     /**
@@ -282,10 +175,21 @@ public class AIGameController {
      */
     @FXML
     public void handleResetButton() {
+        cancelPendingMove();
         gameState.resetGame();
         updateUI();
     }
     
+    /**
+     * Annule la recherche en cours de l'IA, dont le coup ne sera pas joué
+     */
+    private void cancelPendingMove() {
+        if (pendingMove != null) {
+            pendingMove.cancel();
+            pendingMove = null;
+        }
+    }
+    
     /**
      * Met à jour l'interface utilisateur
      */
@@ -301,14 +205,14 @@ public class AIGameController {
      * Met à jour le plateau de jeu
      */
     private void updateBoard() {
-        int[][] grid = gameState.getGrid();
+        int size = gameState.getSize();
         
-        for (int row = 0; row < 3; row++) {
-            for (int col = 0; col < 3; col++) {
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
                 Pane tile = tiles[row][col];
                 tile.getChildren().clear();
                 
-                switch (grid[row][col]) {
+                switch (gameState.getCell(row, col)) {
                     case 1: // Joueur humain (X)
                         drawX(tile);
                         break;
@@ -388,6 +292,7 @@ public class AIGameController {
     
     @FXML
     public void handleBackToMenuButton() {
+        cancelPendingMove();
         try {
             // Charger l'interface FXML du menu principal
             FXMLLoader loader = new FXMLLoader(getClass().getClassLoader().getResource("fxml/main-menu.fxml"));
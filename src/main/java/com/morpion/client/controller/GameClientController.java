@@ -9,12 +9,15 @@ import java.util.concurrent.Executors;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import com.morpion.client.view.BoardLayout;
 import com.morpion.client.view.GameSymbols;
+import com.morpion.common.network.FrameDecoder;
 import com.morpion.common.network.GameCommand;
 import com.morpion.common.network.GameProtocol;
 import com.morpion.common.utils.NetworkUtils;
 import com.morpion.model.GameState;
 import com.morpion.model.Player;
+import com.morpion.model.StateDelta;
 
 import javafx.application.Platform;
 import javafx.fxml.FXML;
@@ -118,31 +121,14 @@ public class GameClientController implements com.morpion.client.view.GameClient
     }
 
     /**
-     * Initialise le plateau de jeu
+     * Initialise le plateau de jeu à la taille de la grille courante
+     * (la variante est choisie par la session du serveur)
      */
     private void initializeBoard() {
         System.out.println("Initialisation du plateau: " + boardGrid.getWidth() + "x" + boardGrid.getHeight());
-        tiles = new Pane[3][3];
-
-        for (int row = 0; row < 3; row++) {
-            for (int col = 0; col < 3; col++) {
-                Pane tile = new Pane();
-                tile.getStyleClass().add("game-tile");
-                tile.setMinSize(70, 70); // Forcer une taille minimale
-                tile.setPrefSize(80, 80); // Taille préférée
-
-                System.out.println("Création tuile " + row + "," + col);
-
-                final int finalRow = row;
-                final int finalCol = col;
-
-                tile.setOnMouseClicked(event -> handleTileClick(finalRow, finalCol));
-
-                tiles[row][col] = tile;
-                boardGrid.add(tile, col, row);
-            }
-        }
-        System.out.println("Plateau initialisé avec " + 3 * 3 + " tuiles");
+        int size = gameState.getSize();
+        tiles = BoardLayout.createTiles(boardGrid, size, this::handleTileClick);
+        System.out.println("Plateau initialisé avec " + size * size + " tuiles");
     }
 
     /**
@@ -218,7 +204,7 @@ public class GameClientController implements com.morpion.client.view.GameClient
             return;
         }
 
-        if (gameState.getGrid()[row][col] != 0) {
+        if (gameState.getCell(row, col) != 0) {
             showAlert(Alert.AlertType.INFORMATION, "Case déjà occupée", "Cette case est déjà occupée.");
             return;
         }
@@ -379,10 +365,12 @@ public class GameClientController implements com.morpion.client.view.GameClient
      * Boucle de communication avec le serveur
      */
     private void communicationLoop() {
+        // Découpeur conservé pendant toute la connexion, son tampon est réutilisé
+        FrameDecoder decoder = new FrameDecoder();
         try {
             while (running && socket != null && !socket.isClosed()) {
                 // Recevoir une commande
-                GameCommand command = GameProtocol.receiveCommand(socket.getInputStream());
+                GameCommand command = decoder.read(socket.getInputStream());
 
                 // Traiter la commande
                 processCommand(command);
@@ -421,6 +409,10 @@ public class GameClientController implements com.morpion.client.view.GameClient
                 handleGameState(command);
                 break;
 
+            case STATE_DELTA:
+                handleStateDelta(command);
+                break;
+
             case CHAT_MESSAGE:
                 handleChatMessage(command);
                 break;
@@ -463,35 +455,78 @@ public class GameClientController implements com.morpion.client.view.GameClient
 
         Platform.runLater(() -> {
             updateUI();
+            announceStatusChange(oldState.getStatus());
+        });
 
-            // Ajouter des messages de chat selon le changement d'état
-            if (oldState.getStatus() != gameState.getStatus()) {
-                switch (gameState.getStatus()) {
-                    case IN_PROGRESS:
-                        if (oldState.getStatus() == GameState.GameStatus.WAITING_FOR_PLAYERS) {
-                            addChatMessageToUI("L'adversaire a rejoint la partie! La partie commence.", false);
-                        }
-                        break;
-                    case PLAYER1_WON:
-                        String winMessage = localPlayer.getPlayerNumber() == 1
-                                ? "Félicitations! Vous avez gagné!"
-                                : "Vous avez perdu. L'adversaire a gagné.";
-                        addChatMessageToUI(winMessage, false);
-                        break;
-                    case PLAYER2_WON:
-                        String winMessage2 = localPlayer.getPlayerNumber() == 2
-                                ? "Félicitations! Vous avez gagné!"
-                                : "Vous avez perdu. L'adversaire a gagné.";
-                        addChatMessageToUI(winMessage2, false);
-                        break;
-                    case DRAW:
-                        addChatMessageToUI("Match nul! La partie est terminée.", false);
-                        break;
-                }
+        LOGGER.info("État du jeu mis à jour: " + gameState.getStatus());
+    }
+
+    /**
+     * Gère une commande de différence d'état.
+     * La différence est appliquée sur le thread JavaFX pour ne pas modifier l'état pendant l'affichage ;
+     * si une version manque, on demande un état complet au serveur.
+     */
+    private void handleStateDelta(GameCommand command) {
+        StateDelta delta = command.getStateDelta();
+
+        Platform.runLater(() -> {
+            GameState.GameStatus oldStatus = gameState.getStatus();
+
+            if (!gameState.applyDelta(delta)) {
+                LOGGER.info("Version manquante (locale " + gameState.getVersion() + ", reçue "
+                        + delta.getVersion() + "), demande de l'état complet");
+                requestFullState();
+                return;
             }
+
+            updateUI();
+            announceStatusChange(oldStatus);
         });
+    }
 
-        LOGGER.info("État du jeu mis à jour: " + gameState.getStatus());
+    /**
+     * Demande l'état complet du jeu au serveur
+     */
+    private void requestFullState() {
+        try {
+            GameCommand requestCommand = GameCommand.createStateRequestCommand(playerId);
+            GameProtocol.sendCommand(requestCommand, socket.getOutputStream());
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Erreur lors de la demande de l'état du jeu", e);
+            disconnect();
+        }
+    }
+
+    /**
+     * Ajoute des messages de chat selon le changement de statut de la partie
+     *
+     * @param oldStatus Le statut avant la mise à jour
+     */
+    private void announceStatusChange(GameState.GameStatus oldStatus) {
+        if (oldStatus != gameState.getStatus()) {
+            switch (gameState.getStatus()) {
+                case IN_PROGRESS:
+                    if (oldStatus == GameState.GameStatus.WAITING_FOR_PLAYERS) {
+                        addChatMessageToUI("L'adversaire a rejoint la partie! La partie commence.", false);
+                    }
+                    break;
+                case PLAYER1_WON:
+                    String winMessage = localPlayer.getPlayerNumber() == 1
+                            ? "Félicitations! Vous avez gagné!"
+                            : "Vous avez perdu. L'adversaire a gagné.";
+                    addChatMessageToUI(winMessage, false);
+                    break;
+                case PLAYER2_WON:
+                    String winMessage2 = localPlayer.getPlayerNumber() == 2
+                            ? "Félicitations! Vous avez gagné!"
+                            : "Vous avez perdu. L'adversaire a gagné.";
+                    addChatMessageToUI(winMessage2, false);
+                    break;
+                case DRAW:
+                    addChatMessageToUI("Match nul! La partie est terminée.", false);
+                    break;
+            }
+        }
     }
 
     /**
@@ -564,14 +599,18 @@ public class GameClientController implements com.morpion.client.view.GameClient
             return;
         }
 
-        int[][] grid = gameState.getGrid();
+        // Reconstruire le plateau si la session joue sur une grille d'une autre taille
+        int size = gameState.getSize();
+        if (tiles == null || tiles.length != size) {
+            initializeBoard();
+        }
 
-        for (int row = 0; row < 3; row++) {
-            for (int col = 0; col < 3; col++) {
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
                 Pane tile = tiles[row][col];
                 tile.getChildren().clear();
 
-                switch (grid[row][col]) {
+                switch (gameState.getCell(row, col)) {
                     case 1: // Joueur X
                         drawX(tile);
                         break;
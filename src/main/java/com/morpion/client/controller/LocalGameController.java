@@ -4,8 +4,10 @@ import java.io.IOException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import com.morpion.client.view.BoardLayout;
 import com.morpion.client.view.GameSymbols;
 import com.morpion.model.GameState;
+import com.morpion.model.GameVariant;
 
 import javafx.application.Platform;
 import javafx.fxml.FXML;
@@ -18,7 +20,6 @@ import javafx.scene.control.ButtonType;
 import javafx.scene.control.Label;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.Pane;
-import javafx.scene.shape.Line;
 import javafx.stage.Stage;
 
 /**
@@ -39,8 +40,8 @@ public class LocalGameController {
      */
     @FXML
     public void initialize() {
-        // Initialiser l'état du jeu
-        gameState = new GameState();
+        // Initialiser l'état du jeu (variante configurée par morpion.game.boardSize et morpion.game.winLength)
+        gameState = new GameState(GameVariant.DEFAULT);
         gameState.setStatus(GameState.GameStatus.IN_PROGRESS);
         
         // Initialiser les joueurs locaux (pas besoin d'ID réseau)
@@ -55,52 +56,18 @@ public class LocalGameController {
     }
 
 
+    /**
+     * Initialise le plateau de jeu, une tuile par case de la grille
+     */
     private void initializeBoard() {
-    tiles = new Pane[3][3];
-    
-    // Rendre les lignes de la grille visibles pour le débogage
-    boardGrid.setGridLinesVisible(true);
-    
-    // Attendre que le GridPane soit complètement chargé
-    Platform.runLater(() -> {
-        System.out.println("Initialisation du plateau: " + boardGrid.getWidth() + "x" + boardGrid.getHeight());
+        // Rendre les lignes de la grille visibles
+        boardGrid.setGridLinesVisible(true);
         
-        for (int row = 0; row < 3; row++) {
-            for (int col = 0; col < 3; col++) {
-                Pane tile = new Pane();
-                tile.getStyleClass().add("game-tile");
-                
-                // Forcer des dimensions fixes pour les tuiles
-                tile.setMinSize(70, 70);
-                tile.setPrefSize(80, 80);
-                tile.setMaxSize(90, 90);
-                
-                // Ajouter une bordure visible pour le débogage
-                tile.setStyle("-fx-border-color: #cccccc; -fx-border-width: 2; -fx-background-color: white;");
-                
-                System.out.println("Création tuile " + row + "," + col);
-                
-                final int finalRow = row;
-                final int finalCol = col;
-                
-                tile.setOnMouseClicked(event -> handleTileClick(finalRow, finalCol));
-                
-                tiles[row][col] = tile;
-                boardGrid.add(tile, col, row);
-                
-                // Tester si la tuile est visible en ajoutant un X
-                if (row == 1 && col == 1) {
-                    Line line1 = new Line(10, 10, 70, 70);
-                    Line line2 = new Line(70, 10, 10, 70);
-                    line1.setStrokeWidth(3);
-                    line2.setStrokeWidth(3);
-                    tile.getChildren().addAll(line1, line2);
-                }
-            }
-        }
-        System.out.println("Plateau initialisé avec " + 3*3 + " tuiles");
-    });
-}
+        System.out.println("Initialisation du plateau: " + boardGrid.getWidth() + "x" + boardGrid.getHeight());
+        int size = gameState.getSize();
+        tiles = BoardLayout.createTiles(boardGrid, size, this::handleTileClick);
+        System.out.println("Plateau initialisé avec " + size * size + " tuiles");
+    }
     
     // /**
     //  * Initialise le plateau de jeu
@@ -173,14 +140,14 @@ public class LocalGameController {
      * Met à jour le plateau de jeu
      */
     private void updateBoard() {
-        int[][] grid = gameState.getGrid();
+        int size = gameState.getSize();
         
-        for (int row = 0; row < 3; row++) {
-            for (int col = 0; col < 3; col++) {
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
                 Pane tile = tiles[row][col];
                 tile.getChildren().clear();
                 
-                switch (grid[row][col]) {
+                switch (gameState.getCell(row, col)) {
                     case 1: // Joueur X
                         drawX(tile);
                         break;
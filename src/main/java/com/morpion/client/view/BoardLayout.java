@@ -0,0 +1,78 @@
+package com.morpion.client.view;
+
+import javafx.scene.layout.ColumnConstraints;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.Pane;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.RowConstraints;
+
+/**
+ * Classe utilitaire pour construire le plateau de jeu d'une grille N x N dans un GridPane.
+ * Les tuiles se partagent la taille prévue pour le plateau dans le FXML.
+ */
+public class BoardLayout {
+    
+    // Taille minimale et maximale d'une tuile, en pixels
+    private static final double MIN_TILE_SIZE = 16;
+    private static final double MAX_TILE_SIZE = 80;
+    
+    /**
+     * Écouteur des clics sur les tuiles
+     */
+    @FunctionalInterface
+    public interface TileClickHandler {
+        
+        /**
+         * @param row La ligne de la tuile
+         * @param col La colonne de la tuile
+         */
+        void tileClicked(int row, int col);
+    }
+    
+    /**
+     * Vide le plateau et crée une tuile par case
+     * 
+     * @param boardGrid Le plateau
+     * @param size Le nombre de lignes (et de colonnes) de la grille
+     * @param handler L'action appelée lors d'un clic sur une tuile
+     * @return Les tuiles, indexées par ligne puis par colonne
+     */
+    public static Pane[][] createTiles(GridPane boardGrid, int size, TileClickHandler handler) {
+        boardGrid.getChildren().clear();
+        
+        double boardSize = Math.max(boardGrid.getPrefWidth(), 240);
+        double tileSize = Math.max(MIN_TILE_SIZE, Math.min(MAX_TILE_SIZE, Math.floor(boardSize / size)));
+        
+        // Les contraintes du FXML sont prévues pour 3 colonnes : les remplacer pour les autres tailles
+        if (boardGrid.getColumnConstraints().size() != size || boardGrid.getRowConstraints().size() != size) {
+            boardGrid.getColumnConstraints().clear();
+            boardGrid.getRowConstraints().clear();
+            for (int i = 0; i < size; i++) {
+                ColumnConstraints column = new ColumnConstraints(tileSize);
+                column.setHgrow(Priority.SOMETIMES);
+                boardGrid.getColumnConstraints().add(column);
+                RowConstraints row = new RowConstraints(tileSize);
+                row.setVgrow(Priority.SOMETIMES);
+                boardGrid.getRowConstraints().add(row);
+            }
+        }
+        
+        Pane[][] tiles = new Pane[size][size];
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                Pane tile = new Pane();
+                tile.getStyleClass().add("game-tile");
+                tile.setMinSize(tileSize * 0.875, tileSize * 0.875);
+                tile.setPrefSize(tileSize, tileSize);
+                
+                final int finalRow = row;
+                final int finalCol = col;
+                tile.setOnMouseClicked(event -> handler.tileClicked(finalRow, finalCol));
+                
+                tiles[row][col] = tile;
+                boardGrid.add(tile, col, row);
+            }
+        }
+        return tiles;
+    }
+}
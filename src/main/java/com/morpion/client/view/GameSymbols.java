@@ -27,8 +27,10 @@ public class GameSymbols {
         Line line2 = new Line(size - margin, margin, margin, size - margin);
         
         // Style des lignes
-        line1.setStrokeWidth(5);
-        line2.setStrokeWidth(5);
+        // Épaisseur proportionnelle à la tuile (5 pixels pour une tuile de 80)
+        double strokeWidth = Math.max(2, size / 16);
+        line1.setStrokeWidth(strokeWidth);
+        line2.setStrokeWidth(strokeWidth);
         line1.setStroke(Color.valueOf("#3498db"));
         line2.setStroke(Color.valueOf("#3498db"));
         line1.setStrokeLineCap(StrokeLineCap.ROUND);
@@ -67,7 +69,7 @@ public class GameSymbols {
         // Style du cercle
         circle.setStroke(Color.valueOf("#e74c3c"));
         circle.setFill(Color.TRANSPARENT);
-        circle.setStrokeWidth(5);
+        circle.setStrokeWidth(Math.max(2, size / 16));
         
         // Ajouter le cercle à la tuile
         tile.getChildren().add(circle);
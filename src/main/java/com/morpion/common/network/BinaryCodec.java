@@ -0,0 +1,493 @@
+package com.morpion.common.network;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.UUID;
+
+import com.morpion.model.Board;
+import com.morpion.model.GameState;
+import com.morpion.model.Move;
+import com.morpion.model.Player;
+import com.morpion.model.StateDelta;
+
+/**
+ * Codec binaire compact pour les commandes du jeu.
+ * 
+ * Format d'une commande :
+ * - 1 octet : type de commande
+ * - 1 octet : masque des champs présents
+ * - puis chaque champ présent, dans l'ordre : expéditeur, mouvement, état du jeu, joueur, message,
+ *   différence d'état
+ * 
+ * Les entiers sont codés en varint, les identifiants UUID sur 16 octets et la grille
+ * du morpion classique sur 2 bits par case ; les autres variantes (N x N, K à aligner)
+ * transmettent leur taille puis la liste des seules cases jouées. Le premier octet n'est
+ * jamais 0xAC, ce qui permet de distinguer ce format d'un flux de sérialisation Java.
+ */
+public final class BinaryCodec {
+    
+    // Codes des types de commande (stables, indépendants de l'ordre de l'énumération)
+    private static final GameCommand.CommandType[] TYPES = new GameCommand.CommandType[16];
+    private static final byte[] TYPE_CODES = new byte[GameCommand.CommandType.values().length];
+    
+    static {
+        register(GameCommand.CommandType.CONNECT, 1);
+        register(GameCommand.CommandType.CONNECT_ACK, 2);
+        register(GameCommand.CommandType.DISCONNECT, 3);
+        register(GameCommand.CommandType.MOVE, 4);
+        register(GameCommand.CommandType.GAME_STATE, 5);
+        register(GameCommand.CommandType.RESET_GAME, 6);
+        register(GameCommand.CommandType.CHAT_MESSAGE, 7);
+        register(GameCommand.CommandType.ERROR, 8);
+        register(GameCommand.CommandType.STATE_DELTA, 9);
+        register(GameCommand.CommandType.STATE_REQUEST, 10);
+    }
+    
+    // Masque des champs présents
+    private static final int HAS_SENDER = 1;
+    private static final int HAS_MOVE = 1 << 1;
+    private static final int HAS_GAME_STATE = 1 << 2;
+    private static final int HAS_PLAYER = 1 << 3;
+    private static final int HAS_MESSAGE = 1 << 4;
+    private static final int HAS_DELTA = 1 << 5;
+    
+    // Codage des identifiants
+    private static final int ID_NULL = 0;
+    private static final int ID_UUID = 1;
+    private static final int ID_SERVER = 2;
+    private static final int ID_STRING = 3;
+    
+    private static final String SERVER_ID = "SERVER";
+    
+    // Bit de poids fort de l'octet du joueur courant : grille autre que le morpion classique
+    private static final int VARIANT_BOARD = 0x80;
+    
+    private static final GameState.GameStatus[] STATUSES = GameState.GameStatus.values();
+    
+    // Tampon d'encodage réutilisé par chaque thread
+    private static final ThreadLocal<Writer> WRITERS = ThreadLocal.withInitial(Writer::new);
+    
+    private BinaryCodec() {
+    }
+    
+    private static void register(GameCommand.CommandType type, int code) {
+        TYPES[code] = type;
+        TYPE_CODES[type.ordinal()] = (byte) code;
+    }
+    
+    /**
+     * Encode une commande dans un nouveau tableau d'octets
+     * 
+     * @param command La commande à encoder
+     * @return Les octets de la commande
+     */
+    public static byte[] encode(GameCommand command) {
+        Writer writer = encodeToBuffer(command, 0);
+        return Arrays.copyOf(writer.buffer, writer.position);
+    }
+    
+    /**
+     * Encode une commande précédée de sa taille sur 4 octets dans une trame immuable
+     * 
+     * @param command La commande à encoder
+     * @return La trame encodée
+     */
+    public static EncodedFrame encodeFrame(GameCommand command) {
+        Writer writer = encodeToBuffer(command, 4);
+        writer.writeLength();
+        return new EncodedFrame(command.getType(), Arrays.copyOf(writer.buffer, writer.position));
+    }
+    
+    /**
+     * Encode une commande précédée de sa taille sur 4 octets et l'écrit en un seul appel
+     * 
+     * @param command La commande à encoder
+     * @param outputStream Le flux de sortie
+     * @throws IOException En cas d'erreur d'écriture
+     */
+    public static void writeFrame(GameCommand command, OutputStream outputStream) throws IOException {
+        Writer writer = encodeToBuffer(command, 4);
+        writer.writeLength();
+        outputStream.write(writer.buffer, 0, writer.position);
+        outputStream.flush();
+    }
+    
+    /**
+     * Encode la commande dans le tampon du thread courant
+     * 
+     * @param command La commande à encoder
+     * @param reserved Nombre d'octets réservés en tête du tampon
+     * @return Le tampon contenant la commande
+     */
+    private static Writer encodeToBuffer(GameCommand command, int reserved) {
+        Writer writer = WRITERS.get();
+        writer.reset(reserved);
+        
+        int flags = 0;
+        if (command.getSenderId() != null) flags |= HAS_SENDER;
+        if (command.getMove() != null) flags |= HAS_MOVE;
+        if (command.getGameState() != null) flags |= HAS_GAME_STATE;
+        if (command.getPlayer() != null) flags |= HAS_PLAYER;
+        if (command.getMessage() != null) flags |= HAS_MESSAGE;
+        if (command.getStateDelta() != null) flags |= HAS_DELTA;
+        
+        writer.writeByte(TYPE_CODES[command.getType().ordinal()]);
+        writer.writeByte(flags);
+        
+        if ((flags & HAS_SENDER) != 0) {
+            writer.writeId(command.getSenderId());
+        }
+        if ((flags & HAS_MOVE) != 0) {
+            Move move = command.getMove();
+            writer.writeVarInt(move.getRow());
+            writer.writeVarInt(move.getCol());
+            writer.writeId(move.getPlayerId());
+        }
+        if ((flags & HAS_GAME_STATE) != 0) {
+            writeGameState(writer, command.getGameState());
+        }
+        if ((flags & HAS_PLAYER) != 0) {
+            Player player = command.getPlayer();
+            writer.writeId(player.getId());
+            writer.writeString(player.getName());
+            writer.writeVarInt(player.getPlayerNumber());
+        }
+        if ((flags & HAS_MESSAGE) != 0) {
+            writer.writeString(command.getMessage());
+        }
+        if ((flags & HAS_DELTA) != 0) {
+            StateDelta delta = command.getStateDelta();
+            writer.writeVarLong(delta.getVersion());
+            writer.writeVarInt(delta.getRow());
+            writer.writeVarInt(delta.getCol());
+            writer.writeByte((delta.getPlayerValue() << 4) | delta.getNextPlayer());
+            writer.writeByte(delta.getStatus().ordinal());
+        }
+        return writer;
+    }
+    
+    private static void writeGameState(Writer writer, GameState gameState) {
+        boolean classic = gameState.getVariant().isClassic();
+        writer.writeByte(gameState.getCurrentPlayer() | (classic ? 0 : VARIANT_BOARD));
+        writer.writeByte(gameState.getStatus().ordinal());
+        writer.writeId(gameState.getPlayer1Id());
+        writer.writeId(gameState.getPlayer2Id());
+        writer.writeVarLong(gameState.getVersion());
+        
+        if (!classic) {
+            // Taille, pions à aligner, puis chaque case jouée : (indice << 1) | (joueur - 1)
+            int size = gameState.getSize();
+            writer.writeVarInt(size);
+            writer.writeVarInt(gameState.getWinLength());
+            writer.writeVarInt(gameState.getMoveCount());
+            gameState.forEachOccupied((row, col, player) -> writer.writeVarInt(((row * size + col) << 1) | (player - 1)));
+            return;
+        }
+        
+        // Grille 3x3 sur 18 bits : 2 bits par case, ligne par ligne
+        int packed = 0;
+        for (int row = 0; row < 3; row++) {
+            for (int col = 0; col < 3; col++) {
+                packed |= (gameState.getCell(row, col) & 0x3) << (2 * (row * 3 + col));
+            }
+        }
+        writer.writeByte(packed);
+        writer.writeByte(packed >>> 8);
+        writer.writeByte(packed >>> 16);
+    }
+    
+    /**
+     * Décode une commande
+     * 
+     * @param data Le tableau contenant la commande
+     * @param offset La position du premier octet
+     * @param length Le nombre d'octets de la commande
+     * @return La commande décodée
+     * @throws IOException Si les données sont invalides
+     */
+    public static GameCommand decode(byte[] data, int offset, int length) throws IOException {
+        Reader reader = new Reader(data, offset, length);
+        
+        int code = reader.readByte();
+        GameCommand.CommandType type = code < TYPES.length ? TYPES[code] : null;
+        if (type == null) {
+            throw new IOException("Type de commande inconnu : " + code);
+        }
+        int flags = reader.readByte();
+        
+        GameCommand command = new GameCommand();
+        command.setType(type);
+        
+        if ((flags & HAS_SENDER) != 0) {
+            command.setSenderId(reader.readId());
+        }
+        if ((flags & HAS_MOVE) != 0) {
+            int row = reader.readVarInt();
+            int col = reader.readVarInt();
+            command.setMove(new Move(row, col, reader.readId()));
+        }
+        if ((flags & HAS_GAME_STATE) != 0) {
+            command.setGameState(readGameState(reader));
+        }
+        if ((flags & HAS_PLAYER) != 0) {
+            String id = reader.readId();
+            String name = reader.readString();
+            command.setPlayer(new Player(id, name, reader.readVarInt()));
+        }
+        if ((flags & HAS_MESSAGE) != 0) {
+            command.setMessage(reader.readString());
+        }
+        if ((flags & HAS_DELTA) != 0) {
+            long version = reader.readVarLong();
+            int row = reader.readVarInt();
+            int col = reader.readVarInt();
+            int players = reader.readByte();
+            command.setStateDelta(new StateDelta(version, row, col, players >>> 4, players & 0xF,
+                    readStatus(reader)));
+        }
+        return command;
+    }
+    
+    private static GameState readGameState(Reader reader) throws IOException {
+        int currentPlayer = reader.readByte();
+        GameState.GameStatus status = readStatus(reader);
+        String player1Id = reader.readId();
+        String player2Id = reader.readId();
+        long version = reader.readVarLong();
+        
+        if ((currentPlayer & VARIANT_BOARD) != 0) {
+            return new GameState(readBoard(reader), currentPlayer & ~VARIANT_BOARD, status, player1Id, player2Id,
+                    version);
+        }
+        
+        int packed = reader.readByte() | (reader.readByte() << 8) | (reader.readByte() << 16);
+        int[][] grid = new int[3][3];
+        for (int row = 0; row < 3; row++) {
+            for (int col = 0; col < 3; col++) {
+                grid[row][col] = (packed >>> (2 * (row * 3 + col))) & 0x3;
+            }
+        }
+        
+        return new GameState(grid, currentPlayer, status, player1Id, player2Id, version);
+    }
+    
+    private static Board readBoard(Reader reader) throws IOException {
+        int size = reader.readVarInt();
+        int winLength = reader.readVarInt();
+        Board board;
+        try {
+            board = Board.create(size, winLength);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+        
+        int count = reader.readVarInt();
+        if (count < 0 || count > size * size) {
+            throw new IOException("Nombre de cases invalide : " + count);
+        }
+        for (int i = 0; i < count; i++) {
+            int cell = reader.readVarInt();
+            int index = cell >>> 1;
+            if (index >= size * size) {
+                throw new IOException("Case hors de la grille : " + index);
+            }
+            board.set(index / size, index % size, (cell & 1) + 1);
+        }
+        return board;
+    }
+    
+    private static GameState.GameStatus readStatus(Reader reader) throws IOException {
+        int statusIndex = reader.readByte();
+        if (statusIndex >= STATUSES.length) {
+            throw new IOException("Statut de partie inconnu : " + statusIndex);
+        }
+        return STATUSES[statusIndex];
+    }
+    
+    /**
+     * Tampon d'écriture extensible
+     */
+    private static final class Writer {
+        
+        private byte[] buffer = new byte[256];
+        private int position;
+        
+        void reset(int reserved) {
+            position = reserved;
+        }
+        
+        /**
+         * Écrit la taille du message dans les 4 octets réservés en tête
+         */
+        void writeLength() {
+            int length = position - 4;
+            buffer[0] = (byte) (length >>> 24);
+            buffer[1] = (byte) (length >>> 16);
+            buffer[2] = (byte) (length >>> 8);
+            buffer[3] = (byte) length;
+        }
+        
+        private void ensureCapacity(int extra) {
+            if (position + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + extra));
+            }
+        }
+        
+        void writeByte(int value) {
+            ensureCapacity(1);
+            buffer[position++] = (byte) value;
+        }
+        
+        void writeVarInt(int value) {
+            ensureCapacity(5);
+            while ((value & ~0x7F) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+        
+        void writeVarLong(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+        
+        void writeLong(long value) {
+            ensureCapacity(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buffer[position++] = (byte) (value >>> shift);
+            }
+        }
+        
+        void writeString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(bytes.length);
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+        
+        void writeId(String id) {
+            if (id == null) {
+                writeByte(ID_NULL);
+            } else if (SERVER_ID.equals(id)) {
+                writeByte(ID_SERVER);
+            } else {
+                UUID uuid = parseUuid(id);
+                if (uuid != null) {
+                    writeByte(ID_UUID);
+                    writeLong(uuid.getMostSignificantBits());
+                    writeLong(uuid.getLeastSignificantBits());
+                } else {
+                    writeByte(ID_STRING);
+                    writeString(id);
+                }
+            }
+        }
+        
+        /**
+         * Convertit l'identifiant en UUID seulement si sa forme textuelle est reproduite à l'identique
+         */
+        private static UUID parseUuid(String id) {
+            if (id.length() != 36 || id.charAt(8) != '-' || id.charAt(13) != '-') {
+                return null;
+            }
+            try {
+                UUID uuid = UUID.fromString(id);
+                return uuid.toString().equals(id) ? uuid : null;
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+    }
+    
+    /**
+     * Lecteur sur une portion de tableau, avec contrôle des bornes
+     */
+    private static final class Reader {
+        
+        private final byte[] data;
+        private final int limit;
+        private int position;
+        
+        Reader(byte[] data, int offset, int length) {
+            this.data = data;
+            this.position = offset;
+            this.limit = offset + length;
+        }
+        
+        private void require(int count) throws IOException {
+            if (count < 0 || position + count > limit) {
+                throw new IOException("Commande tronquée");
+            }
+        }
+        
+        int readByte() throws IOException {
+            require(1);
+            return data[position++] & 0xFF;
+        }
+        
+        int readVarInt() throws IOException {
+            int value = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                int b = readByte();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Varint invalide");
+        }
+        
+        long readVarLong() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 70; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Varint invalide");
+        }
+        
+        long readLong() throws IOException {
+            require(8);
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value = (value << 8) | (data[position++] & 0xFF);
+            }
+            return value;
+        }
+        
+        String readString() throws IOException {
+            int length = readVarInt();
+            require(length);
+            String value = new String(data, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+        
+        String readId() throws IOException {
+            int tag = readByte();
+            switch (tag) {
+                case ID_NULL:
+                    return null;
+                case ID_SERVER:
+                    return SERVER_ID;
+                case ID_UUID:
+                    return new UUID(readLong(), readLong()).toString();
+                case ID_STRING:
+                    return readString();
+                default:
+                    throw new IOException("Identifiant invalide : " + tag);
+            }
+        }
+    }
+}
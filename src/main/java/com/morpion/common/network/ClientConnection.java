@@ -0,0 +1,53 @@
+package com.morpion.common.network;
+
+import java.io.IOException;
+
+/**
+ * Représente la connexion d'un client côté serveur, indépendamment du transport
+ * utilisé (socket bloquante ou canal NIO).
+ */
+public interface ClientConnection {
+    
+    /**
+     * Obtient l'ID du client
+     * 
+     * @return L'ID du client
+     */
+    String getClientId();
+    
+    /**
+     * Obtient l'adresse distante du client
+     * 
+     * @return L'adresse IP du client
+     */
+    String getRemoteAddress();
+    
+    /**
+     * Envoie une commande au client
+     * 
+     * @param command La commande à envoyer
+     * @throws IOException En cas d'erreur d'E/S
+     */
+    void sendCommand(GameCommand command) throws IOException;
+    
+    /**
+     * Envoie une trame déjà encodée au client.
+     * La trame peut être partagée entre plusieurs connexions.
+     * 
+     * @param frame La trame à envoyer
+     * @throws IOException En cas d'erreur d'E/S
+     */
+    void sendFrame(EncodedFrame frame) throws IOException;
+    
+    /**
+     * Obtient la file d'envoi du client et ses statistiques
+     * 
+     * @return La file d'envoi
+     */
+    OutboundQueue getOutboundQueue();
+    
+    /**
+     * Ferme la connexion avec le client
+     */
+    void close();
+}
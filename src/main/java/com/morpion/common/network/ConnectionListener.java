@@ -0,0 +1,30 @@
+package com.morpion.common.network;
+
+/**
+ * Reçoit les événements d'un transport réseau : ouverture d'une connexion,
+ * commande reçue et fermeture de la connexion par le client.
+ */
+public interface ConnectionListener {
+    
+    /**
+     * Appelé lorsqu'une nouvelle connexion a été acceptée
+     * 
+     * @param connection La connexion ouverte
+     */
+    void connectionOpened(ClientConnection connection);
+    
+    /**
+     * Appelé lorsqu'une commande complète a été reçue
+     * 
+     * @param connection La connexion d'origine
+     * @param command La commande reçue
+     */
+    void commandReceived(ClientConnection connection, GameCommand command);
+    
+    /**
+     * Appelé lorsque la connexion a été fermée par le client ou perdue
+     * 
+     * @param connection La connexion fermée
+     */
+    void connectionClosed(ClientConnection connection);
+}
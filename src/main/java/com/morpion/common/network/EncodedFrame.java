@@ -0,0 +1,74 @@
+package com.morpion.common.network;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Message déjà encodé, préfixe de taille compris, prêt à être envoyé.
+ * Le contenu est immuable : une même trame peut être partagée entre tous
+ * les destinataires d'une diffusion sans être réencodée.
+ */
+public final class EncodedFrame {
+    
+    private final GameCommand.CommandType type;
+    private final byte[] bytes;
+    
+    /**
+     * Constructeur
+     * 
+     * @param type Le type de la commande encodée
+     * @param bytes Les octets de la trame (non copiés, ne doivent plus être modifiés)
+     */
+    EncodedFrame(GameCommand.CommandType type, byte[] bytes) {
+        this.type = type;
+        this.bytes = bytes;
+    }
+    
+    /**
+     * Obtient le type de la commande encodée
+     * 
+     * @return Le type de commande
+     */
+    public GameCommand.CommandType getType() {
+        return type;
+    }
+    
+    /**
+     * Obtient la taille de la trame en octets
+     * 
+     * @return La taille, préfixe compris
+     */
+    public int length() {
+        return bytes.length;
+    }
+    
+    /**
+     * Crée une vue en lecture seule sur la trame, avec sa propre position
+     * 
+     * @return Une nouvelle vue sur les octets partagés
+     */
+    public ByteBuffer asByteBuffer() {
+        return ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+    }
+    
+    /**
+     * Copie la trame dans un tableau, par exemple pour regrouper plusieurs trames
+     * 
+     * @param target Le tableau de destination
+     * @param offset La position de destination
+     */
+    void copyTo(byte[] target, int offset) {
+        System.arraycopy(bytes, 0, target, offset, bytes.length);
+    }
+    
+    /**
+     * Écrit la trame sur un flux de sortie
+     * 
+     * @param outputStream Le flux de sortie
+     * @throws IOException En cas d'erreur d'écriture
+     */
+    public void writeTo(OutputStream outputStream) throws IOException {
+        outputStream.write(bytes);
+    }
+}
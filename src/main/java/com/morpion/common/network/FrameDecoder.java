@@ -0,0 +1,157 @@
+package com.morpion.common.network;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Découpeur de trames propre à une connexion, conservé pendant toute sa durée de vie.
+ * Les octets reçus sont accumulés dans un tampon réutilisé, agrandi seulement lorsqu'une
+ * trame ne tient pas, et jamais au-delà de la taille maximale : une trame annonçant une
+ * taille excessive est refusée dès la lecture de son préfixe, sans allocation.
+ * Fonctionne aussi bien avec un flux bloquant ({@link #read(InputStream)}) qu'avec
+ * les octets d'un canal non bloquant ({@link #feed(ByteBuffer)} puis {@link #next()}).
+ */
+public final class FrameDecoder {
+    
+    /**
+     * Taille maximale d'une trame, hors préfixe de taille
+     */
+    public static final int DEFAULT_MAX_FRAME_SIZE = Integer.getInteger("morpion.protocol.maxFrameSize", 64 * 1024);
+    
+    private static final int HEADER_SIZE = 4;
+    private static final int INITIAL_CAPACITY = 1024;
+    
+    private final int maxFrameSize;
+    private byte[] buffer;
+    private int start; // Début des octets non consommés
+    private int end;   // Fin des octets reçus
+    
+    /**
+     * Crée un découpeur avec la taille maximale par défaut
+     */
+    public FrameDecoder() {
+        this(DEFAULT_MAX_FRAME_SIZE);
+    }
+    
+    /**
+     * Crée un découpeur
+     * 
+     * @param maxFrameSize La taille maximale d'une trame, hors préfixe
+     */
+    public FrameDecoder(int maxFrameSize) {
+        this.maxFrameSize = maxFrameSize;
+        this.buffer = new byte[Math.min(INITIAL_CAPACITY, HEADER_SIZE + maxFrameSize)];
+    }
+    
+    /**
+     * Lit la prochaine commande d'un flux bloquant.
+     * Les octets lus au-delà de la trame sont conservés pour l'appel suivant :
+     * il faut donc toujours lire un même flux avec le même découpeur.
+     * 
+     * @param inputStream Le flux d'entrée
+     * @return La commande reçue
+     * @throws IOException En cas d'erreur de réception ou de trame invalide
+     * @throws ClassNotFoundException Si la classe de l'objet désérialisé n'est pas trouvée
+     */
+    public GameCommand read(InputStream inputStream) throws IOException, ClassNotFoundException {
+        GameCommand command;
+        while ((command = next()) == null) {
+            compact();
+            int count = inputStream.read(buffer, end, buffer.length - end);
+            if (count < 0) {
+                throw new EOFException("Fin de flux inattendue");
+            }
+            end += count;
+        }
+        return command;
+    }
+    
+    /**
+     * Ajoute des octets reçus d'un canal, dans la limite de la place disponible.
+     * Il faut appeler {@link #next()} jusqu'à obtenir null avant de fournir la suite.
+     * 
+     * @param source Les octets reçus (sa position avance d'autant d'octets copiés)
+     */
+    public void feed(ByteBuffer source) {
+        compact();
+        int count = Math.min(source.remaining(), buffer.length - end);
+        source.get(buffer, end, count);
+        end += count;
+    }
+    
+    /**
+     * Extrait la prochaine commande complète des octets reçus
+     * 
+     * @return La commande, ou null si la trame suivante n'est pas encore complète
+     * @throws IOException Si la trame est invalide ou trop grande
+     * @throws ClassNotFoundException Si la classe de l'objet désérialisé n'est pas trouvée
+     */
+    public GameCommand next() throws IOException, ClassNotFoundException {
+        int available = end - start;
+        if (available < HEADER_SIZE) {
+            return null;
+        }
+        
+        int length = ((buffer[start] & 0xFF) << 24) | ((buffer[start + 1] & 0xFF) << 16)
+                | ((buffer[start + 2] & 0xFF) << 8) | (buffer[start + 3] & 0xFF);
+        if (length < 0 || length > maxFrameSize) {
+            // Refusée avant toute allocation
+            throw new IOException("Taille de trame invalide : " + length + " (maximum " + maxFrameSize + ")");
+        }
+        
+        if (available < HEADER_SIZE + length) {
+            ensureCapacity(HEADER_SIZE + length);
+            return null;
+        }
+        
+        // Les décodeurs copient ce qu'ils gardent : le tampon peut être réutilisé
+        GameCommand command = GameProtocol.deserializeCommand(buffer, start + HEADER_SIZE, length);
+        start += HEADER_SIZE + length;
+        if (start == end) {
+            start = 0;
+            end = 0;
+        }
+        return command;
+    }
+    
+    /**
+     * Obtient la capacité actuelle du tampon
+     * 
+     * @return La capacité en octets
+     */
+    public int getCapacity() {
+        return buffer.length;
+    }
+    
+    /**
+     * Ramène les octets non consommés au début du tampon
+     */
+    private void compact() {
+        if (start > 0) {
+            System.arraycopy(buffer, start, buffer, 0, end - start);
+            end -= start;
+            start = 0;
+        }
+    }
+    
+    /**
+     * Agrandit le tampon pour qu'il puisse contenir une trame entière
+     * 
+     * @param frameSize La taille de la trame, préfixe compris
+     */
+    private void ensureCapacity(int frameSize) {
+        if (buffer.length >= frameSize) {
+            return;
+        }
+        compact();
+        int capacity = buffer.length;
+        while (capacity < frameSize) {
+            capacity *= 2;
+        }
+        byte[] grown = new byte[Math.min(capacity, HEADER_SIZE + maxFrameSize)];
+        System.arraycopy(buffer, 0, grown, 0, end);
+        buffer = grown;
+    }
+}
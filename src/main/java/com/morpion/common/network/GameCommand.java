@@ -4,6 +4,7 @@ import java.io.Serializable;
 import com.morpion.model.Move;
 import com.morpion.model.GameState;
 import com.morpion.model.Player;
+import com.morpion.model.StateDelta;
 
 /**
  * Représente une commande échangée entre le client et le serveur.
@@ -22,7 +23,9 @@ public class GameCommand implements Serializable {
         GAME_STATE,     // Serveur envoie l'état du jeu mis à jour
         RESET_GAME,     // Demande de réinitialisation du jeu
         CHAT_MESSAGE,   // Message de chat
-        ERROR           // Erreur
+        ERROR,          // Erreur
+        STATE_DELTA,    // Serveur envoie uniquement la différence depuis la version précédente
+        STATE_REQUEST   // Client demande un état complet (version manquante)
     }
     
     private CommandType type;      // Type de commande
@@ -31,6 +34,7 @@ public class GameCommand implements Serializable {
     private GameState gameState;   // État du jeu (pour CommandType.GAME_STATE)
     private Player player;         // Informations sur le joueur (pour CommandType.CONNECT et CONNECT_ACK)
     private String message;        // Message supplémentaire (pour CommandType.CHAT_MESSAGE ou ERROR)
+    private StateDelta stateDelta; // Différence d'état (pour CommandType.STATE_DELTA)
     
     /**
      * Constructeur par défaut (nécessaire pour la sérialisation)
@@ -110,6 +114,33 @@ public class GameCommand implements Serializable {
         return cmd;
     }
     
+    /**
+     * Crée une commande de différence d'état
+     * 
+     * @param stateDelta La différence depuis la version précédente
+     * @return Commande de différence d'état
+     */
+    public static GameCommand createStateDeltaCommand(StateDelta stateDelta) {
+        GameCommand cmd = new GameCommand();
+        cmd.type = CommandType.STATE_DELTA;
+        cmd.senderId = "SERVER";
+        cmd.stateDelta = stateDelta;
+        return cmd;
+    }
+    
+    /**
+     * Crée une commande de demande d'état complet
+     * 
+     * @param playerId ID du joueur qui demande l'état
+     * @return Commande de demande d'état
+     */
+    public static GameCommand createStateRequestCommand(String playerId) {
+        GameCommand cmd = new GameCommand();
+        cmd.type = CommandType.STATE_REQUEST;
+        cmd.senderId = playerId;
+        return cmd;
+    }
+    
     /**
      * Crée une commande de réinitialisation du jeu
      * 
@@ -202,6 +233,14 @@ public class GameCommand implements Serializable {
         this.message = message;
     }
     
+    public StateDelta getStateDelta() {
+        return stateDelta;
+    }
+    
+    public void setStateDelta(StateDelta stateDelta) {
+        this.stateDelta = stateDelta;
+    }
+    
     @Override
     public String toString() {
         return "GameCommand [type=" + type + ", senderId=" + senderId + "]";
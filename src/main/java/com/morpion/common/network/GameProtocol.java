@@ -17,6 +17,40 @@ import java.io.OutputStream;
  */
 public class GameProtocol {
     
+    /**
+     * Format utilisé pour encoder les commandes
+     */
+    public enum Codec {
+        BINARY,  // Codec binaire compact (par défaut)
+        LEGACY   // Sérialisation Java, pour les anciens clients
+    }
+    
+    // Premiers octets d'un flux de sérialisation Java (STREAM_MAGIC)
+    private static final byte MAGIC_0 = (byte) 0xAC;
+    private static final byte MAGIC_1 = (byte) 0xED;
+    
+    private static volatile Codec codec = "legacy".equalsIgnoreCase(System.getProperty("morpion.protocol.codec"))
+            ? Codec.LEGACY : Codec.BINARY;
+    
+    /**
+     * Obtient le codec utilisé pour l'envoi des commandes
+     * 
+     * @return Le codec courant
+     */
+    public static Codec getCodec() {
+        return codec;
+    }
+    
+    /**
+     * Choisit le codec utilisé pour l'envoi des commandes.
+     * La réception accepte toujours les deux formats.
+     * 
+     * @param newCodec Le codec à utiliser
+     */
+    public static void setCodec(Codec newCodec) {
+        codec = newCodec;
+    }
+    
     /**
      * Sérialise une commande en tableau d'octets pour l'envoyer sur le réseau
      * 
@@ -25,6 +59,10 @@ public class GameProtocol {
      * @throws IOException En cas d'erreur de sérialisation
      */
     public static byte[] serializeCommand(GameCommand command) throws IOException {
+        if (codec == Codec.BINARY) {
+            return BinaryCodec.encode(command);
+        }
+        
         try (ByteArrayOutputStream baos = new ByteArrayOutputStream();
              ObjectOutputStream oos = new ObjectOutputStream(baos)) {
             
@@ -43,13 +81,56 @@ public class GameProtocol {
      * @throws ClassNotFoundException Si la classe de l'objet désérialisé n'est pas trouvée
      */
     public static GameCommand deserializeCommand(byte[] data) throws IOException, ClassNotFoundException {
-        try (ByteArrayInputStream bais = new ByteArrayInputStream(data);
+        return deserializeCommand(data, 0, data.length);
+    }
+    
+    /**
+     * Désérialise une portion de tableau d'octets en une commande.
+     * Le format (binaire ou sérialisation Java) est détecté automatiquement.
+     * 
+     * @param data Le tableau d'octets à désérialiser
+     * @param offset La position du premier octet
+     * @param length Le nombre d'octets
+     * @return La commande désérialisée
+     * @throws IOException En cas d'erreur de désérialisation
+     * @throws ClassNotFoundException Si la classe de l'objet désérialisé n'est pas trouvée
+     */
+    public static GameCommand deserializeCommand(byte[] data, int offset, int length)
+            throws IOException, ClassNotFoundException {
+        if (length < 2 || data[offset] != MAGIC_0 || data[offset + 1] != MAGIC_1) {
+            return BinaryCodec.decode(data, offset, length);
+        }
+        
+        try (ByteArrayInputStream bais = new ByteArrayInputStream(data, offset, length);
              ObjectInputStream ois = new ObjectInputStream(bais)) {
             
             return (GameCommand) ois.readObject();
         }
     }
     
+    /**
+     * Encode une commande, préfixe de taille compris, dans une trame immuable
+     * qui peut être envoyée à plusieurs clients sans être réencodée
+     * 
+     * @param command La commande à encoder
+     * @return La trame encodée
+     * @throws IOException En cas d'erreur de sérialisation
+     */
+    public static EncodedFrame encodeFrame(GameCommand command) throws IOException {
+        if (codec == Codec.BINARY) {
+            return BinaryCodec.encodeFrame(command);
+        }
+        
+        byte[] data = serializeCommand(command);
+        byte[] frame = new byte[4 + data.length];
+        frame[0] = (byte) (data.length >>> 24);
+        frame[1] = (byte) (data.length >>> 16);
+        frame[2] = (byte) (data.length >>> 8);
+        frame[3] = (byte) data.length;
+        System.arraycopy(data, 0, frame, 4, data.length);
+        return new EncodedFrame(command.getType(), frame);
+    }
+    
     /**
      * Envoie une commande sur le flux de sortie spécifié
      * 
@@ -58,6 +139,12 @@ public class GameProtocol {
      * @throws IOException En cas d'erreur d'envoi
      */
     public static void sendCommand(GameCommand command, OutputStream outputStream) throws IOException {
+        if (codec == Codec.BINARY) {
+            // Taille et message encodés dans le même tampon, écrits en un seul appel
+            BinaryCodec.writeFrame(command, outputStream);
+            return;
+        }
+        
         byte[] data = serializeCommand(command);
         
         // On envoie d'abord la taille du message (sur 4 octets)
@@ -70,7 +157,9 @@ public class GameProtocol {
     }
     
     /**
-     * Reçoit une commande depuis le flux d'entrée spécifié
+     * Reçoit une commande depuis le flux d'entrée spécifié.
+     * Pour lire plusieurs commandes d'une même connexion, préférer un {@link FrameDecoder}
+     * qui réutilise son tampon d'une trame à l'autre.
      * 
      * @param inputStream Le flux d'entrée
      * @return La commande reçue
@@ -81,6 +170,9 @@ public class GameProtocol {
         // On lit d'abord la taille du message
         DataInputStream dis = new DataInputStream(inputStream);
         int length = dis.readInt();
+        if (length < 0 || length > FrameDecoder.DEFAULT_MAX_FRAME_SIZE) {
+            throw new IOException("Taille de trame invalide : " + length);
+        }
         
         // Puis on lit le message lui-même
         byte[] data = new byte[length];
@@ -95,4 +187,4 @@ public class GameProtocol {
         
         return deserializeCommand(data);
     }
-}
\ No newline at end of file
+}
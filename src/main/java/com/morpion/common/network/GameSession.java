@@ -1,32 +1,74 @@
 package com.morpion.common.network;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.Socket;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import com.morpion.ai.AIExecutor;
+import com.morpion.ai.AIPlayer;
+import com.morpion.model.GameSnapshot;
 import com.morpion.model.GameState;
+import com.morpion.model.GameVariant;
 import com.morpion.model.Move;
 import com.morpion.model.Player;
+import com.morpion.model.StateDelta;
+import com.morpion.server.replay.MoveLog;
 import com.morpion.server.view.ServerMonitor;
 
 /**
  * Représente une session de jeu côté serveur.
  * Gère la communication avec les clients et l'état du jeu.
+ * Les commandes et les déconnexions passent par la boîte aux lettres de la session
+ * ({@link SessionActor}) : l'état du jeu n'est modifié que par un thread à la fois.
+ * Un joueur artificiel peut occuper la place libre ({@link #seatBot}) : ses coups sont cherchés
+ * sur l'exécuteur de l'IA, puis déposés dans la boîte aux lettres comme ceux d'un client.
  */
-public class GameSession {
+public class GameSession implements ConnectionListener {
     
     private static final Logger LOGGER = Logger.getLogger(GameSession.class.getName());
     
+    // Préfixe de l'identifiant d'un joueur artificiel
+    static final String BOT_ID_PREFIX = "bot-";
+    
+    // Tampon de regroupement des écritures, un par thread écrivain
+    private static final ThreadLocal<byte[]> BATCH_BUFFERS =
+            ThreadLocal.withInitial(() -> new byte[OutboundQueue.MAX_BATCH_BYTES]);
+    
     private final String sessionId;
-    private final GameState gameState;
-    private final ConcurrentHashMap<String, ClientHandler> clients;
+    private final GameVariant variant;          // Règles de la partie, fixées à la création
+    private final GameState gameState;          // Modifié uniquement par l'acteur de la session
+    private volatile GameSnapshot snapshot;     // Dernier état validé, lisible par tous les threads
+    private final MoveLog moveLog;              // Coups de la partie en cours, pour les rediffusions
+    private final ConcurrentHashMap<String, ClientConnection> clients;
+    private final Map<String, String> playerNames; // Nom des joueurs assis (modifié uniquement par l'acteur)
     private final ExecutorService executorService;
+    private final boolean ownsExecutor;
+    private final SlowConsumerPolicy slowConsumerPolicy;
+    private final SessionActor actor;
     private ServerMonitor serverMonitor; // Moniteur serveur pour afficher les détails
+    private SessionRegistry registry;    // Registre propriétaire (peut être null)
+    long seatGeneration;                 // Ouvertures successives de la place libre (protégé par le registre)
+    
+    // Joueur artificiel : place réservée par n'importe quel thread, le reste est modifié par l'acteur
+    private volatile boolean botSeated;
+    private String botId;
+    private AIPlayer botPlayer;
+    private AIExecutor botExecutor;
+    private long botBudgetMillis;
+    private volatile AIExecutor.Request botRequest; // Recherche en cours, au plus une par session
     
     /**
      * Constructeur de la session de jeu
@@ -41,13 +83,136 @@ public class GameSession {
      * @param serverMonitor Le moniteur serveur pour afficher les détails
      */
     public GameSession(ServerMonitor serverMonitor) {
+        this(serverMonitor, null);
+    }
+    
+    /**
+     * Constructeur de la session de jeu avec un exécuteur partagé
+     * 
+     * @param serverMonitor Le moniteur serveur pour afficher les détails
+     * @param executorService L'exécuteur des clients, partagé entre sessions (null pour en créer un)
+     */
+    public GameSession(ServerMonitor serverMonitor, ExecutorService executorService) {
+        this(serverMonitor, executorService, null, SlowConsumerPolicy.fromSystemProperties(serverMonitor));
+    }
+    
+    /**
+     * Constructeur de la session de jeu avec des exécuteurs et une politique partagés
+     * 
+     * @param serverMonitor Le moniteur serveur pour afficher les détails
+     * @param executorService L'exécuteur des clients, partagé entre sessions (null pour en créer un)
+     * @param sessionWorkers Les ouvriers qui exécutent les commandes des sessions (null pour utiliser
+     *        l'exécuteur des clients)
+     * @param slowConsumerPolicy La politique appliquée aux clients lents
+     */
+    public GameSession(ServerMonitor serverMonitor, ExecutorService executorService, Executor sessionWorkers,
+            SlowConsumerPolicy slowConsumerPolicy) {
+        this(serverMonitor, executorService, sessionWorkers, slowConsumerPolicy, GameVariant.DEFAULT);
+    }
+    
+    /**
+     * Constructeur de la session de jeu avec des règles choisies
+     * 
+     * @param serverMonitor Le moniteur serveur pour afficher les détails
+     * @param executorService L'exécuteur des clients, partagé entre sessions (null pour en créer un)
+     * @param sessionWorkers Les ouvriers qui exécutent les commandes des sessions (null pour utiliser
+     *        l'exécuteur des clients)
+     * @param slowConsumerPolicy La politique appliquée aux clients lents
+     * @param variant La taille de la grille et le nombre de pions à aligner pour cette session
+     */
+    public GameSession(ServerMonitor serverMonitor, ExecutorService executorService, Executor sessionWorkers,
+            SlowConsumerPolicy slowConsumerPolicy, GameVariant variant) {
         this.sessionId = UUID.randomUUID().toString();
-        this.gameState = new GameState();
+        this.variant = variant;
+        this.gameState = new GameState(variant);
+        this.snapshot = gameState.snapshot();
+        this.moveLog = new MoveLog(variant);
         this.clients = new ConcurrentHashMap<>();
-        this.executorService = Executors.newCachedThreadPool();
+        this.playerNames = new HashMap<>();
+        this.ownsExecutor = executorService == null;
+        this.executorService = ownsExecutor ? Executors.newCachedThreadPool() : executorService;
         this.serverMonitor = serverMonitor;
+        this.slowConsumerPolicy = slowConsumerPolicy;
+        this.actor = new SessionActor(sessionId, sessionWorkers != null ? sessionWorkers : this.executorService);
         
-        LOGGER.log(Level.INFO, "Nouvelle session de jeu créée : {0}", sessionId);
+        LOGGER.log(Level.INFO, "Nouvelle session de jeu créée : {0} ({1})", new Object[]{sessionId, variant});
+    }
+    
+    /**
+     * Obtient l'ID de la session
+     * 
+     * @return L'ID de la session
+     */
+    public String getSessionId() {
+        return sessionId;
+    }
+    
+    /**
+     * Obtient les règles de la session
+     * 
+     * @return La taille de la grille et le nombre de pions à aligner
+     */
+    public GameVariant getVariant() {
+        return variant;
+    }
+    
+    /**
+     * Obtient le dernier état validé de la partie.
+     * Peut être appelé depuis n'importe quel thread : la photographie est immuable.
+     * 
+     * @return La photographie de l'état du jeu
+     */
+    public GameSnapshot getSnapshot() {
+        return snapshot;
+    }
+    
+    /**
+     * Obtient le nombre de clients connectés à la session
+     * 
+     * @return Le nombre de clients
+     */
+    public int getClientCount() {
+        return clients.size();
+    }
+    
+    /**
+     * Obtient le nombre de places occupées, par les clients et le joueur artificiel
+     * 
+     * @return Le nombre de places occupées
+     */
+    public int getSeatCount() {
+        return clients.size() + (botSeated ? 1 : 0);
+    }
+    
+    /**
+     * Indique si un joueur artificiel occupe une place de la session
+     * 
+     * @return true si un joueur artificiel a été assis
+     */
+    public boolean hasBot() {
+        return botSeated;
+    }
+    
+    /**
+     * Assied un joueur artificiel à la place libre. La place est réservée tout de suite ;
+     * le joueur est installé par l'acteur de la session.
+     * 
+     * @param player Le joueur artificiel
+     * @param executor L'exécuteur des recherches de coups, partagé entre les sessions
+     * @param budgetMillis Temps de réflexion par coup
+     */
+    void seatBot(AIPlayer player, AIExecutor executor, long budgetMillis) {
+        botSeated = true;
+        actor.tell(() -> handleSeatBot(player, executor, budgetMillis));
+    }
+    
+    /**
+     * Associe la session au registre qui la gère
+     * 
+     * @param registry Le registre des sessions
+     */
+    void setRegistry(SessionRegistry registry) {
+        this.registry = registry;
     }
     
     /**
@@ -63,9 +228,10 @@ public class GameSession {
      * Ajoute un nouveau client à la session
      * 
      * @param socket La socket du client
+     * @return L'ID attribué au client
      * @throws IOException En cas d'erreur d'E/S
      */
-    public void addClient(Socket socket) throws IOException {
+    public String addClient(Socket socket) throws IOException {
         String clientId = UUID.randomUUID().toString();
         ClientHandler clientHandler = new ClientHandler(clientId, socket);
         
@@ -79,18 +245,59 @@ public class GameSession {
         if (serverMonitor != null) {
             serverMonitor.addLogMessage("Nouveau client connecté depuis " + socket.getInetAddress().getHostAddress());
         }
+        
+        return clientId;
+    }
+    
+    /**
+     * Ajoute à la session un client connecté par un autre transport (NIO)
+     * 
+     * @param connection La connexion du client
+     */
+    public void addConnection(ClientConnection connection) {
+        clients.put(connection.getClientId(), connection);
+        
+        LOGGER.log(Level.INFO, "Nouveau client connecté : {0} depuis {1}", 
+                new Object[]{connection.getClientId(), connection.getRemoteAddress()});
+        
+        if (serverMonitor != null) {
+            serverMonitor.addLogMessage("Nouveau client connecté depuis " + connection.getRemoteAddress());
+        }
+    }
+    
+    @Override
+    public void connectionOpened(ClientConnection connection) {
+        addConnection(connection);
+    }
+    
+    @Override
+    public void commandReceived(ClientConnection connection, GameCommand command) {
+        String clientId = connection.getClientId();
+        actor.tell(() -> processCommand(clientId, command));
+    }
+    
+    @Override
+    public void connectionClosed(ClientConnection connection) {
+        String clientId = connection.getClientId();
+        actor.tell(() -> handleDisconnect(clientId));
     }
     
     /**
      * Ferme la session et déconnecte tous les clients
      */
     public void close() {
-        for (ClientHandler client : clients.values()) {
+        for (ClientConnection client : clients.values()) {
             client.close();
         }
         
         clients.clear();
-        executorService.shutdown();
+        AIExecutor.Request pending = botRequest;
+        if (pending != null) {
+            pending.cancel();
+        }
+        if (ownsExecutor) {
+            executorService.shutdown();
+        }
         
         LOGGER.log(Level.INFO, "Session fermée : {0}", sessionId);
     }
@@ -101,9 +308,18 @@ public class GameSession {
      * @param command La commande à diffuser
      */
     private void broadcastCommand(GameCommand command) {
-        for (ClientHandler client : clients.values()) {
+        // Encoder une seule fois, la trame est partagée entre tous les destinataires
+        EncodedFrame frame;
+        try {
+            frame = GameProtocol.encodeFrame(command);
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Erreur lors de l'encodage d'une commande : " + command.getType(), e);
+            return;
+        }
+        
+        for (ClientConnection client : clients.values()) {
             try {
-                client.sendCommand(command);
+                client.sendFrame(frame);
                 
                 // Log dans le moniteur serveur
                 if (serverMonitor != null) {
@@ -124,7 +340,7 @@ public class GameSession {
      * @throws IOException En cas d'erreur d'E/S
      */
     private void sendCommand(String clientId, GameCommand command) throws IOException {
-        ClientHandler client = clients.get(clientId);
+        ClientConnection client = clients.get(clientId);
         if (client != null) {
             client.sendCommand(command);
             
@@ -139,6 +355,9 @@ public class GameSession {
                     case GAME_STATE:
                         details = "État: " + command.getGameState().getStatus();
                         break;
+                    case STATE_DELTA:
+                        details = "Version: " + command.getStateDelta().getVersion();
+                        break;
                     case ERROR:
                         details = "Message: " + command.getMessage();
                         break;
@@ -201,6 +420,11 @@ public class GameSession {
                     handleChatMessage(command);
                     break;
                 
+                case STATE_REQUEST:
+                    // Le client a détecté une version manquante : lui renvoyer l'état complet
+                    sendCommand(clientId, GameCommand.createGameStateCommand(snapshot.toGameState()));
+                    break;
+                
                 default:
                     LOGGER.log(Level.WARNING, "Commande non gérée : {0}", command.getType());
             }
@@ -226,8 +450,7 @@ public class GameSession {
         player.setId(clientId);
         
         // Récupérer l'adresse du client
-        Socket clientSocket = clients.get(clientId).getSocket();
-        String clientAddress = clientSocket.getInetAddress().getHostAddress();
+        String clientAddress = clients.get(clientId).getRemoteAddress();
         
         // Informer le moniteur du nouveau client
         if (serverMonitor != null) {
@@ -247,19 +470,25 @@ public class GameSession {
             sendCommand(clientId, GameCommand.createErrorCommand("La partie est déjà pleine"));
             return;
         }
+        playerNames.put(clientId, player.getName());
+        
+        GameSnapshot committed = publishState();
         
         // Confirmer la connexion
         sendCommand(clientId, GameCommand.createConnectAckCommand(player));
         
         // Envoyer l'état du jeu à tous les clients
-        broadcastCommand(GameCommand.createGameStateCommand(gameState));
+        broadcastCommand(GameCommand.createGameStateCommand(committed.toGameState()));
         
         // Mettre à jour l'état du jeu dans le moniteur
         if (serverMonitor != null) {
-            serverMonitor.updateGameState(gameState.toString());
+            serverMonitor.updateGameState(committed.toString());
         }
         
         LOGGER.log(Level.INFO, "Joueur connecté : {0}", player);
+        
+        // Le joueur artificiel commence peut-être la partie
+        requestBotMove();
     }
     
     /**
@@ -270,25 +499,33 @@ public class GameSession {
     private void handleDisconnect(String clientId) {
         // Mettre à jour l'état du jeu
         gameState.playerDisconnected(clientId);
+        playerNames.remove(clientId);
+        GameSnapshot committed = publishState();
         
         // Supprimer le client de la liste
-        ClientHandler client = clients.remove(clientId);
+        ClientConnection client = clients.remove(clientId);
         if (client != null) {
             client.close();
             
             // Mettre à jour le moniteur serveur
             if (serverMonitor != null) {
                 serverMonitor.removeClient(clientId);
-                serverMonitor.addLogMessage("Joueur déconnecté : " + clientId);
+                serverMonitor.addLogMessage("Joueur déconnecté : " + clientId
+                        + " (" + client.getOutboundQueue() + ")");
+            }
+            
+            // Prévenir le registre pour libérer la place ou récupérer la session
+            if (registry != null) {
+                registry.clientLeft(this, clientId);
             }
         }
         
         // Informer les autres clients
-        broadcastCommand(GameCommand.createGameStateCommand(gameState));
+        broadcastCommand(GameCommand.createGameStateCommand(committed.toGameState()));
         
         // Mettre à jour l'état du jeu dans le moniteur
         if (serverMonitor != null) {
-            serverMonitor.updateGameState(gameState.toString());
+            serverMonitor.updateGameState(committed.toString());
         }
         
         LOGGER.log(Level.INFO, "Joueur déconnecté : {0}", clientId);
@@ -302,22 +539,60 @@ public class GameSession {
      */
     private void handleMove(String clientId, GameCommand command) {
         Move move = command.getMove();
-        boolean valid = gameState.makeMove(move.getRow(), move.getCol(), clientId);
+        
+        if (playMove(clientId, move)) {
+            // Au tour du joueur artificiel, s'il y en a un
+            requestBotMove();
+        } else {
+            // Informer le client que le mouvement est invalide
+            try {
+                sendCommand(clientId, GameCommand.createErrorCommand("Mouvement invalide"));
+                
+                if (serverMonitor != null) {
+                    serverMonitor.addLogMessage("Mouvement invalide tenté par " + clientId + 
+                            " en (" + move.getRow() + "," + move.getCol() + ")");
+                }
+            } catch (IOException e) {
+                LOGGER.log(Level.SEVERE, "Erreur lors de l'envoi d'une commande d'erreur", e);
+            }
+        }
+    }
+    
+    /**
+     * Joue un coup et diffuse le nouvel état
+     * 
+     * @param playerId L'ID du joueur (client ou joueur artificiel)
+     * @param move Le coup
+     * @return true si le coup était valide
+     */
+    private boolean playMove(String playerId, Move move) {
+        boolean valid = gameState.makeMove(move.getRow(), move.getCol(), playerId);
         
         if (valid) {
-            // Diffuser l'état du jeu mis à jour
-            broadcastCommand(GameCommand.createGameStateCommand(gameState));
+            moveLog.add(move.getRow(), move.getCol(), System.currentTimeMillis());
+            GameSnapshot committed = publishState();
+            
+            if (GameProtocol.getCodec() == GameProtocol.Codec.LEGACY) {
+                // Les anciens clients ne connaissent pas les différences : leur envoyer l'état complet
+                broadcastCommand(GameCommand.createGameStateCommand(committed.toGameState()));
+            } else {
+                // Diffuser uniquement la différence avec la version précédente
+                StateDelta delta = new StateDelta(committed.getVersion(), move.getRow(), move.getCol(),
+                        committed.getCell(move.getRow(), move.getCol()), committed.getCurrentPlayer(),
+                        committed.getStatus());
+                broadcastCommand(GameCommand.createStateDeltaCommand(delta));
+            }
             
             // Mettre à jour l'état du jeu dans le moniteur
             if (serverMonitor != null) {
-                serverMonitor.updateGameState(gameState.toString());
-                serverMonitor.addLogMessage("Mouvement effectué par " + clientId + 
+                serverMonitor.updateGameState(committed.toString());
+                serverMonitor.addLogMessage("Mouvement effectué par " + playerId + 
                         " en (" + move.getRow() + "," + move.getCol() + ")");
                 
                 // Vérifier si le jeu est terminé
-                if (gameState.getStatus() != GameState.GameStatus.IN_PROGRESS) {
+                if (committed.getStatus() != GameState.GameStatus.IN_PROGRESS) {
                     String resultMessage = "La partie est terminée : ";
-                    switch (gameState.getStatus()) {
+                    switch (committed.getStatus()) {
                         case PLAYER1_WON:
                             resultMessage += "Joueur 1 a gagné !";
                             break;
@@ -334,36 +609,176 @@ public class GameSession {
                 }
             }
             
+            if (committed.getStatus() != GameState.GameStatus.IN_PROGRESS) {
+                if (registry != null) {
+                    registry.gameFinished(committed, moveLog, playerNames.get(committed.getPlayer1Id()),
+                            playerNames.get(committed.getPlayer2Id()));
+                }
+                moveLog.clear();
+            }
+            
             LOGGER.log(Level.INFO, "Mouvement effectué : {0}", move);
+        }
+        return valid;
+    }
+    
+    /**
+     * Installe le joueur artificiel à la place libre (appelé par l'acteur de la session)
+     */
+    private void handleSeatBot(AIPlayer player, AIExecutor executor, long budgetMillis) {
+        String id = BOT_ID_PREFIX + UUID.randomUUID();
+        if (gameState.getPlayer1Id() == null) {
+            gameState.setPlayer1Id(id);
+        } else if (gameState.getPlayer2Id() == null) {
+            gameState.setPlayer2Id(id);
         } else {
-            // Informer le client que le mouvement est invalide
-            try {
-                sendCommand(clientId, GameCommand.createErrorCommand("Mouvement invalide"));
-                
-                if (serverMonitor != null) {
-                    serverMonitor.addLogMessage("Mouvement invalide tenté par " + clientId + 
-                            " en (" + move.getRow() + "," + move.getCol() + ")");
+            botSeated = false;
+            return;
+        }
+        botId = id;
+        botPlayer = player;
+        botExecutor = executor;
+        botBudgetMillis = budgetMillis;
+        
+        GameSnapshot committed = publishState();
+        broadcastCommand(GameCommand.createGameStateCommand(committed.toGameState()));
+        
+        if (serverMonitor != null) {
+            serverMonitor.addClient(id, "Ordinateur (" + player.getName() + ")", "serveur");
+            serverMonitor.addLogMessage("Aucun adversaire n'est arrivé : un joueur artificiel rejoint la session "
+                    + sessionId);
+            serverMonitor.updateGameState(committed.toString());
+        }
+        LOGGER.log(Level.INFO, "Joueur artificiel {0} assis dans la session {1}", new Object[]{id, sessionId});
+        
+        requestBotMove();
+    }
+    
+    /**
+     * Lance la recherche du coup du joueur artificiel si c'est à lui de jouer (appelé par l'acteur).
+     * Une session n'a jamais plus d'une recherche en attente : la file de l'exécuteur, servie dans
+     * l'ordre d'arrivée, fait donc jouer les sessions à tour de rôle.
+     */
+    private void requestBotMove() {
+        if (botId == null || botRequest != null || gameState.getStatus() != GameState.GameStatus.IN_PROGRESS) {
+            return;
+        }
+        int botNumber = botId.equals(gameState.getPlayer1Id()) ? 1 : 2;
+        if (gameState.getCurrentPlayer() != botNumber) {
+            return;
+        }
+        
+        long version = gameState.getVersion();
+        try {
+            botRequest = botExecutor.submit(botPlayer, gameState.copyBoard(), botNumber, botBudgetMillis,
+                    actor::tell, move -> handleBotMove(move, version));
+        } catch (RejectedExecutionException e) {
+            botRequest = null;
+            if (registry != null && registry.retryBotMove(this)) {
+                LOGGER.log(Level.WARNING, "File de l''IA pleine, nouvel essai prévu pour la session {0}", sessionId);
+            } else {
+                LOGGER.log(Level.SEVERE, "File de l''IA pleine, coup de secours dans la session {0}", sessionId);
+                playFallbackMove();
+            }
+        }
+    }
+    
+    /**
+     * Relance la recherche du coup du joueur artificiel après un refus de l'exécuteur de l'IA
+     */
+    void retryBotMove() {
+        actor.tell(this::requestBotMove);
+    }
+    
+    /**
+     * Joue le coup trouvé par le joueur artificiel (appelé par l'acteur)
+     * 
+     * @param move Le coup [row, col]
+     * @param version La version de l'état pour laquelle le coup a été cherché
+     */
+    private void handleBotMove(int[] move, long version) {
+        botRequest = null;
+        if (gameState.getVersion() != version) {
+            // L'état a changé pendant la recherche : chercher à nouveau si nécessaire
+            requestBotMove();
+            return;
+        }
+        if (move == null) {
+            // La recherche a échoué : jouer quand même plutôt que bloquer la partie
+            LOGGER.log(Level.WARNING, "Aucun coup trouvé par le joueur artificiel, coup de secours dans la session {0}",
+                    sessionId);
+            playFallbackMove();
+            return;
+        }
+        playMove(botId, new Move(move[0], move[1], botId));
+    }
+    
+    /**
+     * Fait jouer au joueur artificiel la première case libre, quand sa recherche n'a pas abouti
+     * (appelé par l'acteur, au tour du joueur artificiel)
+     */
+    private void playFallbackMove() {
+        if (botId == null || gameState.getStatus() != GameState.GameStatus.IN_PROGRESS) {
+            return;
+        }
+        int size = gameState.getSize();
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                if (gameState.getCell(row, col) == 0) {
+                    playMove(botId, new Move(row, col, botId));
+                    return;
                 }
-            } catch (IOException e) {
-                LOGGER.log(Level.SEVERE, "Erreur lors de l'envoi d'une commande d'erreur", e);
             }
         }
     }
     
+    /**
+     * Annule la recherche en cours du joueur artificiel (appelé par l'acteur)
+     */
+    private void cancelBotMove() {
+        AIExecutor.Request pending = botRequest;
+        if (pending != null) {
+            pending.cancel();
+            botRequest = null;
+        }
+    }
+    
+    /**
+     * Publie l'état courant après une modification (appelé par l'acteur de la session)
+     * 
+     * @return La photographie publiée
+     */
+    private GameSnapshot publishState() {
+        GameSnapshot committed = gameState.snapshot();
+        snapshot = committed;
+        return committed;
+    }
+    
     /**
      * Gère une commande de réinitialisation du jeu
      */
     private void handleResetGame() {
+        cancelBotMove();
+        if (!moveLog.isEmpty()) {
+            // Partie interrompue : l'archiver telle quelle avant d'effacer la grille
+            if (registry != null) {
+                registry.gameAbandoned(snapshot, moveLog);
+            }
+            moveLog.clear();
+        }
         gameState.resetGame();
-        broadcastCommand(GameCommand.createGameStateCommand(gameState));
+        GameSnapshot committed = publishState();
+        broadcastCommand(GameCommand.createGameStateCommand(committed.toGameState()));
         
         // Mettre à jour l'état du jeu dans le moniteur
         if (serverMonitor != null) {
-            serverMonitor.updateGameState(gameState.toString());
+            serverMonitor.updateGameState(committed.toString());
             serverMonitor.addLogMessage("Jeu réinitialisé");
         }
         
         LOGGER.info("Jeu réinitialisé");
+        
+        requestBotMove();
     }
     
     /**
@@ -385,12 +800,16 @@ public class GameSession {
     }
     
     /**
-     * Classe interne qui gère la connexion avec un client
+     * Classe interne qui gère la connexion avec un client.
+     * La lecture est bloquante sur le thread du client ; les envois passent par une file
+     * vidée par un écrivain sur l'exécuteur, pour qu'un client lent ne bloque pas les autres.
      */
-    private class ClientHandler implements Runnable {
+    private class ClientHandler implements ClientConnection, Runnable {
         
         private final String clientId;
         private final Socket socket;
+        private final OutboundQueue outboundQueue;
+        private final AtomicBoolean writerScheduled;
         private volatile boolean running;
         
         /**
@@ -402,6 +821,8 @@ public class GameSession {
         public ClientHandler(String clientId, Socket socket) {
             this.clientId = clientId;
             this.socket = socket;
+            this.outboundQueue = new OutboundQueue(OutboundQueue.DEFAULT_CAPACITY, slowConsumerPolicy);
+            this.writerScheduled = new AtomicBoolean(false);
             this.running = true;
         }
         
@@ -410,10 +831,16 @@ public class GameSession {
          * 
          * @return L'ID du client
          */
+        @Override
         public String getClientId() {
             return clientId;
         }
         
+        @Override
+        public String getRemoteAddress() {
+            return socket.getInetAddress().getHostAddress();
+        }
+        
         /**
          * Obtient la socket du client
          * 
@@ -429,17 +856,91 @@ public class GameSession {
          * @param command La commande à envoyer
          * @throws IOException En cas d'erreur d'E/S
          */
+        @Override
         public void sendCommand(GameCommand command) throws IOException {
-            synchronized (socket) {
-                GameProtocol.sendCommand(command, socket.getOutputStream());
+            sendFrame(GameProtocol.encodeFrame(command));
+        }
+        
+        /**
+         * Place une trame déjà encodée dans la file d'envoi du client
+         * 
+         * @param frame La trame à envoyer
+         * @throws IOException Si la connexion est fermée ou si la file est pleine
+         */
+        @Override
+        public void sendFrame(EncodedFrame frame) throws IOException {
+            if (!running) {
+                throw new IOException("Connexion fermée : " + clientId);
+            }
+            
+            OutboundQueue.Verdict verdict = outboundQueue.offer(frame);
+            if (verdict != OutboundQueue.Verdict.QUEUED) {
+                slowConsumerPolicy.report(clientId, verdict, outboundQueue);
+            }
+            if (verdict.isEviction()) {
+                // Le client ne lit plus assez vite : la fermeture de la socket termine sa lecture
+                close();
+                throw new IOException("Client lent déconnecté (" + verdict + ") : " + clientId);
+            }
+            
+            if (writerScheduled.compareAndSet(false, true)) {
+                executorService.execute(this::drainOutbound);
+            }
+        }
+        
+        @Override
+        public OutboundQueue getOutboundQueue() {
+            return outboundQueue;
+        }
+        
+        /**
+         * Vide la file d'envoi en regroupant les trames en attente dans un seul appel d'écriture
+         */
+        private void drainOutbound() {
+            List<EncodedFrame> batch = new ArrayList<>();
+            byte[] buffer = BATCH_BUFFERS.get();
+            
+            try {
+                while (running) {
+                    batch.clear();
+                    int size = outboundQueue.drainTo(batch, buffer.length);
+                    
+                    if (batch.isEmpty()) {
+                        writerScheduled.set(false);
+                        // Une trame a pu arriver juste avant de libérer l'écrivain
+                        if (outboundQueue.isEmpty() || !writerScheduled.compareAndSet(false, true)) {
+                            return;
+                        }
+                        continue;
+                    }
+                    
+                    if (size > buffer.length) {
+                        // Trame plus grande que le tampon : écrite seule
+                        batch.get(0).writeTo(socket.getOutputStream());
+                    } else {
+                        int offset = 0;
+                        for (EncodedFrame frame : batch) {
+                            frame.copyTo(buffer, offset);
+                            offset += frame.length();
+                        }
+                        socket.getOutputStream().write(buffer, 0, offset);
+                    }
+                    outboundQueue.recordBatch(batch.size(), size);
+                }
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Erreur lors de l'envoi au client : " + clientId, e);
+                close();
             }
+            writerScheduled.set(false);
         }
         
         /**
          * Ferme la connexion avec le client
          */
+        @Override
         public void close() {
             running = false;
+            outboundQueue.clear();
             try {
                 socket.close();
             } catch (IOException e) {
@@ -449,15 +950,18 @@ public class GameSession {
         
         @Override
         public void run() {
+            // Découpeur conservé pendant toute la connexion, son tampon est réutilisé
+            FrameDecoder decoder = new FrameDecoder();
             try {
+                InputStream inputStream = socket.getInputStream();
                 while (running) {
-                    GameCommand command = GameProtocol.receiveCommand(socket.getInputStream());
-                    processCommand(clientId, command);
+                    GameCommand command = decoder.read(inputStream);
+                    actor.tell(() -> processCommand(clientId, command));
                 }
             } catch (IOException | ClassNotFoundException e) {
                 LOGGER.log(Level.WARNING, "Erreur de communication avec le client : " + clientId, e);
                 // Gérer la déconnexion inattendue
-                handleDisconnect(clientId);
+                actor.tell(() -> handleDisconnect(clientId));
             }
         }
     }
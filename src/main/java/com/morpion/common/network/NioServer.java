@@ -0,0 +1,457 @@
+package com.morpion.common.network;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Serveur non bloquant basé sur {@link Selector} et {@link SocketChannel}.
+ * Un thread accepte les connexions puis les répartit entre un petit nombre fixe
+ * de boucles d'événements, chacune gérant des milliers de clients sans thread dédié.
+ * Le découpage des messages reprend le préfixe de taille sur 4 octets de {@link GameProtocol}.
+ */
+public class NioServer {
+    
+    private static final Logger LOGGER = Logger.getLogger(NioServer.class.getName());
+    
+    // Taille du tampon de lecture partagé par boucle d'événements
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    
+    private final ServerSocketChannel serverChannel;
+    private final EventLoop[] eventLoops;
+    private final ConnectionListener listener;
+    private final SlowConsumerPolicy slowConsumerPolicy;
+    private Thread acceptThread;
+    private int nextLoop;
+    private volatile boolean running;
+    
+    /**
+     * Crée le serveur et ouvre le port d'écoute
+     * 
+     * @param port Le port d'écoute
+     * @param eventLoopCount Le nombre de boucles d'événements
+     * @param listener Le destinataire des événements de connexion
+     * @throws IOException En cas d'erreur d'ouverture du port
+     */
+    public NioServer(int port, int eventLoopCount, ConnectionListener listener) throws IOException {
+        this(port, eventLoopCount, listener, SlowConsumerPolicy.fromSystemProperties(null));
+    }
+    
+    /**
+     * Crée le serveur avec une politique des clients lents et ouvre le port d'écoute
+     * 
+     * @param port Le port d'écoute
+     * @param eventLoopCount Le nombre de boucles d'événements
+     * @param listener Le destinataire des événements de connexion
+     * @param slowConsumerPolicy La politique appliquée aux clients lents
+     * @throws IOException En cas d'erreur d'ouverture du port
+     */
+    public NioServer(int port, int eventLoopCount, ConnectionListener listener,
+            SlowConsumerPolicy slowConsumerPolicy) throws IOException {
+        this.listener = listener;
+        this.slowConsumerPolicy = slowConsumerPolicy;
+        this.serverChannel = ServerSocketChannel.open();
+        this.serverChannel.bind(new InetSocketAddress(port));
+        
+        this.eventLoops = new EventLoop[Math.max(1, eventLoopCount)];
+        for (int i = 0; i < eventLoops.length; i++) {
+            eventLoops[i] = new EventLoop(i);
+        }
+    }
+    
+    /**
+     * Démarre les boucles d'événements et le thread d'acceptation
+     */
+    public void start() {
+        running = true;
+        
+        for (EventLoop loop : eventLoops) {
+            loop.start();
+        }
+        
+        acceptThread = new Thread(this::acceptLoop, "nio-accept");
+        acceptThread.setDaemon(true);
+        acceptThread.start();
+        
+        LOGGER.log(Level.INFO, "Serveur NIO démarré avec {0} boucle(s) d''événements", eventLoops.length);
+    }
+    
+    /**
+     * Arrête le serveur et ferme toutes les connexions
+     */
+    public void close() {
+        running = false;
+        
+        try {
+            serverChannel.close();
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Erreur lors de la fermeture du canal serveur", e);
+        }
+        
+        for (EventLoop loop : eventLoops) {
+            loop.shutdown();
+        }
+        
+        if (acceptThread != null) {
+            acceptThread.interrupt();
+            acceptThread = null;
+        }
+    }
+    
+    /**
+     * Boucle d'acceptation : chaque canal accepté est confié à une boucle d'événements
+     */
+    private void acceptLoop() {
+        while (running) {
+            try {
+                SocketChannel channel = serverChannel.accept();
+                channel.configureBlocking(false);
+                channel.socket().setTcpNoDelay(true);
+                
+                EventLoop loop = eventLoops[nextLoop];
+                nextLoop = (nextLoop + 1) % eventLoops.length;
+                
+                NioConnection connection = new NioConnection(channel, loop);
+                listener.connectionOpened(connection);
+                loop.execute(connection::register);
+                
+            } catch (ClosedChannelException e) {
+                // Fermeture normale du serveur
+                break;
+            } catch (IOException e) {
+                if (running) {
+                    LOGGER.log(Level.SEVERE, "Erreur lors de l'acceptation d'un client", e);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Boucle d'événements : un thread, un sélecteur et une file de tâches
+     */
+    private final class EventLoop implements Runnable {
+        
+        private final Selector selector;
+        private final Queue<Runnable> tasks;
+        private final ByteBuffer readBuffer;
+        private final Thread thread;
+        
+        EventLoop(int index) throws IOException {
+            this.selector = Selector.open();
+            this.tasks = new ConcurrentLinkedQueue<>();
+            this.readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+            this.thread = new Thread(this, "nio-loop-" + index);
+            this.thread.setDaemon(true);
+        }
+        
+        void start() {
+            thread.start();
+        }
+        
+        boolean inEventLoop() {
+            return Thread.currentThread() == thread;
+        }
+        
+        /**
+         * Exécute une tâche sur le thread de la boucle
+         * 
+         * @param task La tâche à exécuter
+         */
+        void execute(Runnable task) {
+            if (inEventLoop()) {
+                task.run();
+            } else {
+                tasks.add(task);
+                selector.wakeup();
+            }
+        }
+        
+        void shutdown() {
+            execute(() -> {
+                for (SelectionKey key : selector.keys()) {
+                    ((NioConnection) key.attachment()).closeChannel();
+                }
+                try {
+                    selector.close();
+                } catch (IOException e) {
+                    LOGGER.log(Level.WARNING, "Erreur lors de la fermeture du sélecteur", e);
+                }
+            });
+        }
+        
+        @Override
+        public void run() {
+            while (running && selector.isOpen()) {
+                try {
+                    selector.select();
+                    runTasks();
+                    
+                    if (!selector.isOpen()) {
+                        break;
+                    }
+                    
+                    Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                    while (keys.hasNext()) {
+                        SelectionKey key = keys.next();
+                        keys.remove();
+                        
+                        NioConnection connection = (NioConnection) key.attachment();
+                        if (!key.isValid()) {
+                            continue;
+                        }
+                        if (key.isReadable()) {
+                            connection.handleRead(readBuffer);
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            connection.flush();
+                        }
+                    }
+                } catch (IOException e) {
+                    LOGGER.log(Level.SEVERE, "Erreur dans la boucle d'événements", e);
+                }
+            }
+            runTasks();
+        }
+        
+        private void runTasks() {
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    LOGGER.log(Level.SEVERE, "Erreur lors de l'exécution d'une tâche", e);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Connexion d'un client sur un canal non bloquant.
+     * Lecture et écriture se font uniquement sur le thread de sa boucle d'événements.
+     * Les trames en attente sont envoyées par lots avec une écriture groupée.
+     */
+    private final class NioConnection implements ClientConnection {
+        
+        private final String clientId;
+        private final SocketChannel channel;
+        private final EventLoop loop;
+        private final String remoteAddress;
+        private final OutboundQueue outboundQueue;
+        private final AtomicBoolean flushScheduled;
+        private final AtomicBoolean closed;
+        
+        // Lot en cours d'écriture (accédé uniquement depuis la boucle)
+        private final List<EncodedFrame> batch;
+        private ByteBuffer[] inFlight;
+        private int inFlightOffset;
+        private int inFlightCount;
+        private int inFlightBytes;
+        private SelectionKey key;
+        
+        // Découpage incrémental des messages, tampon réutilisé
+        private final FrameDecoder decoder;
+        
+        NioConnection(SocketChannel channel, EventLoop loop) throws IOException {
+            this.clientId = UUID.randomUUID().toString();
+            this.channel = channel;
+            this.loop = loop;
+            this.remoteAddress = ((InetSocketAddress) channel.getRemoteAddress()).getAddress().getHostAddress();
+            this.outboundQueue = new OutboundQueue(OutboundQueue.DEFAULT_CAPACITY, slowConsumerPolicy);
+            this.flushScheduled = new AtomicBoolean(false);
+            this.closed = new AtomicBoolean(false);
+            this.batch = new ArrayList<>();
+            this.inFlight = new ByteBuffer[16];
+            this.decoder = new FrameDecoder();
+        }
+        
+        @Override
+        public String getClientId() {
+            return clientId;
+        }
+        
+        @Override
+        public String getRemoteAddress() {
+            return remoteAddress;
+        }
+        
+        @Override
+        public void sendCommand(GameCommand command) throws IOException {
+            sendFrame(GameProtocol.encodeFrame(command));
+        }
+        
+        @Override
+        public void sendFrame(EncodedFrame frame) throws IOException {
+            if (closed.get()) {
+                throw new IOException("Connexion fermée : " + clientId);
+            }
+            
+            OutboundQueue.Verdict verdict = outboundQueue.offer(frame);
+            if (verdict != OutboundQueue.Verdict.QUEUED) {
+                slowConsumerPolicy.report(clientId, verdict, outboundQueue);
+            }
+            if (verdict.isEviction()) {
+                // Le client ne lit plus assez vite : on le déconnecte depuis sa boucle
+                loop.execute(this::connectionLost);
+                throw new IOException("Client lent déconnecté (" + verdict + ") : " + clientId);
+            }
+            
+            // Une seule tâche d'écriture en attente par client, quel que soit le nombre de trames
+            if (flushScheduled.compareAndSet(false, true)) {
+                loop.execute(this::scheduledFlush);
+            }
+        }
+        
+        @Override
+        public OutboundQueue getOutboundQueue() {
+            return outboundQueue;
+        }
+        
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                loop.execute(this::closeChannel);
+            }
+        }
+        
+        /**
+         * Enregistre le canal auprès du sélecteur de la boucle
+         */
+        void register() {
+            try {
+                key = channel.register(loop.selector, SelectionKey.OP_READ, this);
+                if (!outboundQueue.isEmpty()) {
+                    flush();
+                }
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Impossible d'enregistrer le client : " + clientId, e);
+                connectionLost();
+            }
+        }
+        
+        /**
+         * Lit les octets disponibles et extrait les messages complets
+         * 
+         * @param readBuffer Le tampon de lecture partagé de la boucle
+         */
+        void handleRead(ByteBuffer readBuffer) {
+            try {
+                readBuffer.clear();
+                int count = channel.read(readBuffer);
+                if (count < 0) {
+                    connectionLost();
+                    return;
+                }
+                readBuffer.flip();
+                
+                while (readBuffer.hasRemaining()) {
+                    decoder.feed(readBuffer);
+                    
+                    GameCommand command;
+                    while ((command = decoder.next()) != null) {
+                        listener.commandReceived(this, command);
+                    }
+                }
+            } catch (IOException | ClassNotFoundException e) {
+                LOGGER.log(Level.WARNING, "Erreur de communication avec le client : " + clientId, e);
+                connectionLost();
+            }
+        }
+        
+        private void scheduledFlush() {
+            flushScheduled.set(false);
+            flush();
+        }
+        
+        /**
+         * Écrit autant de messages en attente que le canal le permet, par lots.
+         * S'il reste des octets, on attend que le canal redevienne inscriptible.
+         */
+        void flush() {
+            if (key == null || !key.isValid()) {
+                return;
+            }
+            
+            try {
+                while (true) {
+                    if (inFlightOffset == inFlightCount && !nextBatch()) {
+                        break;
+                    }
+                    
+                    channel.write(inFlight, inFlightOffset, inFlightCount - inFlightOffset);
+                    while (inFlightOffset < inFlightCount && !inFlight[inFlightOffset].hasRemaining()) {
+                        inFlight[inFlightOffset++] = null;
+                    }
+                    if (inFlightOffset < inFlightCount) {
+                        key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+                        return;
+                    }
+                    outboundQueue.recordBatch(inFlightCount, inFlightBytes);
+                }
+                key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Erreur lors de l'envoi au client : " + clientId, e);
+                connectionLost();
+            }
+        }
+        
+        /**
+         * Prépare le prochain lot de trames à écrire
+         * 
+         * @return false si la file est vide
+         */
+        private boolean nextBatch() {
+            batch.clear();
+            inFlightBytes = outboundQueue.drainTo(batch, OutboundQueue.MAX_BATCH_BYTES);
+            inFlightOffset = 0;
+            inFlightCount = batch.size();
+            if (inFlightCount == 0) {
+                return false;
+            }
+            
+            if (inFlight.length < inFlightCount) {
+                inFlight = new ByteBuffer[Math.max(inFlightCount, inFlight.length * 2)];
+            }
+            for (int i = 0; i < inFlightCount; i++) {
+                inFlight[i] = batch.get(i).asByteBuffer();
+            }
+            batch.clear();
+            return true;
+        }
+        
+        /**
+         * Gère une déconnexion inattendue et prévient l'écouteur
+         */
+        private void connectionLost() {
+            if (closed.compareAndSet(false, true)) {
+                closeChannel();
+                listener.connectionClosed(this);
+            }
+        }
+        
+        void closeChannel() {
+            if (key != null) {
+                key.cancel();
+            }
+            outboundQueue.clear();
+            try {
+                channel.close();
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Erreur lors de la fermeture du canal client", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.morpion.common.network;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.morpion.common.network.GameCommand.CommandType;
+
+/**
+ * File d'envoi bornée d'un client.
+ * Les trames y sont déposées par n'importe quel thread, puis vidées par un écrivain
+ * qui regroupe plusieurs trames dans un seul appel d'écriture.
+ * Tient aussi les statistiques d'envoi du client (profondeur, pic, volume)
+ * et applique la {@link SlowConsumerPolicy} à chaque mise en file.
+ */
+public class OutboundQueue {
+    
+    /**
+     * Nombre maximal de trames en attente par client
+     */
+    public static final int DEFAULT_CAPACITY = Integer.getInteger("morpion.outbound.capacity", 1024);
+    
+    /**
+     * Taille maximale d'un lot d'écriture
+     */
+    public static final int MAX_BATCH_BYTES = 64 * 1024;
+    
+    /**
+     * Résultat de la mise en file d'une trame
+     */
+    public enum Verdict {
+        QUEUED,         // Trame ajoutée
+        CONFLATED,      // Trame ajoutée, des états en attente ont été retirés
+        FULL,           // File pleine : le client doit être déconnecté
+        TOO_MANY_BYTES, // Arriéré trop volumineux : le client doit être déconnecté
+        TOO_OLD;        // Arriéré trop ancien : le client doit être déconnecté
+        
+        /**
+         * Indique si le client doit être déconnecté
+         * 
+         * @return true si la trame a été refusée
+         */
+        public boolean isEviction() {
+            return this != QUEUED && this != CONFLATED;
+        }
+    }
+    
+    private final ArrayDeque<Entry> frames;
+    private final int capacity;
+    private final SlowConsumerPolicy policy;
+    private int supersedableCount; // Nombre d'états ou de deltas en attente
+    
+    // Statistiques (protégées par this)
+    private long queuedBytes;
+    private int highWaterMark;
+    private long framesSent;
+    private long bytesSent;
+    private long batchesSent;
+    private long framesConflated;
+    
+    /**
+     * Crée une file vide
+     * 
+     * @param capacity Le nombre maximal de trames en attente
+     * @param policy La politique appliquée aux clients lents
+     */
+    public OutboundQueue(int capacity, SlowConsumerPolicy policy) {
+        this.frames = new ArrayDeque<>();
+        this.capacity = capacity;
+        this.policy = policy;
+    }
+    
+    /**
+     * Ajoute une trame en fin de file en appliquant la politique des clients lents :
+     * les états rendus obsolètes par la trame sont retirés, et la trame est refusée
+     * si l'arriéré dépasse les seuils de la politique.
+     * 
+     * @param frame La trame à envoyer
+     * @return Le résultat de la mise en file
+     */
+    synchronized Verdict offer(EncodedFrame frame) {
+        long now = System.nanoTime();
+        Verdict verdict = Verdict.QUEUED;
+        
+        if (supersedableCount > 0 && policy.supersedes(frame.getType(), CommandType.GAME_STATE)) {
+            // Les messages de chat et de contrôle restent en place, dans leur ordre
+            Iterator<Entry> it = frames.iterator();
+            while (it.hasNext()) {
+                Entry entry = it.next();
+                if (policy.supersedes(frame.getType(), entry.frame.getType())) {
+                    it.remove();
+                    queuedBytes -= entry.frame.length();
+                    supersedableCount--;
+                    framesConflated++;
+                    verdict = Verdict.CONFLATED;
+                }
+            }
+        }
+        
+        Entry oldest = frames.peekFirst();
+        if (oldest != null && policy.exceedsDelay(TimeUnit.NANOSECONDS.toMillis(now - oldest.enqueuedAt))) {
+            return Verdict.TOO_OLD;
+        }
+        if (policy.exceedsBytes(queuedBytes + frame.length())) {
+            return Verdict.TOO_MANY_BYTES;
+        }
+        if (frames.size() >= capacity) {
+            return Verdict.FULL;
+        }
+        
+        frames.addLast(new Entry(frame, now));
+        queuedBytes += frame.length();
+        if (isSupersedable(frame)) {
+            supersedableCount++;
+        }
+        highWaterMark = Math.max(highWaterMark, frames.size());
+        return verdict;
+    }
+    
+    /**
+     * Retire un lot de trames consécutives à envoyer ensemble.
+     * Au moins une trame est retirée si la file n'est pas vide, même si elle dépasse la taille maximale.
+     * 
+     * @param batch La liste qui reçoit les trames
+     * @param maxBytes La taille maximale du lot
+     * @return La taille totale du lot en octets
+     */
+    synchronized int drainTo(List<EncodedFrame> batch, int maxBytes) {
+        int size = 0;
+        Entry entry;
+        while ((entry = frames.peekFirst()) != null) {
+            if (!batch.isEmpty() && size + entry.frame.length() > maxBytes) {
+                break;
+            }
+            frames.pollFirst();
+            batch.add(entry.frame);
+            size += entry.frame.length();
+            if (isSupersedable(entry.frame)) {
+                supersedableCount--;
+            }
+        }
+        queuedBytes -= size;
+        return size;
+    }
+    
+    /**
+     * Enregistre l'envoi d'un lot
+     * 
+     * @param frameCount Le nombre de trames du lot
+     * @param byteCount La taille du lot
+     */
+    synchronized void recordBatch(int frameCount, int byteCount) {
+        framesSent += frameCount;
+        bytesSent += byteCount;
+        batchesSent++;
+    }
+    
+    /**
+     * Vide la file sans rien envoyer
+     */
+    synchronized void clear() {
+        frames.clear();
+        queuedBytes = 0;
+        supersedableCount = 0;
+    }
+    
+    /**
+     * Obtient la politique appliquée à cette file
+     * 
+     * @return La politique des clients lents
+     */
+    SlowConsumerPolicy getPolicy() {
+        return policy;
+    }
+    
+    private boolean isSupersedable(EncodedFrame frame) {
+        return policy.supersedes(CommandType.GAME_STATE, frame.getType());
+    }
+    
+    public synchronized boolean isEmpty() {
+        return frames.isEmpty();
+    }
+    
+    // Statistiques
+    
+    public synchronized int getDepth() {
+        return frames.size();
+    }
+    
+    public synchronized long getQueuedBytes() {
+        return queuedBytes;
+    }
+    
+    public synchronized int getHighWaterMark() {
+        return highWaterMark;
+    }
+    
+    public synchronized long getFramesSent() {
+        return framesSent;
+    }
+    
+    public synchronized long getBytesSent() {
+        return bytesSent;
+    }
+    
+    public synchronized long getBatchesSent() {
+        return batchesSent;
+    }
+    
+    public synchronized long getFramesConflated() {
+        return framesConflated;
+    }
+    
+    @Override
+    public synchronized String toString() {
+        return "file=" + frames.size() + "/" + capacity + ", pic=" + highWaterMark
+                + ", trames=" + framesSent + ", écritures=" + batchesSent + ", octets=" + bytesSent
+                + ", remplacées=" + framesConflated;
+    }
+    
+    /**
+     * Trame en attente avec sa date de mise en file
+     */
+    private static final class Entry {
+        
+        final EncodedFrame frame;
+        final long enqueuedAt;
+        
+        Entry(EncodedFrame frame, long enqueuedAt) {
+            this.frame = frame;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.morpion.common.network;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Boîte aux lettres d'une session de jeu : les messages déposés par n'importe quel thread
+ * (threads des clients, boucles d'événements NIO) sont exécutés un par un, dans l'ordre
+ * d'arrivée, par un seul thread à la fois. L'état de la session n'a donc qu'un seul écrivain
+ * et n'a pas besoin de verrou.
+ * Les sessions n'ont pas de thread dédié : elles partagent un petit pool d'ouvriers et
+ * rendent la main après un lot de messages pour ne pas affamer les autres sessions.
+ */
+final class SessionActor implements Runnable {
+    
+    private static final Logger LOGGER = Logger.getLogger(SessionActor.class.getName());
+    
+    // Nombre maximal de messages traités avant de rendre l'ouvrier
+    private static final int MAX_MESSAGES_PER_RUN = 64;
+    
+    private final String name;
+    private final Executor executor;
+    private final ConcurrentLinkedQueue<Runnable> mailbox; // File sans verrou, plusieurs producteurs, un consommateur
+    private final AtomicBoolean scheduled;
+    
+    /**
+     * Constructeur
+     * 
+     * @param name Le nom de l'acteur, pour les journaux
+     * @param executor Les ouvriers partagés qui exécutent les messages
+     */
+    SessionActor(String name, Executor executor) {
+        this.name = name;
+        this.executor = executor;
+        this.mailbox = new ConcurrentLinkedQueue<>();
+        this.scheduled = new AtomicBoolean(false);
+    }
+    
+    /**
+     * Dépose un message dans la boîte aux lettres
+     * 
+     * @param message Le traitement à exécuter par l'acteur
+     */
+    void tell(Runnable message) {
+        mailbox.offer(message);
+        schedule();
+    }
+    
+    /**
+     * Exécute un lot de messages (appelé par un ouvrier)
+     */
+    @Override
+    public void run() {
+        try {
+            Runnable message;
+            for (int i = 0; i < MAX_MESSAGES_PER_RUN && (message = mailbox.poll()) != null; i++) {
+                try {
+                    message.run();
+                } catch (RuntimeException e) {
+                    LOGGER.log(Level.SEVERE, "Erreur lors du traitement d'un message de la session " + name, e);
+                }
+            }
+        } finally {
+            // Libérer l'acteur, puis se reprogrammer si des messages sont arrivés entre-temps
+            scheduled.set(false);
+            if (!mailbox.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+    
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(this);
+            } catch (RejectedExecutionException e) {
+                // Ouvriers arrêtés : le serveur est en cours de fermeture
+                scheduled.set(false);
+                mailbox.clear();
+                LOGGER.log(Level.FINE, "Messages abandonnés, ouvriers arrêtés : {0}", name);
+            }
+        }
+    }
+}
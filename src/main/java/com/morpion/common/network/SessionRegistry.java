@@ -0,0 +1,505 @@
+package com.morpion.common.network;
+
+import java.io.IOException;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.morpion.ai.AIExecutor;
+import com.morpion.ai.AIPlayer;
+import com.morpion.model.GameSnapshot;
+import com.morpion.model.GameState;
+import com.morpion.model.GameVariant;
+import com.morpion.model.PlayerStatistics;
+import com.morpion.model.PlayerStatistics.GameResult;
+import com.morpion.server.replay.MatchIndex;
+import com.morpion.server.replay.MoveLog;
+import com.morpion.server.replay.ReplayLog;
+import com.morpion.server.stats.Leaderboard;
+import com.morpion.server.stats.StatsStore;
+import com.morpion.server.view.ServerMonitor;
+
+/**
+ * Registre des sessions de jeu d'un serveur.
+ * Route chaque nouveau client vers une session qui attend un adversaire, en crée une
+ * nouvelle si aucune place n'est libre, et récupère les sessions abandonnées.
+ * Chaque session joue avec ses propres règles ({@link GameVariant}) ; les nouvelles sessions
+ * reçoivent celles du registre.
+ * Les recherches par session ou par client se font en temps constant.
+ * Un client resté seul plus de {@code morpion.server.botTimeoutMs} millisecondes se voit
+ * proposer un joueur artificiel du serveur.
+ */
+public class SessionRegistry implements ConnectionListener {
+    
+    private static final Logger LOGGER = Logger.getLogger(SessionRegistry.class.getName());
+    
+    // Nombre de joueurs par session
+    static final int SEATS_PER_SESSION = 2;
+    
+    // Nombre d'ouvriers qui exécutent les commandes de toutes les sessions
+    private static final int SESSION_WORKERS = Integer.getInteger("morpion.server.sessionWorkers",
+            Runtime.getRuntime().availableProcessors());
+    
+    // Attente d'un adversaire humain avant d'asseoir un joueur artificiel (0 : jamais)
+    private static final long BOT_TIMEOUT_MILLIS = Long.getLong("morpion.server.botTimeoutMs", 30_000);
+    
+    // Temps de réflexion d'un joueur artificiel du serveur, par coup
+    private static final long BOT_BUDGET_MILLIS = Long.getLong("morpion.server.botBudgetMs", 250);
+    
+    // Délai avant de redemander un coup quand la file de l'IA est pleine
+    private static final long BOT_RETRY_MILLIS = Long.getLong("morpion.server.botRetryMs", 100);
+    
+    private final ConcurrentHashMap<String, GameSession> sessions;
+    private final ConcurrentHashMap<String, GameSession> sessionsByClient;
+    private final LinkedHashSet<GameSession> openSessions; // Sessions avec une place libre (protégé par this)
+    private final ExecutorService clientExecutor;          // Threads des clients en mode bloquant
+    private final ExecutorService sessionWorkers;          // Ouvriers partagés par les boîtes aux lettres des sessions
+    private final SlowConsumerPolicy slowConsumerPolicy;   // Politique partagée par toutes les sessions
+    private final GameVariant variant;                     // Règles des nouvelles sessions
+    private final ScheduledExecutorService botTimer;       // Délais d'attente d'un adversaire (null si désactivé)
+    private final AIPlayer botPlayer;                      // Un joueur par thread de l'exécuteur de l'IA
+    private final ServerMonitor serverMonitor;
+    private final PlayerStatistics statistics;             // Statistiques des joueurs connectés
+    private final Leaderboard leaderboard;                 // Classement Elo des joueurs, par nom
+    private volatile StatsStore statsStore;                // Statistiques durables des joueurs (peut être null)
+    private volatile ReplayLog replayLog;                  // Archive des parties jouées (peut être null)
+    
+    /**
+     * Crée un registre vide
+     * 
+     * @param serverMonitor Le moniteur serveur (peut être null)
+     */
+    public SessionRegistry(ServerMonitor serverMonitor) {
+        this(serverMonitor, Executors.newCachedThreadPool());
+    }
+    
+    /**
+     * Crée un registre vide dont les clients en mode bloquant s'exécutent sur l'exécuteur fourni
+     * (par exemple un exécuteur de threads virtuels)
+     * 
+     * @param serverMonitor Le moniteur serveur (peut être null)
+     * @param clientExecutor L'exécuteur des clients, fermé avec le registre
+     */
+    public SessionRegistry(ServerMonitor serverMonitor, ExecutorService clientExecutor) {
+        this(serverMonitor, clientExecutor, GameVariant.DEFAULT);
+    }
+    
+    /**
+     * Crée un registre vide dont les sessions jouent avec les règles indiquées
+     * 
+     * @param serverMonitor Le moniteur serveur (peut être null)
+     * @param clientExecutor L'exécuteur des clients, fermé avec le registre
+     * @param variant La taille de la grille et le nombre de pions à aligner des nouvelles sessions
+     */
+    public SessionRegistry(ServerMonitor serverMonitor, ExecutorService clientExecutor, GameVariant variant) {
+        this.sessions = new ConcurrentHashMap<>();
+        this.sessionsByClient = new ConcurrentHashMap<>();
+        this.openSessions = new LinkedHashSet<>();
+        this.clientExecutor = clientExecutor;
+        this.sessionWorkers = newSessionWorkers();
+        this.slowConsumerPolicy = SlowConsumerPolicy.fromSystemProperties(serverMonitor);
+        this.variant = variant;
+        this.botTimer = BOT_TIMEOUT_MILLIS > 0 ? newBotTimer() : null;
+        this.botPlayer = AIPlayer.perThread(AIPlayer.nameForVariant(variant), () -> AIPlayer.forVariant(variant));
+        this.statistics = new PlayerStatistics();
+        this.leaderboard = new Leaderboard();
+        this.serverMonitor = serverMonitor;
+    }
+    
+    /**
+     * Ajoute un client connecté par socket bloquante
+     * 
+     * @param socket La socket du client
+     * @throws IOException En cas d'erreur d'E/S
+     */
+    public void addClient(Socket socket) throws IOException {
+        synchronized (this) {
+            GameSession session = acquireSeat();
+            String clientId = session.addClient(socket);
+            sessionsByClient.put(clientId, session);
+            releaseSeat(session);
+        }
+    }
+    
+    @Override
+    public void connectionOpened(ClientConnection connection) {
+        synchronized (this) {
+            GameSession session = acquireSeat();
+            session.addConnection(connection);
+            sessionsByClient.put(connection.getClientId(), session);
+            releaseSeat(session);
+        }
+    }
+    
+    @Override
+    public void commandReceived(ClientConnection connection, GameCommand command) {
+        GameSession session = sessionsByClient.get(connection.getClientId());
+        if (session != null) {
+            session.commandReceived(connection, command);
+        } else {
+            LOGGER.log(Level.WARNING, "Commande reçue d''un client sans session : {0}", connection.getClientId());
+        }
+    }
+    
+    @Override
+    public void connectionClosed(ClientConnection connection) {
+        GameSession session = sessionsByClient.get(connection.getClientId());
+        if (session != null) {
+            session.connectionClosed(connection);
+        }
+    }
+    
+    /**
+     * Obtient une session par son identifiant
+     * 
+     * @param sessionId L'ID de la session
+     * @return La session, ou null si elle n'existe pas
+     */
+    public GameSession getSession(String sessionId) {
+        return sessions.get(sessionId);
+    }
+    
+    /**
+     * Obtient la session d'un client
+     * 
+     * @param clientId L'ID du client
+     * @return La session du client, ou null si le client est inconnu
+     */
+    public GameSession getSessionOfClient(String clientId) {
+        return sessionsByClient.get(clientId);
+    }
+    
+    /**
+     * Obtient la politique appliquée aux clients lents, à partager avec le transport
+     * 
+     * @return La politique des clients lents
+     */
+    public SlowConsumerPolicy getSlowConsumerPolicy() {
+        return slowConsumerPolicy;
+    }
+    
+    /**
+     * Obtient les règles des nouvelles sessions
+     * 
+     * @return La taille de la grille et le nombre de pions à aligner
+     */
+    public GameVariant getVariant() {
+        return variant;
+    }
+    
+    /**
+     * Obtient le nombre de sessions actives
+     * 
+     * @return Le nombre de sessions
+     */
+    public int getSessionCount() {
+        return sessions.size();
+    }
+    
+    /**
+     * Appelé par une session lorsqu'un de ses clients est parti.
+     * La session est récupérée si elle est vide, sinon sa place est proposée à un nouveau client.
+     * 
+     * @param session La session concernée
+     * @param clientId L'ID du client parti
+     */
+    void clientLeft(GameSession session, String clientId) {
+        if (sessionsByClient.remove(clientId) == null) {
+            return;
+        }
+        
+        // L'identifiant ne sert plus : les résultats durables sont rangés sous le nom du joueur
+        statistics.removePlayer(clientId);
+        
+        boolean reclaimed = false;
+        synchronized (this) {
+            if (session.getClientCount() == 0) {
+                openSessions.remove(session);
+                sessions.remove(session.getSessionId());
+                reclaimed = true;
+            } else {
+                releaseSeat(session);
+            }
+        }
+        
+        if (reclaimed) {
+            session.close();
+            if (serverMonitor != null) {
+                serverMonitor.addLogMessage("Session récupérée : " + session.getSessionId()
+                        + " (" + sessions.size() + " session(s) active(s))");
+            }
+        }
+    }
+    
+    /**
+     * Définit le stockage où sont enregistrés les résultats des parties terminées. Comme le
+     * classement, il range les joueurs sous leur nom (sans les espaces de début et de fin) :
+     * un joueur retrouve ses résultats en se reconnectant sous le même nom, y compris après un
+     * redémarrage. Les noms ne sont pas authentifiés, et un joueur sans nom n'y est pas compté.
+     * 
+     * @param statsStore Le stockage des statistiques (null pour ne rien enregistrer)
+     */
+    public void setStatsStore(StatsStore statsStore) {
+        this.statsStore = statsStore;
+    }
+    
+    /**
+     * Définit l'archive où sont enregistrées les parties jouées
+     * 
+     * @param replayLog L'archive des rediffusions (null pour ne rien archiver)
+     */
+    public void setReplayLog(ReplayLog replayLog) {
+        this.replayLog = replayLog;
+    }
+    
+    /**
+     * Obtient l'historique indexé des parties archivées
+     * 
+     * @return Les index des rediffusions, ou null si les parties ne sont pas archivées
+     */
+    public MatchIndex getMatchIndex() {
+        ReplayLog log = replayLog;
+        return log == null ? null : log.getMatchIndex();
+    }
+    
+    /**
+     * Obtient les statistiques des joueurs humains connectés, depuis leur connexion, par identifiant
+     * de connexion. Un joueur est oublié à son départ : ses résultats se consultent ensuite sous son
+     * nom dans {@link StatsStore} (voir {@link #setStatsStore}).
+     * 
+     * @return Les statistiques, partagées avec les sessions
+     */
+    public PlayerStatistics getStatistics() {
+        return statistics;
+    }
+    
+    /**
+     * Obtient le classement Elo des joueurs humains depuis la création du registre. Les joueurs y
+     * sont désignés par leur nom, et non par l'identifiant attribué à chaque connexion : un joueur
+     * qui se reconnecte sous le même nom retrouve sa cote, et le classement ne grossit qu'avec le
+     * nombre de noms différents. Les noms ne sont pas authentifiés.
+     * 
+     * @return Le classement, mis à jour à chaque partie terminée entre deux joueurs humains
+     */
+    public Leaderboard getLeaderboard() {
+        return leaderboard;
+    }
+    
+    /**
+     * Enregistre le résultat d'une partie terminée pour ses deux joueurs et met à jour le classement
+     * (appelé par l'acteur de la session ; les joueurs artificiels sont ignorés)
+     * 
+     * @param result L'état final de la partie
+     * @param moves Les coups de la partie
+     * @param player1Name Le nom du premier joueur (null s'il est inconnu)
+     * @param player2Name Le nom du second joueur (null s'il est inconnu)
+     */
+    void gameFinished(GameSnapshot result, MoveLog moves, String player1Name, String player2Name) {
+        archive(result, moves);
+        GameState.GameStatus status = result.getStatus();
+        GameResult first = status == GameState.GameStatus.PLAYER1_WON ? GameResult.WIN
+                : status == GameState.GameStatus.PLAYER2_WON ? GameResult.LOSE : GameResult.DRAW;
+        GameResult second = first == GameResult.WIN ? GameResult.LOSE
+                : first == GameResult.LOSE ? GameResult.WIN : GameResult.DRAW;
+        
+        // Conserver et classer sous le nom des joueurs, stable d'une connexion à l'autre
+        String firstName = ratingName(player1Name);
+        String secondName = ratingName(player2Name);
+        record(result.getPlayer1Id(), firstName, first);
+        record(result.getPlayer2Id(), secondName, second);
+        if (isHuman(result.getPlayer1Id()) && isHuman(result.getPlayer2Id())
+                && firstName != null && secondName != null) {
+            leaderboard.recordGame(firstName, secondName, first);
+        }
+    }
+    
+    /**
+     * Archive une partie interrompue avant sa fin (appelé par l'acteur de la session)
+     * 
+     * @param last Le dernier état de la partie
+     * @param moves Les coups joués
+     */
+    void gameAbandoned(GameSnapshot last, MoveLog moves) {
+        archive(last, moves);
+    }
+    
+    private void archive(GameSnapshot state, MoveLog moves) {
+        ReplayLog log = replayLog;
+        if (log != null) {
+            try {
+                log.append(moves, state.getStatus(), state.getPlayer1Id(), state.getPlayer2Id());
+            } catch (IOException | IllegalStateException e) {
+                LOGGER.log(Level.WARNING, "Partie non archivée dans les rediffusions", e);
+            }
+        }
+    }
+    
+    private static String ratingName(String playerName) {
+        if (playerName == null) {
+            return null;
+        }
+        String name = playerName.trim();
+        return name.isEmpty() ? null : name;
+    }
+    
+    private static boolean isHuman(String playerId) {
+        return playerId != null && !playerId.startsWith(GameSession.BOT_ID_PREFIX);
+    }
+    
+    private void record(String playerId, String playerName, GameResult result) {
+        if (!isHuman(playerId)) {
+            return;
+        }
+        statistics.recordGameResult(playerId, result);
+        StatsStore store = statsStore;
+        if (store != null && playerName != null) {
+            try {
+                store.record(playerName, result);
+            } catch (IOException | IllegalStateException e) {
+                LOGGER.log(Level.WARNING, "Résultat de " + playerName + " non enregistré dans les statistiques", e);
+            }
+        }
+    }
+    
+    /**
+     * Ferme toutes les sessions et libère les ressources
+     */
+    public void close() {
+        List<GameSession> all;
+        synchronized (this) {
+            all = new ArrayList<>(sessions.values());
+            sessions.clear();
+            openSessions.clear();
+        }
+        
+        for (GameSession session : all) {
+            session.close();
+        }
+        sessionsByClient.clear();
+        clientExecutor.shutdownNow();
+        sessionWorkers.shutdown();
+        if (botTimer != null) {
+            botTimer.shutdownNow();
+        }
+        
+        LOGGER.log(Level.INFO, "{0} session(s) fermée(s)", all.size());
+    }
+    
+    /**
+     * Crée le pool d'ouvriers des sessions, dimensionné sur le nombre de cœurs :
+     * des milliers de sessions s'y partagent quelques threads
+     * 
+     * @return Le pool d'ouvriers
+     */
+    private static ExecutorService newSessionWorkers() {
+        AtomicInteger count = new AtomicInteger();
+        return Executors.newFixedThreadPool(Math.max(1, SESSION_WORKERS), task -> {
+            Thread thread = new Thread(task, "morpion-session-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    /**
+     * Crée le minuteur des attentes d'adversaire
+     * 
+     * @return Le minuteur, sur un seul thread démon
+     */
+    private static ScheduledExecutorService newBotTimer() {
+        return Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "morpion-bot-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    /**
+     * Assied un joueur artificiel dans une session si sa place est restée libre depuis
+     * le démarrage du délai
+     * 
+     * @param session La session
+     * @param generation L'ouverture de la place à laquelle correspond le délai
+     */
+    private void seatBot(GameSession session, long generation) {
+        synchronized (this) {
+            if (session.seatGeneration != generation || !openSessions.contains(session)
+                    || session.getClientCount() == 0 || session.hasBot()) {
+                return;
+            }
+            openSessions.remove(session);
+            session.seatBot(botPlayer, AIExecutor.shared(), BOT_BUDGET_MILLIS);
+        }
+    }
+    
+    /**
+     * Programme une nouvelle demande de coup pour le joueur artificiel d'une session, refusée
+     * par l'exécuteur de l'IA
+     * 
+     * @param session La session
+     * @return false si aucune relance n'a pu être programmée (registre fermé)
+     */
+    boolean retryBotMove(GameSession session) {
+        if (botTimer == null) {
+            return false;
+        }
+        try {
+            botTimer.schedule(session::retryBotMove, BOT_RETRY_MILLIS, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+    
+    /**
+     * Choisit la session qui accueillera le prochain client (appelé sous verrou).
+     * La plus ancienne session en attente est servie en premier.
+     * 
+     * @return Une session avec une place libre
+     */
+    private GameSession acquireSeat() {
+        Iterator<GameSession> it = openSessions.iterator();
+        if (it.hasNext()) {
+            GameSession session = it.next();
+            it.remove();
+            return session;
+        }
+        
+        GameSession session = new GameSession(serverMonitor, clientExecutor, sessionWorkers, slowConsumerPolicy, variant);
+        session.setRegistry(this);
+        sessions.put(session.getSessionId(), session);
+        
+        if (serverMonitor != null) {
+            serverMonitor.addLogMessage("Nouvelle session : " + session.getSessionId() + " en " + variant
+                    + " (" + sessions.size() + " session(s) active(s))");
+        }
+        return session;
+    }
+    
+    /**
+     * Remet la session dans la liste d'attente s'il lui reste une place (appelé sous verrou)
+     * 
+     * @param session La session
+     */
+    private void releaseSeat(GameSession session) {
+        if (session.getSeatCount() < SEATS_PER_SESSION && sessions.containsKey(session.getSessionId())) {
+            // La place vient de se libérer : démarrer l'attente d'un adversaire humain
+            if (openSessions.add(session) && botTimer != null) {
+                long generation = ++session.seatGeneration;
+                botTimer.schedule(() -> seatBot(session, generation), BOT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        } else {
+            openSessions.remove(session);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.morpion.common.network;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.morpion.common.network.GameCommand.CommandType;
+import com.morpion.server.view.ServerMonitor;
+
+/**
+ * Politique appliquée aux clients qui ne lisent pas assez vite.
+ * Les états du jeu en attente sont remplacés par le plus récent (les messages de chat
+ * restent tous, dans l'ordre), et un client dont l'arriéré dépasse un seuil en octets
+ * ou en ancienneté est déconnecté. Chaque action est signalée au moniteur serveur.
+ */
+public final class SlowConsumerPolicy {
+    
+    private static final Logger LOGGER = Logger.getLogger(SlowConsumerPolicy.class.getName());
+    
+    private final boolean conflateStates;
+    private final long maxQueuedBytes;
+    private final long maxQueueDelayMillis;
+    private final ServerMonitor serverMonitor;
+    
+    /**
+     * Constructeur
+     * 
+     * @param conflateStates Indique si les états en attente sont remplacés par le plus récent
+     * @param maxQueuedBytes Arriéré maximal en octets (0 pour ne pas limiter)
+     * @param maxQueueDelayMillis Ancienneté maximale du plus vieux message en attente (0 pour ne pas limiter)
+     * @param serverMonitor Le moniteur serveur (peut être null)
+     */
+    public SlowConsumerPolicy(boolean conflateStates, long maxQueuedBytes, long maxQueueDelayMillis,
+            ServerMonitor serverMonitor) {
+        this.conflateStates = conflateStates;
+        this.maxQueuedBytes = maxQueuedBytes;
+        this.maxQueueDelayMillis = maxQueueDelayMillis;
+        this.serverMonitor = serverMonitor;
+    }
+    
+    /**
+     * Crée la politique à partir des propriétés système
+     * {@code morpion.slowConsumer.conflate}, {@code morpion.slowConsumer.maxBytes}
+     * et {@code morpion.slowConsumer.maxDelayMs}
+     * 
+     * @param serverMonitor Le moniteur serveur (peut être null)
+     * @return La politique configurée
+     */
+    public static SlowConsumerPolicy fromSystemProperties(ServerMonitor serverMonitor) {
+        boolean conflate = !"false".equalsIgnoreCase(System.getProperty("morpion.slowConsumer.conflate"));
+        long maxBytes = Long.getLong("morpion.slowConsumer.maxBytes", 1024 * 1024);
+        long maxDelay = Long.getLong("morpion.slowConsumer.maxDelayMs", 10_000);
+        return new SlowConsumerPolicy(conflate, maxBytes, maxDelay, serverMonitor);
+    }
+    
+    /**
+     * Indique si un message en attente devient inutile lorsqu'un autre est mis en file.
+     * Un état complet remplace les états et les deltas qui le précèdent.
+     * 
+     * @param incoming Le type du message ajouté
+     * @param pending Le type du message en attente
+     * @return true si le message en attente peut être retiré
+     */
+    boolean supersedes(CommandType incoming, CommandType pending) {
+        return conflateStates && incoming == CommandType.GAME_STATE
+                && (pending == CommandType.GAME_STATE || pending == CommandType.STATE_DELTA);
+    }
+    
+    /**
+     * Indique si l'arriéré dépasse le seuil en octets
+     * 
+     * @param queuedBytes Les octets en attente
+     * @return true si le client doit être déconnecté
+     */
+    boolean exceedsBytes(long queuedBytes) {
+        return maxQueuedBytes > 0 && queuedBytes > maxQueuedBytes;
+    }
+    
+    /**
+     * Indique si le plus vieux message en attente est trop ancien
+     * 
+     * @param delayMillis L'ancienneté du plus vieux message
+     * @return true si le client doit être déconnecté
+     */
+    boolean exceedsDelay(long delayMillis) {
+        return maxQueueDelayMillis > 0 && delayMillis > maxQueueDelayMillis;
+    }
+    
+    /**
+     * Signale une action de la politique au journal et au moniteur serveur
+     * 
+     * @param clientId L'ID du client concerné
+     * @param verdict Le résultat de la mise en file
+     * @param queue La file du client
+     */
+    void report(String clientId, OutboundQueue.Verdict verdict, OutboundQueue queue) {
+        String message;
+        switch (verdict) {
+            case CONFLATED:
+                message = "Client lent " + clientId + " : états en attente remplacés par le plus récent ("
+                        + queue.getFramesConflated() + " au total)";
+                break;
+            case TOO_MANY_BYTES:
+                message = "Client lent " + clientId + " déconnecté : arriéré supérieur à "
+                        + maxQueuedBytes + " octets (" + queue + ")";
+                break;
+            case TOO_OLD:
+                message = "Client lent " + clientId + " déconnecté : message en attente depuis plus de "
+                        + maxQueueDelayMillis + " ms (" + queue + ")";
+                break;
+            case FULL:
+                message = "Client lent " + clientId + " déconnecté : file d'envoi pleine (" + queue + ")";
+                break;
+            default:
+                return;
+        }
+        
+        LOGGER.log(verdict == OutboundQueue.Verdict.CONFLATED ? Level.FINE : Level.WARNING, message);
+        if (serverMonitor != null) {
+            serverMonitor.addLogMessage(message);
+        }
+    }
+    
+    @Override
+    public String toString() {
+        return "SlowConsumerPolicy [conflate=" + conflateStates + ", maxBytes=" + maxQueuedBytes
+                + ", maxDelayMs=" + maxQueueDelayMillis + "]";
+    }
+}
@@ -0,0 +1,84 @@
+package com.morpion.common.utils;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Classe utilitaire pour les threads virtuels (Java 21 et plus).
+ * Les méthodes sont appelées par réflexion pour que le projet reste compilable
+ * avec une cible plus ancienne ; sur une JVM sans threads virtuels, on se replie
+ * sur des threads classiques.
+ */
+public class VirtualThreads {
+    
+    private static final Logger LOGGER = Logger.getLogger(VirtualThreads.class.getName());
+    
+    private static final Method NEW_PER_TASK_EXECUTOR = findMethod(Executors.class,
+            "newVirtualThreadPerTaskExecutor");
+    private static final Method START_VIRTUAL_THREAD = findMethod(Thread.class,
+            "startVirtualThread", Runnable.class);
+    
+    /**
+     * Indique si la JVM courante propose les threads virtuels
+     * 
+     * @return true si les threads virtuels sont disponibles
+     */
+    public static boolean isAvailable() {
+        return NEW_PER_TASK_EXECUTOR != null && START_VIRTUAL_THREAD != null;
+    }
+    
+    /**
+     * Crée un exécuteur qui lance chaque tâche dans un nouveau thread virtuel.
+     * Sans threads virtuels, renvoie un pool de threads classiques.
+     * 
+     * @return L'exécuteur
+     */
+    public static ExecutorService newPerTaskExecutor() {
+        if (isAvailable()) {
+            try {
+                return (ExecutorService) NEW_PER_TASK_EXECUTOR.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                LOGGER.log(Level.WARNING, "Impossible de créer l'exécuteur de threads virtuels", e);
+            }
+        }
+        
+        LOGGER.warning("Threads virtuels indisponibles (Java 21 requis), utilisation de threads classiques");
+        return Executors.newCachedThreadPool();
+    }
+    
+    /**
+     * Démarre une tâche dans un thread virtuel, ou dans un thread classique démon
+     * si les threads virtuels ne sont pas disponibles
+     * 
+     * @param name Le nom du thread
+     * @param task La tâche à exécuter
+     * @return Le thread démarré
+     */
+    public static Thread start(String name, Runnable task) {
+        if (isAvailable()) {
+            try {
+                Thread thread = (Thread) START_VIRTUAL_THREAD.invoke(null, task);
+                thread.setName(name);
+                return thread;
+            } catch (ReflectiveOperationException e) {
+                LOGGER.log(Level.WARNING, "Impossible de démarrer un thread virtuel", e);
+            }
+        }
+        
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+    
+    private static Method findMethod(Class<?> type, String name, Class<?>... parameterTypes) {
+        try {
+            return type.getMethod(name, parameterTypes);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
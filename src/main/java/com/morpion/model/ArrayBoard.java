@@ -0,0 +1,101 @@
+package com.morpion.model;
+
+import java.util.Arrays;
+
+/**
+ * Grille N x N stockée dans un tableau d'octets, ligne par ligne.
+ * Adaptée aux grilles de taille moyenne (Gomoku 15x15 : 225 octets).
+ */
+final class ArrayBoard implements Board {
+    
+    private static final long serialVersionUID = 1L;
+    
+    private final int size;
+    private final int winLength;
+    private final byte[] cells;
+    private int moveCount;
+    
+    /**
+     * Crée une grille vide
+     * 
+     * @param size Taille de la grille
+     * @param winLength Nombre de pions à aligner
+     */
+    ArrayBoard(int size, int winLength) {
+        this.size = size;
+        this.winLength = winLength;
+        this.cells = new byte[size * size];
+    }
+    
+    private ArrayBoard(ArrayBoard other) {
+        this.size = other.size;
+        this.winLength = other.winLength;
+        this.cells = other.cells.clone();
+        this.moveCount = other.moveCount;
+    }
+    
+    @Override
+    public int getSize() {
+        return size;
+    }
+    
+    @Override
+    public int getWinLength() {
+        return winLength;
+    }
+    
+    @Override
+    public int get(int row, int col) {
+        return cells[row * size + col];
+    }
+    
+    @Override
+    public void set(int row, int col, int player) {
+        int index = row * size + col;
+        if (cells[index] == 0 && player != 0) {
+            moveCount++;
+        } else if (cells[index] != 0 && player == 0) {
+            moveCount--;
+        }
+        cells[index] = (byte) player;
+    }
+    
+    @Override
+    public int getMoveCount() {
+        return moveCount;
+    }
+    
+    @Override
+    public void forEachOccupied(CellVisitor visitor) {
+        for (int index = 0; index < cells.length; index++) {
+            if (cells[index] != 0) {
+                visitor.visit(index / size, index % size, cells[index]);
+            }
+        }
+    }
+    
+    @Override
+    public void clear() {
+        Arrays.fill(cells, (byte) 0);
+        moveCount = 0;
+    }
+    
+    @Override
+    public Board copy() {
+        return new ArrayBoard(this);
+    }
+    
+    @Override
+    public int countFrom(int row, int col, int dRow, int dCol, int player, int limit) {
+        // Même parcours que la version par défaut, directement sur le tableau
+        int count = 0;
+        int r = row + dRow;
+        int c = col + dCol;
+        while (count < limit && r >= 0 && r < size && c >= 0 && c < size && cells[r * size + c] == player) {
+            count++;
+            r += dRow;
+            c += dCol;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,184 @@
+package com.morpion.model;
+
+/**
+ * Représentation compacte d'une grille de morpion 3x3 dans un seul entier.
+ * Les 9 bits de poids faible contiennent les cases du joueur 1, les bits 16 à 24
+ * celles du joueur 2 ; la case (ligne, colonne) correspond au bit {@code 3 * ligne + colonne}
+ * de chaque masque. Les 8 alignements gagnants sont précalculés, ce qui rend la pose
+ * d'un pion, le test de victoire et le hachage sans allocation et presque sans branchement.
+ */
+public final class BitBoard {
+    
+    /**
+     * Masque de toutes les cases
+     */
+    public static final int FULL = 0x1FF;
+    
+    /**
+     * Décalage du masque du joueur 2
+     */
+    public static final int PLAYER2_SHIFT = 16;
+    
+    /**
+     * Les 8 alignements gagnants : 3 lignes, 3 colonnes, 2 diagonales
+     */
+    public static final int[] WIN_MASKS = {
+        0b000_000_111, 0b000_111_000, 0b111_000_000,   // Lignes
+        0b001_001_001, 0b010_010_010, 0b100_100_100,   // Colonnes
+        0b100_010_001, 0b001_010_100                   // Diagonales
+    };
+    
+    // Pour chaque case, les alignements qui la contiennent
+    private static final int[][] LINES_THROUGH = new int[9][];
+    
+    static {
+        for (int cell = 0; cell < 9; cell++) {
+            int count = 0;
+            for (int mask : WIN_MASKS) {
+                if ((mask & (1 << cell)) != 0) {
+                    count++;
+                }
+            }
+            LINES_THROUGH[cell] = new int[count];
+            int index = 0;
+            for (int mask : WIN_MASKS) {
+                if ((mask & (1 << cell)) != 0) {
+                    LINES_THROUGH[cell][index++] = mask;
+                }
+            }
+        }
+    }
+    
+    private BitBoard() {
+    }
+    
+    /**
+     * Obtient l'indice d'une case
+     * 
+     * @param row Ligne (0-2)
+     * @param col Colonne (0-2)
+     * @return L'indice de la case (0-8)
+     */
+    public static int index(int row, int col) {
+        return 3 * row + col;
+    }
+    
+    /**
+     * Obtient le masque des cases d'un joueur
+     * 
+     * @param board La grille compacte
+     * @param player Le joueur (1 ou 2)
+     * @return Le masque 9 bits des cases du joueur
+     */
+    public static int mask(int board, int player) {
+        return (player == 1 ? board : board >>> PLAYER2_SHIFT) & FULL;
+    }
+    
+    /**
+     * Obtient le masque des cases occupées
+     * 
+     * @param board La grille compacte
+     * @return Le masque 9 bits des cases occupées
+     */
+    public static int occupied(int board) {
+        return (board | (board >>> PLAYER2_SHIFT)) & FULL;
+    }
+    
+    /**
+     * Obtient le contenu d'une case
+     * 
+     * @param board La grille compacte
+     * @param row Ligne (0-2)
+     * @param col Colonne (0-2)
+     * @return 0 si la case est vide, sinon le numéro du joueur
+     */
+    public static int cell(int board, int row, int col) {
+        int bit = index(row, col);
+        return ((board >>> bit) & 1) | (((board >>> (bit + PLAYER2_SHIFT)) & 1) << 1);
+    }
+    
+    /**
+     * Pose (ou remplace) le pion d'un joueur sur une case
+     * 
+     * @param board La grille compacte
+     * @param row Ligne (0-2)
+     * @param col Colonne (0-2)
+     * @param player Le joueur (1 ou 2), ou 0 pour vider la case
+     * @return La nouvelle grille compacte
+     */
+    public static int set(int board, int row, int col, int player) {
+        int bit = 1 << index(row, col);
+        board &= ~(bit | (bit << PLAYER2_SHIFT));
+        if (player == 1) {
+            board |= bit;
+        } else if (player == 2) {
+            board |= bit << PLAYER2_SHIFT;
+        }
+        return board;
+    }
+    
+    /**
+     * Indique si un masque contient un alignement gagnant
+     * 
+     * @param mask Le masque 9 bits des cases d'un joueur
+     * @return true si le joueur a gagné
+     */
+    public static boolean isWin(int mask) {
+        for (int line : WIN_MASKS) {
+            if ((mask & line) == line) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Indique si le dernier pion posé complète un alignement.
+     * Seuls les alignements passant par la case sont testés.
+     * 
+     * @param mask Le masque 9 bits des cases du joueur, pion compris
+     * @param row Ligne du dernier pion
+     * @param col Colonne du dernier pion
+     * @return true si le joueur a gagné
+     */
+    public static boolean isWinThrough(int mask, int row, int col) {
+        for (int line : LINES_THROUGH[index(row, col)]) {
+            if ((mask & line) == line) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Compacte une grille 3x3
+     * 
+     * @param grid La grille (0 : vide, 1 ou 2 : joueur)
+     * @return La grille compacte
+     */
+    public static int fromGrid(int[][] grid) {
+        int board = 0;
+        for (int row = 0; row < 3; row++) {
+            for (int col = 0; col < 3; col++) {
+                board = set(board, row, col, grid[row][col]);
+            }
+        }
+        return board;
+    }
+    
+    /**
+     * Développe une grille compacte dans un nouveau tableau 3x3
+     * 
+     * @param board La grille compacte
+     * @return Une nouvelle grille
+     */
+    public static int[][] toGrid(int board) {
+        int[][] grid = new int[3][3];
+        for (int row = 0; row < 3; row++) {
+            for (int col = 0; col < 3; col++) {
+                grid[row][col] = cell(board, row, col);
+            }
+        }
+        return grid;
+    }
+}
@@ -0,0 +1,189 @@
+package com.morpion.model;
+
+import java.io.Serializable;
+
+/**
+ * Grille carrée de taille N sur laquelle il faut aligner K pions (morpion 3x3, Gomoku 15x15...).
+ * La détection de victoire ne parcourt que les 4 directions passant par le dernier coup,
+ * soit au plus 4 x 2 x (K - 1) cases lues, quelle que soit la taille de la grille.
+ * Utiliser {@link #create(int, int)} pour obtenir la représentation adaptée à la taille.
+ */
+public interface Board extends Serializable {
+    
+    /**
+     * Taille au-delà de laquelle la grille n'est plus stockée dans un tableau mais dans une
+     * table de hachage (seules les cases jouées occupent de la mémoire)
+     */
+    int SPARSE_THRESHOLD = Integer.getInteger("morpion.board.sparseAbove", 64);
+    
+    /**
+     * Taille maximale d'une grille : l'indice d'une case (ligne x taille + colonne) tient sur 30 bits
+     */
+    int MAX_SIZE = 1 << 15;
+    
+    /**
+     * Les 4 directions d'alignement : horizontale, verticale, diagonale, anti-diagonale
+     */
+    int[][] DIRECTIONS = {{0, 1}, {1, 0}, {1, 1}, {1, -1}};
+    
+    /**
+     * Visiteur des cases occupées
+     */
+    @FunctionalInterface
+    interface CellVisitor {
+        
+        /**
+         * @param row Ligne de la case
+         * @param col Colonne de la case
+         * @param player Le joueur (1 ou 2)
+         */
+        void visit(int row, int col, int player);
+    }
+    
+    /**
+     * Crée une grille vide avec la représentation la plus adaptée :
+     * bitboard pour le morpion classique, tableau pour les grilles moyennes,
+     * stockage creux pour les très grandes grilles
+     * 
+     * @param size Taille de la grille
+     * @param winLength Nombre de pions à aligner
+     * @return Une nouvelle grille vide
+     * @throws IllegalArgumentException Si les dimensions sont invalides
+     */
+    static Board create(int size, int winLength) {
+        if (size < 1 || size > MAX_SIZE || winLength < 1 || winLength > size) {
+            throw new IllegalArgumentException("Grille invalide : " + size + "x" + size + ", " + winLength
+                    + " à aligner");
+        }
+        if (size == 3 && winLength == 3) {
+            return new CompactBoard();
+        }
+        return size > SPARSE_THRESHOLD ? new SparseBoard(size, winLength) : new ArrayBoard(size, winLength);
+    }
+    
+    /**
+     * Obtient la taille de la grille
+     * 
+     * @return Le nombre de lignes (et de colonnes)
+     */
+    int getSize();
+    
+    /**
+     * Obtient le nombre de pions à aligner pour gagner
+     * 
+     * @return La longueur d'un alignement gagnant
+     */
+    int getWinLength();
+    
+    /**
+     * Obtient le contenu d'une case
+     * 
+     * @param row Ligne
+     * @param col Colonne
+     * @return 0 si la case est vide, sinon le numéro du joueur
+     */
+    int get(int row, int col);
+    
+    /**
+     * Pose (ou remplace) le pion d'un joueur sur une case
+     * 
+     * @param row Ligne
+     * @param col Colonne
+     * @param player Le joueur (1 ou 2), ou 0 pour vider la case
+     */
+    void set(int row, int col, int player);
+    
+    /**
+     * Obtient le nombre de cases occupées
+     * 
+     * @return Le nombre de pions posés
+     */
+    int getMoveCount();
+    
+    /**
+     * Parcourt les cases occupées
+     * 
+     * @param visitor Le visiteur appelé pour chaque pion
+     */
+    void forEachOccupied(CellVisitor visitor);
+    
+    /**
+     * Vide la grille
+     */
+    void clear();
+    
+    /**
+     * Crée une copie indépendante de la grille
+     * 
+     * @return La copie
+     */
+    Board copy();
+    
+    /**
+     * Indique si des coordonnées sont dans la grille
+     * 
+     * @param row Ligne
+     * @param col Colonne
+     * @return true si la case existe
+     */
+    default boolean contains(int row, int col) {
+        return row >= 0 && row < getSize() && col >= 0 && col < getSize();
+    }
+    
+    /**
+     * Indique si toutes les cases sont occupées
+     * 
+     * @return true si la grille est pleine
+     */
+    default boolean isFull() {
+        return getMoveCount() == getSize() * getSize();
+    }
+    
+    /**
+     * Indique si le pion posé sur une case complète un alignement.
+     * Seules les cases des 4 directions passant par ce pion sont lues.
+     * 
+     * @param row Ligne du dernier pion
+     * @param col Colonne du dernier pion
+     * @return true si le joueur de cette case a gagné
+     */
+    default boolean completesLine(int row, int col) {
+        int player = get(row, col);
+        if (player == 0) {
+            return false;
+        }
+        int winLength = getWinLength();
+        for (int[] direction : DIRECTIONS) {
+            int count = 1
+                    + countFrom(row, col, direction[0], direction[1], player, winLength - 1)
+                    + countFrom(row, col, -direction[0], -direction[1], player, winLength - 1);
+            if (count >= winLength) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Compte les pions consécutifs d'un joueur dans une direction, sans compter la case de départ
+     * 
+     * @param row Ligne de départ
+     * @param col Colonne de départ
+     * @param dRow Pas en ligne
+     * @param dCol Pas en colonne
+     * @param player Le joueur
+     * @param limit Nombre maximal de cases à lire
+     * @return Le nombre de pions consécutifs
+     */
+    default int countFrom(int row, int col, int dRow, int dCol, int player, int limit) {
+        int count = 0;
+        int r = row + dRow;
+        int c = col + dCol;
+        while (count < limit && contains(r, c) && get(r, c) == player) {
+            count++;
+            r += dRow;
+            c += dCol;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,91 @@
+package com.morpion.model;
+
+/**
+ * Grille du morpion classique (3x3, 3 à aligner) stockée dans un seul entier {@link BitBoard}.
+ * La victoire se teste avec les alignements précalculés passant par le dernier coup.
+ */
+public final class CompactBoard implements Board {
+    
+    private static final long serialVersionUID = 1L;
+    
+    private int bits;
+    
+    /**
+     * Crée une grille vide
+     */
+    public CompactBoard() {
+        this(0);
+    }
+    
+    /**
+     * Crée une grille à partir d'un bitboard
+     * 
+     * @param bits La grille compacte (voir {@link BitBoard})
+     */
+    public CompactBoard(int bits) {
+        this.bits = bits;
+    }
+    
+    /**
+     * Obtient la grille compacte, utilisable aussi comme clé de hachage de la position
+     * 
+     * @return La grille sous forme de {@link BitBoard}
+     */
+    public int getBits() {
+        return bits;
+    }
+    
+    @Override
+    public int getSize() {
+        return 3;
+    }
+    
+    @Override
+    public int getWinLength() {
+        return 3;
+    }
+    
+    @Override
+    public int get(int row, int col) {
+        return BitBoard.cell(bits, row, col);
+    }
+    
+    @Override
+    public void set(int row, int col, int player) {
+        bits = BitBoard.set(bits, row, col, player);
+    }
+    
+    @Override
+    public int getMoveCount() {
+        return Integer.bitCount(BitBoard.occupied(bits));
+    }
+    
+    @Override
+    public void forEachOccupied(CellVisitor visitor) {
+        for (int occupied = BitBoard.occupied(bits); occupied != 0; occupied &= occupied - 1) {
+            int index = Integer.numberOfTrailingZeros(occupied);
+            visitor.visit(index / 3, index % 3, BitBoard.cell(bits, index / 3, index % 3));
+        }
+    }
+    
+    @Override
+    public void clear() {
+        bits = 0;
+    }
+    
+    @Override
+    public Board copy() {
+        return new CompactBoard(bits);
+    }
+    
+    @Override
+    public boolean isFull() {
+        return BitBoard.occupied(bits) == BitBoard.FULL;
+    }
+    
+    @Override
+    public boolean completesLine(int row, int col) {
+        int player = get(row, col);
+        return player != 0 && BitBoard.isWinThrough(BitBoard.mask(bits, player), row, col);
+    }
+}
@@ -0,0 +1,149 @@
+package com.morpion.model;
+
+import java.io.Serializable;
+
+/**
+ * Photographie immuable de l'état du jeu à une version donnée.
+ * Produite par {@link GameState#snapshot()} après chaque modification, elle peut être
+ * lue par n'importe quel thread (diffusion, moniteur, persistance) sans verrou ni copie,
+ * pendant que seul l'écrivain de la session modifie l'état mutable.
+ * La grille est une copie privée de celle de l'état, jamais modifiée ; pour le morpion classique
+ * c'est un simple {@link BitBoard}, ce qui rend la création très peu coûteuse.
+ */
+public final class GameSnapshot implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
+    
+    // Taille maximale d'une grille dessinée par toString()
+    private static final int MAX_DRAWN_SIZE = 32;
+    
+    private final Board board;             // Copie privée, jamais modifiée
+    private final int currentPlayer;
+    private final GameState.GameStatus status;
+    private final String player1Id;
+    private final String player2Id;
+    private final long version;
+    
+    /**
+     * Constructeur
+     * 
+     * @param board Grille, dont la photographie devient propriétaire
+     * @param currentPlayer Joueur dont c'est le tour (1 ou 2)
+     * @param status Statut de la partie
+     * @param player1Id Identifiant du joueur 1
+     * @param player2Id Identifiant du joueur 2
+     * @param version Version de l'état
+     */
+    GameSnapshot(Board board, int currentPlayer, GameState.GameStatus status, String player1Id, String player2Id,
+            long version) {
+        this.board = board;
+        this.currentPlayer = currentPlayer;
+        this.status = status;
+        this.player1Id = player1Id;
+        this.player2Id = player2Id;
+        this.version = version;
+    }
+    
+    /**
+     * Obtient le contenu d'une case
+     * 
+     * @param row Ligne (0 à taille - 1)
+     * @param col Colonne (0 à taille - 1)
+     * @return 0 si la case est vide, sinon le numéro du joueur
+     */
+    public int getCell(int row, int col) {
+        return board.get(row, col);
+    }
+    
+    /**
+     * Obtient une copie de la grille
+     * 
+     * @return Une nouvelle grille N x N
+     */
+    public int[][] getGrid() {
+        return GameState.toGrid(board);
+    }
+    
+    /**
+     * Obtient une copie de la grille, par exemple pour l'explorer dans une IA
+     * 
+     * @return Une grille indépendante de la photographie
+     */
+    public Board copyBoard() {
+        return board.copy();
+    }
+    
+    /**
+     * Reconstruit un état mutable indépendant, par exemple pour l'envoyer sur le réseau
+     * 
+     * @return Un nouvel état de jeu identique à la photographie
+     */
+    public GameState toGameState() {
+        return new GameState(board, currentPlayer, status, player1Id, player2Id, version);
+    }
+    
+    // Getters
+    
+    public int getSize() {
+        return board.getSize();
+    }
+    
+    public int getWinLength() {
+        return board.getWinLength();
+    }
+    
+    public int getMoveCount() {
+        return board.getMoveCount();
+    }
+    
+    public int getCurrentPlayer() {
+        return currentPlayer;
+    }
+    
+    public GameState.GameStatus getStatus() {
+        return status;
+    }
+    
+    public String getPlayer1Id() {
+        return player1Id;
+    }
+    
+    public String getPlayer2Id() {
+        return player2Id;
+    }
+    
+    public long getVersion() {
+        return version;
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("État du jeu:\n");
+        int size = board.getSize();
+        if (size > MAX_DRAWN_SIZE) {
+            // Grille trop grande pour être dessinée
+            sb.append(size).append("x").append(size).append(", ").append(board.getMoveCount())
+                    .append(" coup(s) joué(s)\n");
+        } else {
+            for (int i = 0; i < size; i++) {
+                for (int j = 0; j < size; j++) {
+                    switch (getCell(i, j)) {
+                        case 1:
+                            sb.append("X ");
+                            break;
+                        case 2:
+                            sb.append("O ");
+                            break;
+                        default:
+                            sb.append("  ");
+                    }
+                }
+                sb.append("\n");
+            }
+        }
+        sb.append("Joueur actuel: ").append(currentPlayer).append("\n");
+        sb.append("Statut: ").append(status);
+        return sb.toString();
+    }
+}
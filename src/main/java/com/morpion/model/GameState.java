@@ -1,19 +1,41 @@
 
 package com.morpion.model;
 
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
 
 /**
  * Représente l'état du jeu de morpion.
+ * La grille est un {@link Board} de taille N sur lequel il faut aligner K pions : {@link BitBoard}
+ * pour le morpion classique, tableau ou stockage creux pour les grandes grilles (voir {@link GameVariant}).
+ * La sérialisation du morpion classique conserve l'ancien format (grille {@code int[3][3]})
+ * pour rester compatible avec les anciens clients.
  * Cette classe est sérialisable pour être transmise via le réseau.
  */
 public class GameState implements Serializable {
     
     private static final long serialVersionUID = 1L;
     
-    // Tableau représentant la grille du morpion (3x3)
-    // 0: case vide, 1: joueur 1 (X), 2: joueur 2 (O)
-    private final int[][] grid;
+    // Champs sérialisés : format historique (grille 3x3 sous forme de tableau), complété pour
+    // les autres variantes par la taille, le nombre de pions à aligner et la liste des cases jouées
+    private static final ObjectStreamField[] serialPersistentFields = {
+        new ObjectStreamField("grid", int[][].class),
+        new ObjectStreamField("currentPlayer", int.class),
+        new ObjectStreamField("status", GameStatus.class),
+        new ObjectStreamField("player1Id", String.class),
+        new ObjectStreamField("player2Id", String.class),
+        new ObjectStreamField("version", long.class),
+        new ObjectStreamField("size", int.class),
+        new ObjectStreamField("winLength", int.class),
+        new ObjectStreamField("cells", int[].class)
+    };
+    
+    // Grille de jeu (bitboard pour le morpion classique)
+    private Board board;
     
     // Joueur dont c'est le tour (1 ou 2)
     private int currentPlayer;
@@ -25,6 +47,12 @@ public class GameState implements Serializable {
     private String player1Id;
     private String player2Id;
     
+    // Version de l'état, incrémentée à chaque modification
+    private long version;
+    
+    // Dernière photographie produite, réutilisée tant que la version ne change pas
+    private transient GameSnapshot snapshot;
+    
     /**
      * Énumération des statuts possibles du jeu
      */
@@ -37,21 +65,65 @@ public class GameState implements Serializable {
     }
     
     /**
-     * Constructeur par défaut. Initialise une nouvelle partie.
+     * Constructeur par défaut. Initialise une nouvelle partie de morpion classique.
      */
     public GameState() {
-        this.grid = new int[3][3];
+        this(GameVariant.CLASSIC);
+    }
+    
+    /**
+     * Initialise une nouvelle partie avec les règles indiquées
+     * 
+     * @param variant Taille de la grille et nombre de pions à aligner
+     */
+    public GameState(GameVariant variant) {
+        this.board = variant.newBoard();
         this.currentPlayer = 1;  // Le joueur 1 commence
         this.status = GameStatus.WAITING_FOR_PLAYERS;
         this.player1Id = null;
         this.player2Id = null;
     }
     
+    /**
+     * Reconstruit un état de jeu existant (par exemple reçu du réseau).
+     * 
+     * @param grid Grille 3x3 (copiée)
+     * @param currentPlayer Joueur dont c'est le tour (1 ou 2)
+     * @param status Statut de la partie
+     * @param player1Id Identifiant du joueur 1
+     * @param player2Id Identifiant du joueur 2
+     * @param version Version de l'état
+     */
+    public GameState(int[][] grid, int currentPlayer, GameStatus status, String player1Id, String player2Id,
+            long version) {
+        this(new CompactBoard(BitBoard.fromGrid(grid)), currentPlayer, status, player1Id, player2Id, version);
+    }
+    
+    /**
+     * Reconstruit un état de jeu existant sur une grille quelconque.
+     * 
+     * @param board Grille (copiée)
+     * @param currentPlayer Joueur dont c'est le tour (1 ou 2)
+     * @param status Statut de la partie
+     * @param player1Id Identifiant du joueur 1
+     * @param player2Id Identifiant du joueur 2
+     * @param version Version de l'état
+     */
+    public GameState(Board board, int currentPlayer, GameStatus status, String player1Id, String player2Id,
+            long version) {
+        this.board = board.copy();
+        this.currentPlayer = currentPlayer;
+        this.status = status;
+        this.player1Id = player1Id;
+        this.player2Id = player2Id;
+        this.version = version;
+    }
+    
     /**
      * Effectue un mouvement sur la grille.
      * 
-     * @param row Ligne (0-2)
-     * @param col Colonne (0-2)
+     * @param row Ligne (0 à taille - 1)
+     * @param col Colonne (0 à taille - 1)
      * @param playerId Identifiant du joueur qui effectue le mouvement
      * @return true si le mouvement est valide, false sinon
      */
@@ -68,74 +140,68 @@ public class GameState implements Serializable {
         }
         
         // Vérifier que les coordonnées sont valides
-        if (row < 0 || row > 2 || col < 0 || col > 2) {
+        if (!board.contains(row, col)) {
             return false;
         }
         
         // Vérifier que la case est vide
-        if (grid[row][col] != 0) {
+        if (board.get(row, col) != 0) {
             return false;
         }
         
         // Effectuer le mouvement
-        grid[row][col] = currentPlayer;
+        board.set(row, col, currentPlayer);
         
         // Vérifier si le jeu est terminé
-        checkGameStatus();
+        checkGameStatus(row, col);
         
         // Changer de joueur si le jeu n'est pas terminé
         if (status == GameStatus.IN_PROGRESS) {
             currentPlayer = (currentPlayer == 1) ? 2 : 1;
         }
         
+        version++;
         return true;
     }
     
     /**
-     * Vérifie si le jeu est terminé (victoire ou match nul)
+     * Applique une différence reçue du serveur.
+     * Une différence déjà couverte par l'état courant est ignorée.
+     * 
+     * @param delta La différence à appliquer
+     * @return false si des versions intermédiaires manquent (un état complet est alors nécessaire)
      */
-    private void checkGameStatus() {
-        // Vérifier les lignes
-        for (int i = 0; i < 3; i++) {
-            if (grid[i][0] != 0 && grid[i][0] == grid[i][1] && grid[i][1] == grid[i][2]) {
-                status = (grid[i][0] == 1) ? GameStatus.PLAYER1_WON : GameStatus.PLAYER2_WON;
-                return;
-            }
-        }
-        
-        // Vérifier les colonnes
-        for (int i = 0; i < 3; i++) {
-            if (grid[0][i] != 0 && grid[0][i] == grid[1][i] && grid[1][i] == grid[2][i]) {
-                status = (grid[0][i] == 1) ? GameStatus.PLAYER1_WON : GameStatus.PLAYER2_WON;
-                return;
-            }
+    public boolean applyDelta(StateDelta delta) {
+        if (delta.getVersion() <= version) {
+            return true;
         }
-        
-        // Vérifier la diagonale principale
-        if (grid[0][0] != 0 && grid[0][0] == grid[1][1] && grid[1][1] == grid[2][2]) {
-            status = (grid[0][0] == 1) ? GameStatus.PLAYER1_WON : GameStatus.PLAYER2_WON;
-            return;
-        }
-        
-        // Vérifier l'autre diagonale
-        if (grid[0][2] != 0 && grid[0][2] == grid[1][1] && grid[1][1] == grid[2][0]) {
-            status = (grid[0][2] == 1) ? GameStatus.PLAYER1_WON : GameStatus.PLAYER2_WON;
-            return;
+        if (delta.getVersion() != version + 1) {
+            return false;
         }
         
-        // Vérifier s'il y a match nul (toutes les cases sont remplies)
-        boolean isFull = true;
-        for (int i = 0; i < 3; i++) {
-            for (int j = 0; j < 3; j++) {
-                if (grid[i][j] == 0) {
-                    isFull = false;
-                    break;
-                }
-            }
-            if (!isFull) break;
+        if (!board.contains(delta.getRow(), delta.getCol())) {
+            return false;
         }
         
-        if (isFull) {
+        board.set(delta.getRow(), delta.getCol(), delta.getPlayerValue());
+        currentPlayer = delta.getNextPlayer();
+        status = delta.getStatus();
+        version = delta.getVersion();
+        return true;
+    }
+    
+    /**
+     * Vérifie si le jeu est terminé (victoire ou match nul) après le coup du joueur courant.
+     * Seuls les alignements passant par le dernier coup sont examinés.
+     * 
+     * @param row Ligne du dernier coup
+     * @param col Colonne du dernier coup
+     */
+    private void checkGameStatus(int row, int col) {
+        if (board.completesLine(row, col)) {
+            status = (currentPlayer == 1) ? GameStatus.PLAYER1_WON : GameStatus.PLAYER2_WON;
+        } else if (board.isFull()) {
+            // Toutes les cases sont remplies
             status = GameStatus.DRAW;
         }
     }
@@ -144,23 +210,91 @@ public class GameState implements Serializable {
      * Réinitialise la partie
      */
     public void resetGame() {
-        for (int i = 0; i < 3; i++) {
-            for (int j = 0; j < 3; j++) {
-                grid[i][j] = 0;
-            }
-        }
+        board.clear();
         currentPlayer = 1;
         if (player1Id != null && player2Id != null) {
             status = GameStatus.IN_PROGRESS;
         } else {
             status = GameStatus.WAITING_FOR_PLAYERS;
         }
+        version++;
+    }
+    
+    /**
+     * Produit une photographie immuable de l'état courant.
+     * Tant que l'état n'est pas modifié, la même photographie est renvoyée.
+     * 
+     * @return La photographie de la version courante
+     */
+    public GameSnapshot snapshot() {
+        GameSnapshot current = snapshot;
+        if (current == null || current.getVersion() != version) {
+            current = new GameSnapshot(board.copy(), currentPlayer, status, player1Id, player2Id, version);
+            snapshot = current;
+        }
+        return current;
     }
     
     // Getters et setters
     
+    /**
+     * Obtient une copie de la grille de jeu, pour l'affichage.
+     * Les modifications de la copie n'ont pas d'effet sur l'état.
+     * 
+     * @return Une nouvelle grille N x N (0 : vide, 1 : joueur 1, 2 : joueur 2)
+     */
     public int[][] getGrid() {
-        return grid;
+        return toGrid(board);
+    }
+    
+    /**
+     * Obtient une copie de la grille, par exemple pour l'explorer dans une IA
+     * 
+     * @return Une grille indépendante de l'état
+     */
+    public Board copyBoard() {
+        return board.copy();
+    }
+    
+    /**
+     * Obtient le contenu d'une case
+     * 
+     * @param row Ligne (0 à taille - 1)
+     * @param col Colonne (0 à taille - 1)
+     * @return 0 si la case est vide, sinon le numéro du joueur
+     */
+    public int getCell(int row, int col) {
+        return board.get(row, col);
+    }
+    
+    /**
+     * Obtient les règles de la partie
+     * 
+     * @return La taille de la grille et le nombre de pions à aligner
+     */
+    public GameVariant getVariant() {
+        return new GameVariant(board.getSize(), board.getWinLength());
+    }
+    
+    public int getSize() {
+        return board.getSize();
+    }
+    
+    public int getWinLength() {
+        return board.getWinLength();
+    }
+    
+    public int getMoveCount() {
+        return board.getMoveCount();
+    }
+    
+    /**
+     * Parcourt les cases occupées sans copier la grille
+     * 
+     * @param visitor Le visiteur appelé pour chaque pion
+     */
+    public void forEachOccupied(Board.CellVisitor visitor) {
+        board.forEachOccupied(visitor);
     }
     
     public int getCurrentPlayer() {
@@ -173,6 +307,11 @@ public class GameState implements Serializable {
     
     public void setStatus(GameStatus status) {
         this.status = status;
+        version++;
+    }
+    
+    public long getVersion() {
+        return version;
     }
     
     public String getPlayer1Id() {
@@ -181,6 +320,7 @@ public class GameState implements Serializable {
     
     public void setPlayer1Id(String player1Id) {
         this.player1Id = player1Id;
+        version++;
         checkBothPlayersJoined();
     }
     
@@ -190,6 +330,7 @@ public class GameState implements Serializable {
     
     public void setPlayer2Id(String player2Id) {
         this.player2Id = player2Id;
+        version++;
         checkBothPlayersJoined();
     }
     
@@ -215,30 +356,87 @@ public class GameState implements Serializable {
         if (status == GameStatus.IN_PROGRESS) {
             status = GameStatus.WAITING_FOR_PLAYERS;
         }
+        version++;
     }
     
-    @Override
-    public String toString() {
-        StringBuilder sb = new StringBuilder();
-        sb.append("État du jeu:\n");
-        for (int i = 0; i < 3; i++) {
-            for (int j = 0; j < 3; j++) {
-                switch (grid[i][j]) {
-                    case 0:
-                        sb.append("  ");
-                        break;
-                    case 1:
-                        sb.append("X ");
-                        break;
-                    case 2:
-                        sb.append("O ");
-                        break;
+    /**
+     * Développe une grille dans un nouveau tableau
+     * 
+     * @param board La grille
+     * @return Un tableau N x N
+     */
+    static int[][] toGrid(Board board) {
+        int[][] grid = new int[board.getSize()][board.getSize()];
+        board.forEachOccupied((row, col, player) -> grid[row][col] = player);
+        return grid;
+    }
+    
+    /**
+     * Écrit l'état : format historique (grille 3x3) pour le morpion classique,
+     * liste des cases jouées pour les autres variantes
+     * 
+     * @param out Le flux de sortie
+     * @throws IOException En cas d'erreur d'écriture
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        ObjectOutputStream.PutField fields = out.putFields();
+        if (board instanceof CompactBoard) {
+            fields.put("grid", toGrid(board));
+        } else {
+            // Chaque case jouée : (indice << 1) | (joueur - 1)
+            int[] cells = new int[board.getMoveCount()];
+            int size = board.getSize();
+            int[] count = {0};
+            board.forEachOccupied((row, col, player) -> cells[count[0]++] = ((row * size + col) << 1) | (player - 1));
+            fields.put("cells", cells);
+        }
+        fields.put("size", board.getSize());
+        fields.put("winLength", board.getWinLength());
+        fields.put("currentPlayer", currentPlayer);
+        fields.put("status", status);
+        fields.put("player1Id", player1Id);
+        fields.put("player2Id", player2Id);
+        fields.put("version", version);
+        out.writeFields();
+    }
+    
+    /**
+     * Lit l'état (format historique ou liste des cases jouées)
+     * 
+     * @param in Le flux d'entrée
+     * @throws IOException En cas d'erreur de lecture
+     * @throws ClassNotFoundException Si une classe est introuvable
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        int[][] grid = (int[][]) fields.get("grid", null);
+        int[] cells = (int[]) fields.get("cells", null);
+        if (cells != null) {
+            int size = fields.get("size", 3);
+            try {
+                board = Board.create(size, fields.get("winLength", 3));
+            } catch (IllegalArgumentException e) {
+                throw new InvalidObjectException(e.getMessage());
+            }
+            for (int cell : cells) {
+                int index = cell >>> 1;
+                if (index >= size * size) {
+                    throw new InvalidObjectException("Case hors de la grille : " + index);
                 }
+                board.set(index / size, index % size, (cell & 1) + 1);
             }
-            sb.append("\n");
+        } else {
+            board = new CompactBoard(grid != null ? BitBoard.fromGrid(grid) : 0);
         }
-        sb.append("Joueur actuel: ").append(currentPlayer).append("\n");
-        sb.append("Statut: ").append(status);
-        return sb.toString();
+        currentPlayer = fields.get("currentPlayer", 1);
+        status = (GameStatus) fields.get("status", GameStatus.WAITING_FOR_PLAYERS);
+        player1Id = (String) fields.get("player1Id", null);
+        player2Id = (String) fields.get("player2Id", null);
+        version = fields.get("version", 0L);
+    }
+    
+    @Override
+    public String toString() {
+        return snapshot().toString();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,125 @@
+package com.morpion.model;
+
+import java.io.Serializable;
+
+/**
+ * Règles d'une partie : taille de la grille et nombre de pions à aligner.
+ * Le morpion classique est la variante 3x3/3, le Gomoku la variante 15x15/5.
+ */
+public final class GameVariant implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
+    
+    /**
+     * Le morpion classique
+     */
+    public static final GameVariant CLASSIC = new GameVariant(3, 3);
+    
+    /**
+     * Variante par défaut des nouvelles parties, configurable par les propriétés
+     * morpion.game.boardSize et morpion.game.winLength
+     */
+    public static final GameVariant DEFAULT = fromSystemProperties();
+    
+    private final int size;
+    private final int winLength;
+    
+    /**
+     * Constructeur
+     * 
+     * @param size Taille de la grille
+     * @param winLength Nombre de pions à aligner
+     * @throws IllegalArgumentException Si les dimensions sont invalides
+     */
+    public GameVariant(int size, int winLength) {
+        if (size < 1 || size > Board.MAX_SIZE || winLength < 1 || winLength > size) {
+            throw new IllegalArgumentException("Variante invalide : " + size + "x" + size + "/" + winLength);
+        }
+        this.size = size;
+        this.winLength = winLength;
+    }
+    
+    /**
+     * Lit une variante de la forme "15x15/5", "15/5" ou "15" (le nombre de pions à aligner
+     * vaut alors 3 pour la grille 3x3 et 5 au-delà, sans dépasser la taille)
+     * 
+     * @param text La variante
+     * @return La variante lue
+     * @throws IllegalArgumentException Si le texte est invalide
+     */
+    public static GameVariant parse(String text) {
+        try {
+            String value = text.trim().toLowerCase();
+            int slash = value.indexOf('/');
+            String sizePart = slash >= 0 ? value.substring(0, slash) : value;
+            int x = sizePart.indexOf('x');
+            int size = Integer.parseInt(x >= 0 ? sizePart.substring(0, x) : sizePart);
+            if (x >= 0 && Integer.parseInt(sizePart.substring(x + 1)) != size) {
+                throw new IllegalArgumentException("Seules les grilles carrées sont prises en charge : " + text);
+            }
+            int winLength = slash >= 0 ? Integer.parseInt(value.substring(slash + 1)) : defaultWinLength(size);
+            return new GameVariant(size, winLength);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Variante invalide : " + text, e);
+        }
+    }
+    
+    private static GameVariant fromSystemProperties() {
+        int size = Integer.getInteger("morpion.game.boardSize", 3);
+        return new GameVariant(size, Integer.getInteger("morpion.game.winLength", defaultWinLength(size)));
+    }
+    
+    private static int defaultWinLength(int size) {
+        return Math.min(size, 5);
+    }
+    
+    /**
+     * Crée une grille vide pour cette variante
+     * 
+     * @return Une nouvelle grille
+     */
+    public Board newBoard() {
+        return Board.create(size, winLength);
+    }
+    
+    /**
+     * Indique s'il s'agit du morpion classique 3x3
+     * 
+     * @return true pour la variante 3x3/3
+     */
+    public boolean isClassic() {
+        return size == 3 && winLength == 3;
+    }
+    
+    // Getters
+    
+    public int getSize() {
+        return size;
+    }
+    
+    public int getWinLength() {
+        return winLength;
+    }
+    
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof GameVariant)) {
+            return false;
+        }
+        GameVariant other = (GameVariant) obj;
+        return size == other.size && winLength == other.winLength;
+    }
+    
+    @Override
+    public int hashCode() {
+        return 31 * size + winLength;
+    }
+    
+    @Override
+    public String toString() {
+        return size + "x" + size + "/" + winLength;
+    }
+}
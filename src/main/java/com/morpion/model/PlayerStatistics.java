@@ -1,20 +1,29 @@
 package com.morpion.model;
 
 import java.io.Serializable;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
- * Classe de gestion des statistiques des joueurs
+ * Classe de gestion des statistiques des joueurs.
+ *
+ * <p>Utilisable depuis plusieurs threads sans verrou : les joueurs sont rangés dans une
+ * {@link ConcurrentHashMap} et chaque compteur est un {@link LongAdder}, réparti en cellules
+ * quand plusieurs sessions enregistrent en même temps. Les lectures renvoient des copies
+ * cohérentes : chaque {@link PlayerStats} obtenu correspond à un instant où aucune partie
+ * du joueur n'était à moitié comptée.</p>
  */
 public class PlayerStatistics implements Serializable {
-    private static final long serialVersionUID = 1L;
+    private static final long serialVersionUID = 2L;
 
     // Statistiques pour chaque joueur
-    private Map<String, PlayerStats> playerStatsMap;
+    private final ConcurrentHashMap<String, Counters> playerStatsMap;
 
     public PlayerStatistics() {
-        this.playerStatsMap = new HashMap<>();
+        this.playerStatsMap = new ConcurrentHashMap<>();
     }
 
     /**
@@ -23,28 +32,52 @@ public class PlayerStatistics implements Serializable {
      * @param result Résultat de la partie (victoire, défaite, draw)
      */
     public void recordGameResult(String playerId, GameResult result) {
-        PlayerStats stats = playerStatsMap.computeIfAbsent(playerId, k -> new PlayerStats());
-        
-        switch (result) {
-            case WIN:
-                stats.incrementWins();
-                break;
-            case LOSE:
-                stats.incrementLosses();
-                break;
-            case DRAW:
-                stats.incrementDraws();
-                break;
+        Counters counters = playerStatsMap.get(playerId);
+        if (counters == null) {
+            // computeIfAbsent verrouille l'entrée : réservé à la première partie du joueur
+            counters = playerStatsMap.computeIfAbsent(playerId, k -> new Counters());
         }
+        counters.record(result);
     }
 
     /**
      * Obtient les statistiques d'un joueur
      * @param playerId Identifiant du joueur
-     * @return Statistiques du joueur
+     * @return Copie des statistiques du joueur, ou null s'il n'a joué aucune partie
      */
     public PlayerStats getPlayerStats(String playerId) {
-        return playerStatsMap.get(playerId);
+        Counters counters = playerStatsMap.get(playerId);
+        return counters == null ? null : counters.snapshot();
+    }
+
+    /**
+     * Oublie un joueur, par exemple quand il se déconnecte : la table ne garde ainsi que
+     * les joueurs présents. Une partie enregistrée en même temps pour ce joueur peut être perdue.
+     * @param playerId Identifiant du joueur
+     * @return Copie de ses dernières statistiques, ou null s'il n'avait joué aucune partie
+     */
+    public PlayerStats removePlayer(String playerId) {
+        Counters counters = playerStatsMap.remove(playerId);
+        return counters == null ? null : counters.snapshot();
+    }
+
+    /**
+     * Obtient le nombre de joueurs ayant au moins une partie enregistrée
+     * @return Le nombre de joueurs
+     */
+    public int getPlayerCount() {
+        return playerStatsMap.size();
+    }
+
+    /**
+     * Copie les statistiques de tous les joueurs. Chaque joueur est copié de façon cohérente ;
+     * les parties enregistrées pendant la copie peuvent y figurer ou non.
+     * @return Les statistiques par joueur, non modifiables
+     */
+    public Map<String, PlayerStats> snapshot() {
+        Map<String, PlayerStats> copy = new HashMap<>(playerStatsMap.size() * 4 / 3 + 1);
+        playerStatsMap.forEach((playerId, counters) -> copy.put(playerId, counters.snapshot()));
+        return Collections.unmodifiableMap(copy);
     }
 
     /**
@@ -55,7 +88,80 @@ public class PlayerStatistics implements Serializable {
     }
 
     /**
-     * Classe interne représentant les statistiques d'un joueur
+     * Compteurs partagés d'un joueur. Un enregistrement incrémente started puis le compteur de son
+     * résultat ; une lecture additionne les compteurs puis relit started, et recommence tant que
+     * les deux diffèrent : une partie commencée n'était pas encore comptée (verrou de séquence,
+     * sans blocage des écrivains). L'égalité garantit que la copie est l'état à un instant donné.
+     * Une lecture qui échoue trop souvent prend le moniteur et signale son attente : les nouveaux
+     * écrivains du joueur patientent, seuls ceux déjà en cours doivent terminer.
+     */
+    private static final class Counters implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        // Tentatives de lecture optimistes avant de retenir les écrivains
+        private static final int OPTIMISTIC_READS = 64;
+
+        private final LongAdder started = new LongAdder();
+        private final LongAdder wins = new LongAdder();
+        private final LongAdder losses = new LongAdder();
+        private final LongAdder draws = new LongAdder();
+        private volatile boolean readerWaiting;
+
+        void record(GameResult result) {
+            if (readerWaiting) {
+                synchronized (this) {
+                    // Laisser passer la lecture en attente
+                }
+            }
+            started.increment();
+            switch (result) {
+                case WIN:
+                    wins.increment();
+                    break;
+                case LOSE:
+                    losses.increment();
+                    break;
+                case DRAW:
+                    draws.increment();
+                    break;
+            }
+        }
+
+        PlayerStats snapshot() {
+            for (int attempt = 0; attempt < OPTIMISTIC_READS; attempt++) {
+                PlayerStats stats = tryRead();
+                if (stats != null) {
+                    return stats;
+                }
+                Thread.onSpinWait();
+            }
+            synchronized (this) {
+                readerWaiting = true;
+                try {
+                    while (true) {
+                        PlayerStats stats = tryRead();
+                        if (stats != null) {
+                            return stats;
+                        }
+                        // Un écrivain en cours a perdu son cœur : lui laisser la main
+                        Thread.yield();
+                    }
+                } finally {
+                    readerWaiting = false;
+                }
+            }
+        }
+
+        private PlayerStats tryRead() {
+            long w = wins.sum();
+            long l = losses.sum();
+            long d = draws.sum();
+            return started.sum() == w + l + d ? new PlayerStats((int) w, (int) l, (int) d) : null;
+        }
+    }
+
+    /**
+     * Classe interne représentant les statistiques d'un joueur (copie non partagée)
      */
     public static class PlayerStats implements Serializable {
         private static final long serialVersionUID = 1L;
@@ -64,6 +170,15 @@ public class PlayerStatistics implements Serializable {
         private int losses = 0;
         private int draws = 0;
 
+        public PlayerStats() {
+        }
+
+        public PlayerStats(int wins, int losses, int draws) {
+            this.wins = wins;
+            this.losses = losses;
+            this.draws = draws;
+        }
+
         public void incrementWins() {
             wins++;
         }
@@ -0,0 +1,161 @@
+package com.morpion.model;
+
+/**
+ * Grille creuse pour les très grandes tailles : seules les cases jouées sont stockées,
+ * dans une table de hachage à adressage ouvert (sondage linéaire) sans objet par case.
+ * La mémoire occupée dépend du nombre de coups joués et non de la taille de la grille.
+ */
+final class SparseBoard implements Board {
+    
+    private static final long serialVersionUID = 1L;
+    
+    private static final int INITIAL_CAPACITY = 64; // Puissance de 2
+    
+    private final int size;
+    private final int winLength;
+    private int[] keys;     // Indice de la case + 1, 0 pour un emplacement libre
+    private byte[] values;  // Joueur de la case
+    private int moveCount;
+    
+    /**
+     * Crée une grille vide
+     * 
+     * @param size Taille de la grille
+     * @param winLength Nombre de pions à aligner
+     */
+    SparseBoard(int size, int winLength) {
+        this.size = size;
+        this.winLength = winLength;
+        this.keys = new int[INITIAL_CAPACITY];
+        this.values = new byte[INITIAL_CAPACITY];
+    }
+    
+    private SparseBoard(SparseBoard other) {
+        this.size = other.size;
+        this.winLength = other.winLength;
+        this.keys = other.keys.clone();
+        this.values = other.values.clone();
+        this.moveCount = other.moveCount;
+    }
+    
+    @Override
+    public int getSize() {
+        return size;
+    }
+    
+    @Override
+    public int getWinLength() {
+        return winLength;
+    }
+    
+    @Override
+    public int get(int row, int col) {
+        int key = row * size + col + 1;
+        int mask = keys.length - 1;
+        for (int slot = hash(key) & mask; keys[slot] != 0; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+        }
+        return 0;
+    }
+    
+    @Override
+    public void set(int row, int col, int player) {
+        int key = row * size + col + 1;
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (keys[slot] != 0 && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        
+        if (keys[slot] == key) {
+            if (player != 0) {
+                values[slot] = (byte) player;
+            } else {
+                remove(slot);
+            }
+        } else if (player != 0) {
+            keys[slot] = key;
+            values[slot] = (byte) player;
+            moveCount++;
+            // Taux de remplissage maximal : 1/2
+            if (moveCount * 2 > keys.length) {
+                resize(keys.length * 2);
+            }
+        }
+    }
+    
+    @Override
+    public int getMoveCount() {
+        return moveCount;
+    }
+    
+    @Override
+    public void forEachOccupied(CellVisitor visitor) {
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != 0) {
+                int index = keys[slot] - 1;
+                visitor.visit(index / size, index % size, values[slot]);
+            }
+        }
+    }
+    
+    @Override
+    public void clear() {
+        keys = new int[INITIAL_CAPACITY];
+        values = new byte[INITIAL_CAPACITY];
+        moveCount = 0;
+    }
+    
+    @Override
+    public Board copy() {
+        return new SparseBoard(this);
+    }
+    
+    /**
+     * Libère un emplacement en recompactant la suite de sondage (pas de marque de suppression)
+     * 
+     * @param slot L'emplacement à libérer
+     */
+    private void remove(int slot) {
+        int mask = keys.length - 1;
+        int free = slot;
+        for (int next = (free + 1) & mask; keys[next] != 0; next = (next + 1) & mask) {
+            int home = hash(keys[next]) & mask;
+            // Déplacer l'entrée si son emplacement idéal n'est pas entre le trou et elle
+            if (((next - home) & mask) >= ((next - free) & mask)) {
+                keys[free] = keys[next];
+                values[free] = values[next];
+                free = next;
+            }
+        }
+        keys[free] = 0;
+        values[free] = 0;
+        moveCount--;
+    }
+    
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        byte[] oldValues = values;
+        keys = new int[capacity];
+        values = new byte[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int slot = hash(oldKeys[i]) & mask;
+                while (keys[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+    
+    private static int hash(int key) {
+        // Mélange multiplicatif : les cases voisines ne tombent pas dans des emplacements voisins
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,77 @@
+package com.morpion.model;
+
+import java.io.Serializable;
+
+/**
+ * Représente la différence entre deux versions consécutives de l'état du jeu :
+ * le mouvement appliqué, le joueur suivant et le nouveau statut.
+ * Cette classe est sérialisable pour être transmise via le réseau.
+ */
+public class StateDelta implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
+    
+    private long version;                  // Version de l'état après application
+    private int row;                       // Ligne du mouvement
+    private int col;                       // Colonne du mouvement
+    private int playerValue;               // Joueur qui a joué (1 ou 2)
+    private int nextPlayer;                // Joueur dont c'est le tour ensuite
+    private GameState.GameStatus status;   // Statut après le mouvement
+    
+    /**
+     * Constructeur par défaut (nécessaire pour la sérialisation)
+     */
+    public StateDelta() {
+    }
+    
+    /**
+     * Constructeur avec paramètres
+     * 
+     * @param version Version de l'état après application
+     * @param row Ligne du mouvement
+     * @param col Colonne du mouvement
+     * @param playerValue Joueur qui a joué (1 ou 2)
+     * @param nextPlayer Joueur dont c'est le tour ensuite
+     * @param status Statut après le mouvement
+     */
+    public StateDelta(long version, int row, int col, int playerValue, int nextPlayer, GameState.GameStatus status) {
+        this.version = version;
+        this.row = row;
+        this.col = col;
+        this.playerValue = playerValue;
+        this.nextPlayer = nextPlayer;
+        this.status = status;
+    }
+    
+    // Getters
+    
+    public long getVersion() {
+        return version;
+    }
+    
+    public int getRow() {
+        return row;
+    }
+    
+    public int getCol() {
+        return col;
+    }
+    
+    public int getPlayerValue() {
+        return playerValue;
+    }
+    
+    public int getNextPlayer() {
+        return nextPlayer;
+    }
+    
+    public GameState.GameStatus getStatus() {
+        return status;
+    }
+    
+    @Override
+    public String toString() {
+        return "StateDelta [version=" + version + ", row=" + row + ", col=" + col
+                + ", player=" + playerValue + ", next=" + nextPlayer + ", status=" + status + "]";
+    }
+}
@@ -0,0 +1,298 @@
+package com.morpion.server;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Paths;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.morpion.common.network.NioServer;
+import com.morpion.common.network.SessionRegistry;
+import com.morpion.common.utils.NetworkUtils;
+import com.morpion.common.utils.VirtualThreads;
+import com.morpion.model.GameVariant;
+import com.morpion.server.replay.ReplayLog;
+import com.morpion.server.stats.StatsStore;
+import com.morpion.server.view.ServerMonitor;
+
+/**
+ * Cœur du serveur de jeu, indépendant de l'interface graphique.
+ * Ouvre le port d'écoute avec le transport choisi et confie les clients au registre des sessions.
+ * Utilisé par l'application JavaFX ({@link ServerMain}) comme par le mode sans interface
+ * ({@link HeadlessServer}).
+ */
+public class GameServer {
+    
+    private static final Logger LOGGER = Logger.getLogger(GameServer.class.getName());
+    
+    /**
+     * Transport réseau par défaut : "nio" (boucles d'événements), "blocking" (un thread par client)
+     * ou "virtual" (un thread virtuel par client, Java 21)
+     */
+    public static final String DEFAULT_TRANSPORT = System.getProperty("morpion.server.transport", "nio");
+    
+    /**
+     * Nombre de boucles d'événements par défaut pour le transport NIO
+     */
+    public static final int DEFAULT_EVENT_LOOPS = Integer.getInteger("morpion.server.eventLoops",
+            Runtime.getRuntime().availableProcessors());
+    
+    /**
+     * Répertoire des statistiques durables des joueurs (aucun enregistrement s'il n'est pas défini)
+     */
+    public static final String STATS_DIRECTORY = System.getProperty("morpion.stats.dir");
+    
+    /**
+     * Répertoire des rediffusions des parties (aucune archive s'il n'est pas défini)
+     */
+    public static final String REPLAY_DIRECTORY = System.getProperty("morpion.replay.dir");
+    
+    private final ServerMonitor serverMonitor;
+    private final String transport;
+    private final int eventLoops;
+    private final GameVariant variant;
+    
+    private ServerSocket serverSocket;
+    private NioServer nioServer;
+    private SessionRegistry sessionRegistry;
+    private StatsStore statsStore;
+    private ReplayLog replayLog;
+    private Thread serverThread;
+    private volatile boolean running;
+    
+    /**
+     * Crée un serveur avec le transport configuré par les propriétés système
+     * 
+     * @param serverMonitor Le moniteur serveur
+     */
+    public GameServer(ServerMonitor serverMonitor) {
+        this(serverMonitor, DEFAULT_TRANSPORT, DEFAULT_EVENT_LOOPS);
+    }
+    
+    /**
+     * Crée un serveur
+     * 
+     * @param serverMonitor Le moniteur serveur
+     * @param transport Le transport réseau ("nio", "blocking" ou "virtual")
+     * @param eventLoops Le nombre de boucles d'événements pour le transport NIO
+     */
+    public GameServer(ServerMonitor serverMonitor, String transport, int eventLoops) {
+        this(serverMonitor, transport, eventLoops, GameVariant.DEFAULT);
+    }
+    
+    /**
+     * Crée un serveur dont les parties se jouent avec les règles indiquées
+     * 
+     * @param serverMonitor Le moniteur serveur
+     * @param transport Le transport réseau ("nio", "blocking" ou "virtual")
+     * @param eventLoops Le nombre de boucles d'événements pour le transport NIO
+     * @param variant La taille de la grille et le nombre de pions à aligner des sessions
+     */
+    public GameServer(ServerMonitor serverMonitor, String transport, int eventLoops, GameVariant variant) {
+        this.serverMonitor = serverMonitor;
+        this.transport = transport;
+        this.eventLoops = eventLoops;
+        this.variant = variant;
+    }
+    
+    /**
+     * Démarre le serveur sur le port indiqué, en arrêtant d'abord le serveur en cours s'il y en a un
+     * 
+     * @param port Le port d'écoute
+     * @throws IOException En cas d'erreur d'ouverture du port
+     */
+    public synchronized void start(int port) throws IOException {
+        if (running) {
+            stop();
+        }
+        
+        if ("virtual".equalsIgnoreCase(transport)) {
+            // Code bloquant inchangé, mais chaque client et l'acceptation tournent sur des threads virtuels
+            serverSocket = new ServerSocket(port);
+            sessionRegistry = new SessionRegistry(serverMonitor, VirtualThreads.newPerTaskExecutor(), variant);
+            
+            running = true;
+            
+            serverThread = VirtualThreads.start("morpion-accept", this::acceptClientsLoop);
+        } else if ("blocking".equalsIgnoreCase(transport)) {
+            // Créer la socket serveur
+            serverSocket = new ServerSocket(port);
+            
+            // Créer le registre des sessions de jeu avec le moniteur serveur
+            sessionRegistry = new SessionRegistry(serverMonitor, Executors.newCachedThreadPool(), variant);
+            
+            running = true;
+            
+            // Créer et démarrer le thread d'écoute
+            serverThread = new Thread(this::acceptClientsLoop, "morpion-accept");
+            serverThread.setDaemon(true);
+            serverThread.start();
+        } else {
+            // Transport non bloquant : les boucles d'événements remplacent le thread par client
+            sessionRegistry = new SessionRegistry(serverMonitor, Executors.newCachedThreadPool(), variant);
+            try {
+                nioServer = new NioServer(port, eventLoops, sessionRegistry, sessionRegistry.getSlowConsumerPolicy());
+            } catch (IOException e) {
+                sessionRegistry.close();
+                sessionRegistry = null;
+                throw e;
+            }
+            
+            running = true;
+            
+            nioServer.start();
+        }
+        
+        // Ouvrir les statistiques durables : le serveur fonctionne aussi sans elles
+        if (STATS_DIRECTORY != null && !STATS_DIRECTORY.isEmpty()) {
+            try {
+                statsStore = StatsStore.open(Paths.get(STATS_DIRECTORY));
+                sessionRegistry.setStatsStore(statsStore);
+            } catch (IOException e) {
+                LOGGER.log(Level.SEVERE, "Impossible d'ouvrir les statistiques dans " + STATS_DIRECTORY, e);
+                serverMonitor.addLogMessage("Statistiques indisponibles : " + e.getMessage());
+            }
+        }
+        
+        // Ouvrir l'archive des parties, facultative elle aussi
+        if (REPLAY_DIRECTORY != null && !REPLAY_DIRECTORY.isEmpty()) {
+            try {
+                replayLog = ReplayLog.open(Paths.get(REPLAY_DIRECTORY));
+                sessionRegistry.setReplayLog(replayLog);
+            } catch (IOException e) {
+                LOGGER.log(Level.SEVERE, "Impossible d'ouvrir les rediffusions dans " + REPLAY_DIRECTORY, e);
+                serverMonitor.addLogMessage("Rediffusions indisponibles : " + e.getMessage());
+            }
+        }
+        
+        // Mettre à jour le moniteur
+        String localIP = NetworkUtils.getMainLocalIpAddress();
+        serverMonitor.updateServerStatus(true, localIP, port);
+        serverMonitor.addLogMessage("Serveur démarré sur " + localIP + ":" + port + " (transport " + transport
+                + ", grille " + variant + ")");
+        
+        LOGGER.info("Serveur démarré sur " + localIP + ":" + port);
+    }
+    
+    /**
+     * Arrête le serveur
+     */
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        
+        running = false;
+        
+        try {
+            // Fermer les sessions de jeu
+            if (sessionRegistry != null) {
+                sessionRegistry.close();
+                sessionRegistry = null;
+            }
+            
+            // Fermer les statistiques, après les sessions qui y écrivent
+            if (statsStore != null) {
+                try {
+                    statsStore.close();
+                } catch (IOException e) {
+                    LOGGER.log(Level.SEVERE, "Erreur lors de la fermeture des statistiques", e);
+                }
+                statsStore = null;
+            }
+            
+            // Fermer l'archive des parties
+            if (replayLog != null) {
+                try {
+                    replayLog.close();
+                } catch (IOException e) {
+                    LOGGER.log(Level.SEVERE, "Erreur lors de la fermeture des rediffusions", e);
+                }
+                replayLog = null;
+            }
+            
+            // Arrêter le serveur NIO
+            if (nioServer != null) {
+                nioServer.close();
+                nioServer = null;
+            }
+            
+            // Fermer la socket serveur
+            if (serverSocket != null && !serverSocket.isClosed()) {
+                serverSocket.close();
+                serverSocket = null;
+            }
+            
+            // Interrompre le thread d'écoute
+            if (serverThread != null) {
+                serverThread.interrupt();
+                serverThread = null;
+            }
+            
+            // Mettre à jour le moniteur
+            serverMonitor.updateServerStatus(false, null, 0);
+            serverMonitor.addLogMessage("Serveur arrêté");
+            
+            LOGGER.info("Serveur arrêté");
+            
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Erreur lors de l'arrêt du serveur", e);
+        }
+    }
+    
+    /**
+     * Indique si le serveur est en cours d'exécution
+     * 
+     * @return true si le serveur accepte des connexions
+     */
+    public boolean isRunning() {
+        return running;
+    }
+    
+    /**
+     * Obtient le registre des sessions du serveur en cours
+     * 
+     * @return Le registre, ou null si le serveur est arrêté
+     */
+    public synchronized SessionRegistry getSessionRegistry() {
+        return sessionRegistry;
+    }
+    
+    /**
+     * Obtient les statistiques durables du serveur en cours
+     * 
+     * @return Les statistiques, ou null si elles ne sont pas configurées ou si le serveur est arrêté
+     */
+    public synchronized StatsStore getStatsStore() {
+        return statsStore;
+    }
+    
+    /**
+     * Boucle d'acceptation des connexions clients (transports bloquant et virtuel)
+     */
+    private void acceptClientsLoop() {
+        ServerSocket socket = serverSocket;
+        SessionRegistry registry = sessionRegistry;
+        
+        while (running) {
+            try {
+                // Attendre une connexion client
+                Socket clientSocket = socket.accept();
+                
+                // Ajouter le client à une session de jeu
+                registry.addClient(clientSocket);
+                
+                // Mettre à jour le moniteur
+                serverMonitor.addLogMessage("Nouveau client connecté: " + clientSocket.getInetAddress().getHostAddress());
+                
+            } catch (IOException e) {
+                if (running) {
+                    LOGGER.log(Level.SEVERE, "Erreur lors de l'acceptation d'un client", e);
+                    serverMonitor.addLogMessage("Erreur: " + e.getMessage());
+                }
+            }
+        }
+    }
+}
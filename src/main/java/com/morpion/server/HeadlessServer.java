@@ -0,0 +1,156 @@
+package com.morpion.server;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.morpion.common.utils.NetworkUtils;
+import com.morpion.model.GameVariant;
+import com.morpion.server.view.LoggingServerMonitor;
+
+/**
+ * Point d'entrée du serveur sans interface graphique (ni JavaFX, ni FXML).
+ * Les sessions sont supervisées par un {@link LoggingServerMonitor}.
+ * 
+ * Options de la ligne de commande :
+ * <ul>
+ *   <li>{@code --config <fichier>} : fichier de propriétés ({@code port}, {@code transport},
+ *       {@code eventLoops}, {@code variant}, et toute propriété {@code morpion.*})</li>
+ *   <li>{@code --port <n>} : port d'écoute</li>
+ *   <li>{@code --transport <nio|blocking|virtual>} : transport réseau</li>
+ *   <li>{@code --event-loops <n>} : nombre de boucles d'événements NIO</li>
+ *   <li>{@code --variant <NxN/K>} : taille de la grille et nombre de pions à aligner
+ *       (par exemple {@code 15x15/5} pour le Gomoku)</li>
+ * </ul>
+ * Les options de la ligne de commande l'emportent sur le fichier.
+ */
+public class HeadlessServer {
+    
+    private static final Logger LOGGER = Logger.getLogger(HeadlessServer.class.getName());
+    
+    /**
+     * Point d'entrée principal
+     * 
+     * @param args Arguments de la ligne de commande
+     */
+    public static void main(String[] args) {
+        long startTime = System.nanoTime();
+        
+        Properties config;
+        try {
+            config = parseArguments(args);
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Erreur : " + e.getMessage());
+            printUsage();
+            System.exit(2);
+            return;
+        }
+        
+        // Les propriétés morpion.* du fichier sont lues par les classes réseau à leur chargement :
+        // elles doivent être définies avant le démarrage du serveur
+        for (String name : config.stringPropertyNames()) {
+            if (name.startsWith("morpion.") && System.getProperty(name) == null) {
+                System.setProperty(name, config.getProperty(name));
+            }
+        }
+        
+        int port;
+        int eventLoops;
+        GameVariant variant;
+        String transport = config.getProperty("transport", GameServer.DEFAULT_TRANSPORT);
+        try {
+            port = Integer.parseInt(config.getProperty("port", String.valueOf(NetworkUtils.DEFAULT_PORT)));
+            eventLoops = Integer.parseInt(config.getProperty("eventLoops", String.valueOf(GameServer.DEFAULT_EVENT_LOOPS)));
+            variant = config.containsKey("variant") ? GameVariant.parse(config.getProperty("variant")) : GameVariant.DEFAULT;
+        } catch (IllegalArgumentException e) {
+            System.err.println("Erreur : valeur invalide (" + e.getMessage() + ")");
+            System.exit(2);
+            return;
+        }
+        
+        GameServer server = new GameServer(new LoggingServerMonitor(), transport, eventLoops, variant);
+        try {
+            server.start(port);
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Impossible de démarrer le serveur sur le port " + port, e);
+            System.exit(1);
+            return;
+        }
+        
+        long elapsedMillis = (System.nanoTime() - startTime) / 1_000_000;
+        LOGGER.log(Level.INFO, "Connexions acceptées sur le port {0} (démarrage en {1} ms)",
+                new Object[]{String.valueOf(port), elapsedMillis});
+        
+        // Arrêt propre sur Ctrl+C ou SIGTERM
+        CountDownLatch stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop();
+            stopped.countDown();
+        }, "morpion-shutdown"));
+        
+        try {
+            stopped.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * Lit le fichier de configuration éventuel puis les options de la ligne de commande
+     * 
+     * @param args Arguments de la ligne de commande
+     * @return La configuration
+     * @throws IOException Si le fichier de configuration ne peut pas être lu
+     */
+    private static Properties parseArguments(String[] args) throws IOException {
+        Properties config = new Properties();
+        Properties overrides = new Properties();
+        
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if ("--help".equals(option) || "-h".equals(option)) {
+                printUsage();
+                System.exit(0);
+            }
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Valeur manquante pour " + option);
+            }
+            String value = args[++i];
+            
+            switch (option) {
+                case "--config":
+                    try (InputStream in = Files.newInputStream(Paths.get(value))) {
+                        config.load(in);
+                    }
+                    break;
+                case "--port":
+                    overrides.setProperty("port", value);
+                    break;
+                case "--transport":
+                    overrides.setProperty("transport", value);
+                    break;
+                case "--event-loops":
+                    overrides.setProperty("eventLoops", value);
+                    break;
+                case "--variant":
+                    overrides.setProperty("variant", value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Option inconnue : " + option);
+            }
+        }
+        
+        config.putAll(overrides);
+        return config;
+    }
+    
+    private static void printUsage() {
+        System.out.println("Utilisation : HeadlessServer [--config fichier.properties] [--port n]"
+                + " [--transport nio|blocking|virtual] [--event-loops n] [--variant NxN/K]");
+    }
+}
@@ -1,12 +1,9 @@
 package com.morpion.server;
 
 import java.io.IOException;
-import java.net.ServerSocket;
-import java.net.Socket;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import com.morpion.common.network.GameSession;
 import com.morpion.common.utils.FigletUtils;
 import com.morpion.common.utils.NetworkUtils;
 import com.morpion.server.view.ServerMonitor;
@@ -19,16 +16,14 @@ import javafx.scene.Scene;
 import javafx.stage.Stage;
 
 /**
- * Point d'entrée de l'application serveur
+ * Point d'entrée de l'application serveur avec son interface de supervision.
+ * Voir {@link HeadlessServer} pour un serveur sans interface graphique.
  */
 public class ServerMain extends Application {
     
     private static final Logger LOGGER = Logger.getLogger(ServerMain.class.getName());
     
-    private ServerSocket serverSocket;
-    private GameSession gameSession;
-    private Thread serverThread;
-    private volatile boolean running;
+    private GameServer gameServer;
     
     private ServerMonitor serverMonitor;
     
@@ -41,6 +36,7 @@ public class ServerMain extends Application {
             
             // Récupérer le contrôleur
             serverMonitor = loader.getController();
+            gameServer = new GameServer(serverMonitor);
             
             // Configurer la scène
             Scene scene = new Scene(root, 600, 400);
@@ -68,39 +64,12 @@ public class ServerMain extends Application {
     }
     
     public void startServer(int port) {
-        if (running) {
-            stopServer();
-        }
-        
         try {
-            // Créer la socket serveur
-            serverSocket = new ServerSocket(port);
-            
-            // Créer la session de jeu avec le moniteur serveur
-            gameSession = new GameSession(serverMonitor);
-            
-            running = true;
-            
-            // Créer et démarrer le thread d'écoute
-            serverThread = new Thread(this::acceptClientsLoop);
-            serverThread.setDaemon(true);
-            serverThread.start();
-            
-            // Mettre à jour l'interface
-            String localIP = NetworkUtils.getMainLocalIpAddress();
-            Platform.runLater(() -> {
-                serverMonitor.updateServerStatus(true, localIP, port);
-                serverMonitor.addLogMessage("Serveur démarré sur " + localIP + ":" + port);
-            });
-            
-            LOGGER.info("Serveur démarré sur " + localIP + ":" + port);
-            
+            gameServer.start(port);
         } catch (IOException e) {
             LOGGER.log(Level.SEVERE, "Erreur lors du démarrage du serveur", e);
-            Platform.runLater(() -> {
-                serverMonitor.updateServerStatus(false, null, 0);
-                serverMonitor.addLogMessage("Erreur lors du démarrage du serveur: " + e.getMessage());
-            });
+            serverMonitor.updateServerStatus(false, null, 0);
+            serverMonitor.addLogMessage("Erreur lors du démarrage du serveur: " + e.getMessage());
         }
     }
     
@@ -108,69 +77,8 @@ public class ServerMain extends Application {
      * Arrête le serveur
      */
     public void stopServer() {
-        if (!running) {
-            return;
-        }
-        
-        running = false;
-        
-        try {
-            // Fermer la session de jeu
-            if (gameSession != null) {
-                gameSession.close();
-                gameSession = null;
-            }
-            
-            // Fermer la socket serveur
-            if (serverSocket != null && !serverSocket.isClosed()) {
-                serverSocket.close();
-                serverSocket = null;
-            }
-            
-            // Interrompre le thread d'écoute
-            if (serverThread != null) {
-                serverThread.interrupt();
-                serverThread = null;
-            }
-            
-            // Mettre à jour l'interface
-            Platform.runLater(() -> {
-                serverMonitor.updateServerStatus(false, null, 0);
-                serverMonitor.addLogMessage("Serveur arrêté");
-            });
-            
-            LOGGER.info("Serveur arrêté");
-            
-        } catch (IOException e) {
-            LOGGER.log(Level.SEVERE, "Erreur lors de l'arrêt du serveur", e);
-        }
-    }
-    
-    /**
-     * Boucle d'acceptation des connexions clients
-     */
-    private void acceptClientsLoop() {
-        while (running) {
-            try {
-                // Attendre une connexion client
-                Socket clientSocket = serverSocket.accept();
-                
-                // Ajouter le client à la session de jeu
-                gameSession.addClient(clientSocket);
-                
-                // Mettre à jour l'interface
-                Platform.runLater(() -> {
-                    serverMonitor.addLogMessage("Nouveau client connecté: " + clientSocket.getInetAddress().getHostAddress());
-                });
-                
-            } catch (IOException e) {
-                if (running) {
-                    LOGGER.log(Level.SEVERE, "Erreur lors de l'acceptation d'un client", e);
-                    Platform.runLater(() -> {
-                        serverMonitor.addLogMessage("Erreur: " + e.getMessage());
-                    });
-                }
-            }
+        if (gameServer != null) {
+            gameServer.stop();
         }
     }
     
@@ -3,15 +3,23 @@ package com.morpion.server.controller;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.function.Consumer;
 
 import com.morpion.common.utils.NetworkUtils;
+import com.morpion.server.view.RingBuffer;
+import com.morpion.server.view.RingBufferList;
 import com.morpion.server.view.ServerMonitor;
 
 import javafx.application.Platform;
+import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.ListView;
 import javafx.scene.control.Tab;
@@ -23,27 +31,57 @@ import javafx.scene.control.TreeView;
 import javafx.scene.paint.Color;
 
 /**
- * Contrôleur pour l'interface du serveur
+ * Contrôleur pour l'interface du serveur.
+ * 
+ * <p>Le journal et les commandes échangées sont conservés dans des tampons circulaires de taille
+ * fixe ({@code morpion.monitor.logCapacity} et {@code morpion.monitor.commandCapacity}) : la mémoire
+ * du moniteur ne dépend pas de la durée de fonctionnement du serveur. Les événements reçus des
+ * threads réseau sont mis en attente puis appliqués par lots, en une seule tâche JavaFX à la fois.</p>
  */
 public class GameServerController implements ServerMonitor {
     
+    // Nombre maximal de lignes conservées dans le journal
+    private static final int LOG_CAPACITY = Math.max(1, Integer.getInteger("morpion.monitor.logCapacity", 10_000));
+    
+    // Nombre maximal de commandes conservées, tous clients confondus
+    private static final int COMMAND_CAPACITY = Math.max(1, Integer.getInteger("morpion.monitor.commandCapacity", 5_000));
+    
     @FXML private Label statusLabel;
     @FXML private Label ipAddressLabel;
     @FXML private TextField portTextField;
     @FXML private Button startButton;
     @FXML private Button stopButton;
-    @FXML private TextArea logTextArea;
+    @FXML private ListView<String> logListView;
+    @FXML private TextField logFilterField;
+    @FXML private CheckBox logFollowCheckBox;
     @FXML private TabPane detailsTabPane;
     @FXML private ListView<String> clientsListView;
     @FXML private TreeView<String> commandsTreeView;
+    @FXML private TextField commandFilterField;
+    @FXML private CheckBox commandFollowCheckBox;
     @FXML private TextArea gameStateTextArea;
     
     private Consumer<Integer> startServerCallback;
     private Runnable stopServerCallback;
-    private DateTimeFormatter timeFormatter;
+    private DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm:ss");
     private TreeItem<String> rootItem;
     private List<String> clients = new ArrayList<>();
     
+    // Modèles des vues (thread JavaFX uniquement)
+    private final RingBufferList<String> logLines = new RingBufferList<>(LOG_CAPACITY);
+    private final FilteredList<String> visibleLogLines = new FilteredList<>(logLines);
+    private final RingBuffer<CommandEntry> commands = new RingBuffer<>(COMMAND_CAPACITY);
+    private final Map<String, TreeItem<String>> clientItems = new HashMap<>();
+    private String commandFilter = "";
+    
+    // Événements en attente d'affichage (protégés par pendingLock)
+    private final Object pendingLock = new Object();
+    private final RingBuffer<String> pendingLogLines = new RingBuffer<>(LOG_CAPACITY);
+    private final RingBuffer<CommandEntry> pendingCommands = new RingBuffer<>(COMMAND_CAPACITY);
+    private final List<String[]> pendingAddedClients = new ArrayList<>();
+    private final List<String> pendingRemovedClients = new ArrayList<>();
+    private boolean drainScheduled;
+    
     /**
      * Initialise le contrôleur après le chargement du FXML
      */
@@ -53,13 +91,23 @@ public class GameServerController implements ServerMonitor {
         updateServerStatus(false, null, 0);
         portTextField.setText(String.valueOf(NetworkUtils.DEFAULT_PORT));
         
-        // Initialiser le formatteur de date/heure pour les logs
-        timeFormatter = DateTimeFormatter.ofPattern("HH:mm:ss");
+        // Le journal n'affiche que les lignes visibles, filtrées par le texte saisi
+        logListView.setItems(visibleLogLines);
+        logFilterField.textProperty().addListener((observable, oldValue, newValue) -> {
+            String filter = normalize(newValue);
+            visibleLogLines.setPredicate(filter.isEmpty() ? null : line -> matches(line, filter));
+            scrollLogToEnd();
+        });
+        logFollowCheckBox.selectedProperty().addListener((observable, oldValue, newValue) -> scrollLogToEnd());
         
         // Initialiser l'arbre des commandes
         rootItem = new TreeItem<>("Commandes échangées");
         rootItem.setExpanded(true);
         commandsTreeView.setRoot(rootItem);
+        commandFilterField.textProperty().addListener((observable, oldValue, newValue) -> {
+            commandFilter = normalize(newValue);
+            rebuildCommandItems();
+        });
         
         // Ajouter des validateurs pour le champ de port
         portTextField.textProperty().addListener((observable, oldValue, newValue) -> {
@@ -101,6 +149,14 @@ public class GameServerController implements ServerMonitor {
         }
     }
     
+    /**
+     * Action du bouton "Effacer" du journal
+     */
+    @FXML
+    public void handleClearLogButton() {
+        logLines.clear();
+    }
+    
     /**
      * Définit le callback pour le démarrage du serveur
      * 
@@ -151,7 +207,9 @@ public class GameServerController implements ServerMonitor {
                 // Réinitialiser les listes
                 clientsListView.getItems().clear();
                 clients.clear();
+                clientItems.clear();
                 rootItem.getChildren().clear();
+                commands.clear();
                 gameStateTextArea.clear();
             }
         });
@@ -164,17 +222,12 @@ public class GameServerController implements ServerMonitor {
      */
     @Override
     public void addLogMessage(String message) {
-        Platform.runLater(() -> {
-            // Ajouter l'horodatage au message
-            String timestamp = LocalDateTime.now().format(timeFormatter);
-            String formattedMessage = "[" + timestamp + "] " + message;
-            
-            // Ajouter le message au log
-            logTextArea.appendText(formattedMessage + "\n");
-            
-            // Faire défiler automatiquement vers le bas
-            logTextArea.setScrollTop(Double.MAX_VALUE);
-        });
+        // Horodater le message à son arrivée, pas à son affichage
+        String formattedMessage = "[" + LocalDateTime.now().format(timeFormatter) + "] " + message;
+        synchronized (pendingLock) {
+            pendingLogLines.add(formattedMessage);
+            scheduleDrain();
+        }
     }
     
     /**
@@ -186,16 +239,10 @@ public class GameServerController implements ServerMonitor {
      */
     @Override
     public void addClient(String clientId, String clientName, String clientAddress) {
-        Platform.runLater(() -> {
-            String clientInfo = clientName + " (" + clientAddress + ")";
-            clients.add(clientId);
-            clientsListView.getItems().add(clientInfo);
-            
-            // Ajouter un nœud pour ce client dans l'arbre des commandes
-            TreeItem<String> clientItem = new TreeItem<>(clientInfo);
-            clientItem.setExpanded(true);
-            rootItem.getChildren().add(clientItem);
-        });
+        synchronized (pendingLock) {
+            pendingAddedClients.add(new String[]{clientId, clientName + " (" + clientAddress + ")"});
+            scheduleDrain();
+        }
     }
     
     /**
@@ -205,14 +252,10 @@ public class GameServerController implements ServerMonitor {
      */
     @Override
     public void removeClient(String clientId) {
-        Platform.runLater(() -> {
-            int index = clients.indexOf(clientId);
-            if (index >= 0) {
-                clients.remove(index);
-                clientsListView.getItems().remove(index);
-                rootItem.getChildren().remove(index);
-            }
-        });
+        synchronized (pendingLock) {
+            pendingRemovedClients.add(clientId);
+            scheduleDrain();
+        }
     }
     
     /**
@@ -225,26 +268,13 @@ public class GameServerController implements ServerMonitor {
      */
     @Override
     public void logCommand(String clientId, String direction, String commandType, String details) {
-        Platform.runLater(() -> {
-            int index = clients.indexOf(clientId);
-            if (index >= 0) {
-                TreeItem<String> clientItem = rootItem.getChildren().get(index);
-                
-                // Formater l'horodatage
-                String timestamp = LocalDateTime.now().format(timeFormatter);
-                String commandInfo = "[" + timestamp + "] " + direction + ": " + commandType;
-                
-                TreeItem<String> commandItem = new TreeItem<>(commandInfo);
-                if (details != null && !details.isEmpty()) {
-                    commandItem.getChildren().add(new TreeItem<>(details));
-                }
-                
-                clientItem.getChildren().add(commandItem);
-                
-                // Automatiquement développer l'élément parent
-                clientItem.setExpanded(true);
-            }
-        });
+        String timestamp = LocalDateTime.now().format(timeFormatter);
+        CommandEntry entry = new CommandEntry(clientId, "[" + timestamp + "] " + direction + ": " + commandType,
+                details == null || details.isEmpty() ? null : details);
+        synchronized (pendingLock) {
+            pendingCommands.add(entry);
+            scheduleDrain();
+        }
     }
     
     /**
@@ -258,4 +288,183 @@ public class GameServerController implements ServerMonitor {
             gameStateTextArea.setText(gameStateText);
         });
     }
+    
+    /**
+     * Programme l'application des événements en attente, s'il n'y en a pas déjà une de prévue
+     * (appelé avec pendingLock)
+     */
+    private void scheduleDrain() {
+        if (!drainScheduled) {
+            drainScheduled = true;
+            Platform.runLater(this::drainPending);
+        }
+    }
+    
+    /**
+     * Applique aux vues tous les événements en attente (thread JavaFX). Les clients arrivés sont
+     * ajoutés avant les commandes, les clients partis retirés après, pour que les commandes d'un
+     * même lot trouvent toujours leur client.
+     */
+    private void drainPending() {
+        List<String[]> addedClients;
+        List<String> removedClients;
+        List<String> lines;
+        List<CommandEntry> newCommands;
+        synchronized (pendingLock) {
+            drainScheduled = false;
+            addedClients = new ArrayList<>(pendingAddedClients);
+            removedClients = new ArrayList<>(pendingRemovedClients);
+            pendingAddedClients.clear();
+            pendingRemovedClients.clear();
+            lines = pendingLogLines.drain();
+            newCommands = pendingCommands.drain();
+        }
+        
+        for (String[] client : addedClients) {
+            showClient(client[0], client[1]);
+        }
+        
+        if (!lines.isEmpty()) {
+            logLines.append(lines);
+            scrollLogToEnd();
+        }
+        
+        TreeItem<String> lastItem = null;
+        for (CommandEntry entry : newCommands) {
+            CommandEntry evicted = commands.add(entry);
+            if (evicted != null) {
+                hideCommand(evicted);
+            }
+            if (showCommand(entry)) {
+                lastItem = entry.item;
+            }
+        }
+        if (lastItem != null && commandFollowCheckBox.isSelected()) {
+            commandsTreeView.scrollTo(commandsTreeView.getRow(lastItem));
+        }
+        
+        for (String clientId : removedClients) {
+            hideClient(clientId);
+        }
+    }
+    
+    private void showClient(String clientId, String clientInfo) {
+        clients.add(clientId);
+        clientsListView.getItems().add(clientInfo);
+        
+        // Ajouter un nœud pour ce client dans l'arbre des commandes
+        TreeItem<String> clientItem = new TreeItem<>(clientInfo);
+        clientItem.setExpanded(true);
+        clientItems.put(clientId, clientItem);
+        rootItem.getChildren().add(clientItem);
+    }
+    
+    private void hideClient(String clientId) {
+        int index = clients.indexOf(clientId);
+        if (index >= 0) {
+            clients.remove(index);
+            clientsListView.getItems().remove(index);
+        }
+        TreeItem<String> clientItem = clientItems.remove(clientId);
+        if (clientItem != null) {
+            rootItem.getChildren().remove(clientItem);
+        }
+    }
+    
+    /**
+     * Affiche une commande sous son client, si elle passe le filtre
+     * 
+     * @return true si la commande est affichée
+     */
+    private boolean showCommand(CommandEntry entry) {
+        TreeItem<String> clientItem = clientItems.get(entry.clientId);
+        if (clientItem == null || !(matches(entry.text, commandFilter)
+                || (entry.details != null && matches(entry.details, commandFilter)))) {
+            return false;
+        }
+        entry.item = new CommandItem(entry.text, entry.details);
+        clientItem.getChildren().add(entry.item);
+        return true;
+    }
+    
+    /**
+     * Retire une commande sortie du tampon ; c'est la plus ancienne affichée sous son client
+     */
+    private void hideCommand(CommandEntry entry) {
+        if (entry.item != null && entry.item.getParent() != null) {
+            entry.item.getParent().getChildren().remove(entry.item);
+        }
+        entry.item = null;
+    }
+    
+    /**
+     * Reconstruit l'arbre des commandes après un changement de filtre
+     */
+    private void rebuildCommandItems() {
+        for (TreeItem<String> clientItem : clientItems.values()) {
+            clientItem.getChildren().clear();
+        }
+        for (int i = 0; i < commands.size(); i++) {
+            CommandEntry entry = commands.get(i);
+            entry.item = null;
+            showCommand(entry);
+        }
+    }
+    
+    private void scrollLogToEnd() {
+        if (logFollowCheckBox.isSelected() && !visibleLogLines.isEmpty()) {
+            logListView.scrollTo(visibleLogLines.size() - 1);
+        }
+    }
+    
+    private static String normalize(String filter) {
+        return filter == null ? "" : filter.trim().toLowerCase(Locale.ROOT);
+    }
+    
+    private static boolean matches(String text, String filter) {
+        return filter.isEmpty() || text.toLowerCase(Locale.ROOT).contains(filter);
+    }
+    
+    /**
+     * Commande conservée dans le tampon, avec son nœud dans l'arbre quand elle est affichée
+     */
+    private static final class CommandEntry {
+        final String clientId;
+        final String text;
+        final String details;
+        TreeItem<String> item;
+        
+        CommandEntry(String clientId, String text, String details) {
+            this.clientId = clientId;
+            this.text = text;
+            this.details = details;
+        }
+    }
+    
+    /**
+     * Nœud d'une commande : le nœud des détails n'est créé qu'au premier dépliage
+     */
+    private static final class CommandItem extends TreeItem<String> {
+        private String details;
+        
+        CommandItem(String text, String details) {
+            super(text);
+            this.details = details;
+        }
+        
+        @Override
+        public boolean isLeaf() {
+            return details == null && super.getChildren().isEmpty();
+        }
+        
+        @Override
+        public ObservableList<TreeItem<String>> getChildren() {
+            if (details != null) {
+                String text = details;
+                details = null;
+                super.getChildren().add(new TreeItem<>(text));
+            }
+            return super.getChildren();
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,334 @@
+package com.morpion.server.replay;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.morpion.model.GameState;
+
+/**
+ * Index secondaires des parties archivées, tenus à jour par {@link ReplayLog} à chaque partie
+ * écrite : parties de chaque joueur (par identifiant attribué à la connexion), bitmaps des
+ * statuts finaux et des cases d'ouverture, et tranches de temps ({@code morpion.replay.bucketMillis},
+ * une heure par défaut) sur la date du premier coup.
+ * 
+ * <p>Les parties sont numérotées dans l'ordre d'archivage. Une requête part du critère le plus
+ * sélectif (joueur, période, ouverture puis statut), parcourt ses parties de la plus récente à la
+ * plus ancienne et vérifie les autres critères en temps constant : elle ne lit jamais toute
+ * l'archive.</p>
+ */
+public final class MatchIndex {
+    
+    // Durée d'une tranche de l'index temporel
+    private static final long BUCKET_MILLIS = Math.max(1, Long.getLong("morpion.replay.bucketMillis", 3_600_000L));
+    
+    private static final GameState.GameStatus[] STATUSES = GameState.GameStatus.values();
+    
+    // Colonnes des parties, indexées par numéro de partie (protégées par l'index)
+    private long[] positions = new long[1024];
+    private long[] starts = new long[1024];
+    private int[] players = new int[2048];
+    private byte[] statuses = new byte[1024];
+    private int count;
+    
+    private final Map<String, Integer> playerNumbers = new HashMap<>();
+    private final List<String> playerIds = new ArrayList<>();
+    private final List<IntList> gamesByPlayer = new ArrayList<>();
+    private final BitSet[] byStatus = new BitSet[STATUSES.length];
+    private final Map<Integer, BitSet> byOpening = new HashMap<>();
+    private final TreeMap<Long, IntList> byBucket = new TreeMap<>();
+    
+    MatchIndex() {
+        for (int i = 0; i < byStatus.length; i++) {
+            byStatus[i] = new BitSet();
+        }
+    }
+    
+    /**
+     * Indexe une partie archivée
+     * 
+     * @param position La position de la partie dans l'archive
+     * @param startMillis La date de son premier coup
+     * @param status Son statut final
+     * @param player1Id Le premier joueur (peut être null)
+     * @param player2Id Le second joueur (peut être null)
+     * @param size La taille de la grille
+     * @param firstCell La case du premier coup (-1 si aucun)
+     */
+    synchronized void add(long position, long startMillis, GameState.GameStatus status, String player1Id,
+            String player2Id, int size, int firstCell) {
+        if (count == positions.length) {
+            positions = Arrays.copyOf(positions, count * 2);
+            starts = Arrays.copyOf(starts, count * 2);
+            players = Arrays.copyOf(players, count * 4);
+            statuses = Arrays.copyOf(statuses, count * 2);
+        }
+        int game = count++;
+        positions[game] = position;
+        starts[game] = startMillis;
+        statuses[game] = (byte) status.ordinal();
+        players[2 * game] = player(player1Id, game);
+        players[2 * game + 1] = player(player2Id, game);
+        
+        byStatus[status.ordinal()].set(game);
+        if (firstCell >= 0) {
+            byOpening.computeIfAbsent(openingKey(firstCell / size, firstCell % size), k -> new BitSet()).set(game);
+        }
+        byBucket.computeIfAbsent(Math.floorDiv(startMillis, BUCKET_MILLIS), k -> new IntList()).add(game);
+    }
+    
+    private int player(String playerId, int game) {
+        if (playerId == null) {
+            return -1;
+        }
+        Integer number = playerNumbers.get(playerId);
+        if (number == null) {
+            number = playerIds.size();
+            playerNumbers.put(playerId, number);
+            playerIds.add(playerId);
+            gamesByPlayer.add(new IntList());
+        }
+        IntList games = gamesByPlayer.get(number);
+        if (games.size == 0 || games.values[games.size - 1] != game) {
+            games.add(game);
+        }
+        return number;
+    }
+    
+    private static int openingKey(int row, int col) {
+        return row << 16 | col;
+    }
+    
+    /**
+     * Obtient le nombre de parties indexées
+     * 
+     * @return Le nombre de parties
+     */
+    public synchronized int size() {
+        return count;
+    }
+    
+    /**
+     * Commence une requête : sans critère, elle renvoie les dernières parties archivées
+     * 
+     * @return La requête
+     */
+    public Query query() {
+        return new Query();
+    }
+    
+    /**
+     * Exécute une requête
+     */
+    private synchronized List<Match> run(Query query) {
+        List<Match> matches = new ArrayList<>(Math.min(query.limit, 64));
+        BitSet statusFilter = query.status == null ? null : byStatus[query.status.ordinal()];
+        BitSet openingFilter = null;
+        if (query.openingRow >= 0) {
+            openingFilter = byOpening.get(openingKey(query.openingRow, query.openingCol));
+            if (openingFilter == null) {
+                return matches;
+            }
+        }
+        
+        if (query.playerId != null) {
+            // Les parties du joueur, de la plus récente à la plus ancienne
+            Integer number = playerNumbers.get(query.playerId);
+            if (number == null) {
+                return matches;
+            }
+            IntList games = gamesByPlayer.get(number);
+            for (int i = games.size - 1; i >= 0 && matches.size() < query.limit; i--) {
+                collect(games.values[i], query, statusFilter, openingFilter, matches);
+            }
+            return matches;
+        }
+        
+        BitSet driver;
+        if (query.hasPeriod()) {
+            if (query.from >= query.to) {
+                return matches;
+            }
+            // Les parties des tranches couvertes par la période
+            driver = new BitSet();
+            for (IntList games : byBucket.subMap(Math.floorDiv(query.from, BUCKET_MILLIS), true,
+                    Math.floorDiv(query.to - 1, BUCKET_MILLIS), true).values()) {
+                for (int i = 0; i < games.size; i++) {
+                    driver.set(games.values[i]);
+                }
+            }
+        } else if (openingFilter != null) {
+            driver = openingFilter;
+        } else if (statusFilter != null) {
+            driver = statusFilter;
+        } else {
+            driver = null;
+        }
+        
+        for (int game = driver == null ? count - 1 : driver.previousSetBit(count - 1);
+                game >= 0 && matches.size() < query.limit;
+                game = driver == null ? game - 1 : driver.previousSetBit(game - 1)) {
+            collect(game, query, statusFilter, openingFilter, matches);
+        }
+        return matches;
+    }
+    
+    private void collect(int game, Query query, BitSet statusFilter, BitSet openingFilter, List<Match> matches) {
+        if ((statusFilter != null && !statusFilter.get(game))
+                || (openingFilter != null && !openingFilter.get(game))
+                || (query.hasPeriod() && (starts[game] < query.from || starts[game] >= query.to))) {
+            return;
+        }
+        matches.add(new Match(positions[game], starts[game], STATUSES[statuses[game]],
+                playerId(players[2 * game]), playerId(players[2 * game + 1])));
+    }
+    
+    private String playerId(int number) {
+        return number < 0 ? null : playerIds.get(number);
+    }
+    
+    /**
+     * Requête sur l'historique des parties. Les critères se cumulent ; les parties sont renvoyées
+     * de la plus récemment archivée à la plus ancienne.
+     */
+    public final class Query {
+        
+        private String playerId;
+        private GameState.GameStatus status;
+        private long from = Long.MIN_VALUE;
+        private long to = Long.MAX_VALUE;
+        private int openingRow = -1;
+        private int openingCol = -1;
+        private int limit = 50;
+        
+        private Query() {
+        }
+        
+        /**
+         * @param playerId Ne garder que les parties de ce joueur
+         * @return Cette requête
+         */
+        public Query player(String playerId) {
+            this.playerId = playerId;
+            return this;
+        }
+        
+        /**
+         * @param status Ne garder que les parties terminées avec ce statut
+         * @return Cette requête
+         */
+        public Query status(GameState.GameStatus status) {
+            this.status = status;
+            return this;
+        }
+        
+        /**
+         * @param fromMillis Début de la période (inclus), sur la date du premier coup
+         * @param toMillis Fin de la période (exclue)
+         * @return Cette requête
+         */
+        public Query between(long fromMillis, long toMillis) {
+            this.from = fromMillis;
+            this.to = toMillis;
+            return this;
+        }
+        
+        /**
+         * @param row Ligne du premier coup
+         * @param col Colonne du premier coup
+         * @return Cette requête
+         */
+        public Query openingAt(int row, int col) {
+            this.openingRow = row;
+            this.openingCol = col;
+            return this;
+        }
+        
+        /**
+         * @param limit Nombre maximal de parties (50 par défaut)
+         * @return Cette requête
+         */
+        public Query limit(int limit) {
+            this.limit = Math.max(0, limit);
+            return this;
+        }
+        
+        private boolean hasPeriod() {
+            return from != Long.MIN_VALUE || to != Long.MAX_VALUE;
+        }
+        
+        /**
+         * Exécute la requête
+         * 
+         * @return Les parties trouvées, des plus récentes aux plus anciennes
+         */
+        public List<Match> run() {
+            return MatchIndex.this.run(this);
+        }
+    }
+    
+    /**
+     * Résumé d'une partie trouvée ; {@link ReplayEngine#read(long)} donne ses coups
+     */
+    public static final class Match {
+        
+        private final long position;
+        private final long startMillis;
+        private final GameState.GameStatus status;
+        private final String player1Id;
+        private final String player2Id;
+        
+        Match(long position, long startMillis, GameState.GameStatus status, String player1Id, String player2Id) {
+            this.position = position;
+            this.startMillis = startMillis;
+            this.status = status;
+            this.player1Id = player1Id;
+            this.player2Id = player2Id;
+        }
+        
+        public long getPosition() {
+            return position;
+        }
+        
+        public long getStartMillis() {
+            return startMillis;
+        }
+        
+        public GameState.GameStatus getStatus() {
+            return status;
+        }
+        
+        public String getPlayer1Id() {
+            return player1Id;
+        }
+        
+        public String getPlayer2Id() {
+            return player2Id;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("Partie %d:%d, %tF %<tT, %s, %s contre %s", position >>> 32, (int) position,
+                    startMillis, status, player1Id, player2Id);
+        }
+    }
+    
+    /**
+     * Liste de numéros de parties, croissante
+     */
+    private static final class IntList {
+        int[] values = new int[4];
+        int size;
+        
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
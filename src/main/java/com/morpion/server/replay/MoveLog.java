@@ -0,0 +1,144 @@
+package com.morpion.server.replay;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import com.morpion.model.GameVariant;
+
+/**
+ * Coups de la partie en cours d'une session, déjà encodés au format des rediffusions :
+ * pour chaque coup, l'indice de la case (un octet jusqu'à 16 x 16, puis deux ou quatre)
+ * suivi du temps écoulé depuis le coup précédent, en millisecondes (entier de taille variable,
+ * un octet sous 128 ms, deux sous 16 s).
+ * 
+ * <p>Non synchronisé : utilisé par l'acteur de la session, puis copié par {@link ReplayLog}.</p>
+ */
+public final class MoveLog {
+    
+    private final int size;
+    private final int winLength;
+    private final int cellBytes;
+    private byte[] bytes;
+    private int length;
+    private int moveCount;
+    private long startMillis;
+    private long lastMillis;
+    
+    /**
+     * Crée un journal de coups vide
+     * 
+     * @param variant Les règles de la partie
+     */
+    public MoveLog(GameVariant variant) {
+        this.size = variant.getSize();
+        this.winLength = variant.getWinLength();
+        this.cellBytes = cellBytes(size);
+        this.bytes = new byte[64];
+    }
+    
+    /**
+     * Ajoute un coup validé
+     * 
+     * @param row Ligne du coup
+     * @param col Colonne du coup
+     * @param timestampMillis Date du coup, en millisecondes
+     */
+    public void add(int row, int col, long timestampMillis) {
+        if (moveCount == 0) {
+            startMillis = timestampMillis;
+            lastMillis = timestampMillis;
+        }
+        if (length + cellBytes + 10 > bytes.length) {
+            bytes = Arrays.copyOf(bytes, bytes.length * 2);
+        }
+        int cell = row * size + col;
+        for (int shift = (cellBytes - 1) * 8; shift >= 0; shift -= 8) {
+            bytes[length++] = (byte) (cell >>> shift);
+        }
+        long delta = Math.max(0, timestampMillis - lastMillis);
+        while (delta >= 0x80) {
+            bytes[length++] = (byte) (delta | 0x80);
+            delta >>>= 7;
+        }
+        bytes[length++] = (byte) delta;
+        lastMillis = timestampMillis;
+        moveCount++;
+    }
+    
+    /**
+     * Vide le journal pour la partie suivante
+     */
+    public void clear() {
+        length = 0;
+        moveCount = 0;
+    }
+    
+    /**
+     * Indique si aucun coup n'a été joué
+     * 
+     * @return true si le journal est vide
+     */
+    public boolean isEmpty() {
+        return moveCount == 0;
+    }
+    
+    /**
+     * Obtient le nombre de coups joués
+     * 
+     * @return Le nombre de coups
+     */
+    public int getMoveCount() {
+        return moveCount;
+    }
+    
+    int getSize() {
+        return size;
+    }
+    
+    int getWinLength() {
+        return winLength;
+    }
+    
+    int getCellBytes() {
+        return cellBytes;
+    }
+    
+    long getStartMillis() {
+        return startMillis;
+    }
+    
+    /**
+     * Obtient la case du premier coup
+     * 
+     * @return L'indice de la case (ligne x taille + colonne), ou -1 si aucun coup n'a été joué
+     */
+    int getFirstCell() {
+        if (moveCount == 0) {
+            return -1;
+        }
+        int cell = 0;
+        for (int i = 0; i < cellBytes; i++) {
+            cell = cell << 8 | bytes[i] & 0xFF;
+        }
+        return cell;
+    }
+    
+    int getByteLength() {
+        return length;
+    }
+    
+    void copyTo(ByteBuffer target) {
+        target.put(bytes, 0, length);
+    }
+    
+    /**
+     * Calcule le nombre d'octets de l'indice d'une case
+     * 
+     * @param size La taille de la grille
+     * @return 1, 2 ou 4
+     */
+    static int cellBytes(int size) {
+        long cells = (long) size * size;
+        return cells <= 0x100 ? 1 : cells <= 0x10000 ? 2 : 4;
+    }
+}
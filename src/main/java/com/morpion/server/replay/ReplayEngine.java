@@ -0,0 +1,432 @@
+package com.morpion.server.replay;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.morpion.model.Board;
+import com.morpion.model.GameState;
+
+/**
+ * Relecture des parties archivées par {@link ReplayLog}.
+ * 
+ * <p>Les fichiers sont projetés en mémoire en lecture seule et parcourus sans copie : une même
+ * vue ({@link ReplayedGame}) est repositionnée sur chaque partie. {@link #verify()} rejoue toutes
+ * les parties sur le moteur de grille ({@link Board}) et vérifie que chacune se termine avec le
+ * statut archivé, un fichier par thread : à la fois un outil d'analyse et un test de
+ * non-régression du moteur sur des parties réelles.</p>
+ * 
+ * Utilisation : {@code ReplayEngine répertoire [passes]}
+ */
+public final class ReplayEngine implements Closeable {
+    
+    private static final Logger LOGGER = Logger.getLogger(ReplayEngine.class.getName());
+    
+    private static final GameState.GameStatus[] STATUSES = GameState.GameStatus.values();
+    
+    /**
+     * Reçoit les parties relues
+     */
+    @FunctionalInterface
+    public interface GameVisitor {
+        
+        /**
+         * @param game La partie ; la vue n'est valable que pendant l'appel
+         */
+        void visit(ReplayedGame game);
+    }
+    
+    /**
+     * Reçoit les coups d'une partie
+     */
+    @FunctionalInterface
+    public interface MoveVisitor {
+        
+        /**
+         * @param row Ligne du coup
+         * @param col Colonne du coup
+         * @param timestampMillis Date du coup, en millisecondes
+         */
+        void visit(int row, int col, long timestampMillis);
+    }
+    
+    /**
+     * Fichier projeté, lu jusqu'à la fin des données au moment de l'ouverture
+     */
+    private static final class ReplayFile {
+        final int number;
+        final ByteBuffer data;
+        final int end;
+        
+        ReplayFile(int number, ByteBuffer data, int end) {
+            this.number = number;
+            this.data = data;
+            this.end = end;
+        }
+    }
+    
+    private final List<ReplayFile> files;
+    
+    private ReplayEngine(List<ReplayFile> files) {
+        this.files = files;
+    }
+    
+    /**
+     * Ouvre les fichiers de rediffusions d'un répertoire. Les parties archivées ensuite
+     * ne sont pas visibles.
+     * 
+     * @param directory Le répertoire des rediffusions
+     * @return Le moteur de relecture
+     * @throws IOException En cas d'erreur d'E/S
+     */
+    public static ReplayEngine open(Path directory) throws IOException {
+        List<ReplayFile> files = new ArrayList<>();
+        for (int number : ReplayLog.files(directory)) {
+            Path path = ReplayLog.path(directory, number);
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                if (channel.size() < ReplayLog.FILE_HEADER_BYTES) {
+                    continue;
+                }
+                MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                long end = data.getLong(ReplayLog.END_OFFSET);
+                if (data.getInt(0) != ReplayLog.MAGIC || end < ReplayLog.FILE_HEADER_BYTES || end > data.capacity()) {
+                    LOGGER.log(Level.WARNING, "Fichier de rediffusions invalide, ignoré : {0}", path);
+                    continue;
+                }
+                files.add(new ReplayFile(number, data, (int) end));
+            }
+        }
+        return new ReplayEngine(files);
+    }
+    
+    /**
+     * Parcourt toutes les parties, dans l'ordre de leur archivage
+     * 
+     * @param visitor Reçoit chaque partie
+     * @return Le nombre de parties
+     */
+    public long forEach(GameVisitor visitor) {
+        ReplayedGame game = new ReplayedGame();
+        long count = 0;
+        for (ReplayFile file : files) {
+            for (int offset = ReplayLog.FILE_HEADER_BYTES; offset < file.end; offset += game.length) {
+                game.load(file, offset);
+                visitor.visit(game);
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * Lit une partie à partir de sa position
+     * 
+     * @param position La position renvoyée par {@link ReplayLog#append} ou {@link ReplayedGame#getPosition()}
+     * @return La partie, ou null si la position ne désigne aucune partie archivée
+     */
+    public ReplayedGame read(long position) {
+        int number = (int) (position >>> 32);
+        int offset = (int) position;
+        for (ReplayFile file : files) {
+            if (file.number == number && offset >= ReplayLog.FILE_HEADER_BYTES && offset < file.end) {
+                ReplayedGame game = new ReplayedGame();
+                game.load(file, offset);
+                return game;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Rejoue toutes les parties sur le moteur de grille, un fichier par thread
+     * 
+     * @return Le bilan de la vérification
+     */
+    public Summary verify() {
+        long start = System.nanoTime();
+        Summary total = files.parallelStream()
+                .map(ReplayEngine::verify)
+                .reduce(new Summary(), Summary::add);
+        total.elapsedNanos = System.nanoTime() - start;
+        return total;
+    }
+    
+    /**
+     * Rejoue les parties d'un fichier
+     */
+    private static Summary verify(ReplayFile file) {
+        Summary summary = new Summary();
+        ByteBuffer data = file.data.duplicate();
+        Board board = null;
+        int offset = ReplayLog.FILE_HEADER_BYTES;
+        while (offset < file.end) {
+            int length = data.getInt(offset);
+            int size = data.getShort(offset + 12) & 0xFFFF;
+            int winLength = data.getShort(offset + 14) & 0xFFFF;
+            int status = data.get(offset + 16);
+            int cellBytes = data.get(offset + 17);
+            int moveCount = data.getInt(offset + 18);
+            int at = offset + ReplayLog.RECORD_HEADER_BYTES;
+            at += 2 + (data.getShort(at) & 0xFFFF);
+            at += 2 + (data.getShort(at) & 0xFFFF);
+            
+            if (board == null || board.getSize() != size || board.getWinLength() != winLength) {
+                board = Board.create(size, winLength);
+            } else {
+                board.clear();
+            }
+            
+            // Rejouer les coups comme GameState : alternance des joueurs, fin au premier alignement
+            GameState.GameStatus outcome = GameState.GameStatus.IN_PROGRESS;
+            boolean consistent = true;
+            int player = 1;
+            for (int i = 0; i < moveCount; i++) {
+                int cell = 0;
+                for (int b = 0; b < cellBytes; b++) {
+                    cell = cell << 8 | data.get(at++) & 0xFF;
+                }
+                while (data.get(at++) < 0) {
+                    // Temps écoulé depuis le coup précédent : inutile ici
+                }
+                int row = cell / size;
+                int col = cell % size;
+                if (outcome != GameState.GameStatus.IN_PROGRESS || !board.contains(row, col)
+                        || board.get(row, col) != 0) {
+                    consistent = false;
+                    break;
+                }
+                board.set(row, col, player);
+                if (board.completesLine(row, col)) {
+                    outcome = player == 1 ? GameState.GameStatus.PLAYER1_WON : GameState.GameStatus.PLAYER2_WON;
+                } else if (board.isFull()) {
+                    outcome = GameState.GameStatus.DRAW;
+                }
+                player = 3 - player;
+            }
+            
+            // Une partie abandonnée (réinitialisée avant la fin) doit être restée en cours
+            GameState.GameStatus recorded = status >= 0 && status < STATUSES.length ? STATUSES[status] : null;
+            boolean unfinished = recorded == GameState.GameStatus.IN_PROGRESS
+                    || recorded == GameState.GameStatus.WAITING_FOR_PLAYERS;
+            if (!consistent || (unfinished ? outcome != GameState.GameStatus.IN_PROGRESS : outcome != recorded)) {
+                summary.mismatches++;
+                if (summary.firstMismatch < 0) {
+                    summary.firstMismatch = (long) file.number << 32 | offset;
+                }
+            }
+            summary.games++;
+            summary.moves += moveCount;
+            offset += length;
+        }
+        return summary;
+    }
+    
+    @Override
+    public void close() {
+        // Les projections sont libérées par le ramasse-miettes
+        files.clear();
+    }
+    
+    /**
+     * Point d'entrée : vérifie les parties archivées d'un répertoire et affiche le débit
+     * 
+     * @param args Le répertoire des rediffusions et le nombre de passes
+     * @throws IOException En cas d'erreur d'E/S
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Utilisation : ReplayEngine répertoire [passes]");
+            return;
+        }
+        int passes = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        try (ReplayEngine engine = open(Paths.get(args[0]))) {
+            for (int pass = 1; pass <= passes; pass++) {
+                System.out.println("Passe " + pass + " : " + engine.verify());
+            }
+        }
+    }
+    
+    /**
+     * Vue sur une partie archivée
+     */
+    public static final class ReplayedGame {
+        
+        private ByteBuffer data;
+        private long position;
+        private int offset;
+        private int length;
+        private int size;
+        private int cellBytes;
+        private int movesOffset;
+        
+        private void load(ReplayFile file, int at) {
+            data = file.data;
+            position = (long) file.number << 32 | at;
+            offset = at;
+            length = data.getInt(at);
+            size = data.getShort(at + 12) & 0xFFFF;
+            cellBytes = data.get(at + 17);
+            int ids = at + ReplayLog.RECORD_HEADER_BYTES;
+            ids += 2 + (data.getShort(ids) & 0xFFFF);
+            movesOffset = ids + 2 + (data.getShort(ids) & 0xFFFF);
+        }
+        
+        /**
+         * Obtient la case du premier coup
+         * 
+         * @return L'indice de la case (ligne x taille + colonne), ou -1 si aucun coup n'a été joué
+         */
+        int getFirstCell() {
+            if (getMoveCount() == 0) {
+                return -1;
+            }
+            int cell = 0;
+            for (int b = 0; b < cellBytes; b++) {
+                cell = cell << 8 | data.get(movesOffset + b) & 0xFF;
+            }
+            return cell;
+        }
+        
+        public long getPosition() {
+            return position;
+        }
+        
+        public long getStartMillis() {
+            return data.getLong(offset + 4);
+        }
+        
+        public int getSize() {
+            return size;
+        }
+        
+        public int getWinLength() {
+            return data.getShort(offset + 14) & 0xFFFF;
+        }
+        
+        public GameState.GameStatus getStatus() {
+            return STATUSES[data.get(offset + 16)];
+        }
+        
+        public int getMoveCount() {
+            return data.getInt(offset + 18);
+        }
+        
+        public String getPlayer1Id() {
+            return id(offset + ReplayLog.RECORD_HEADER_BYTES);
+        }
+        
+        public String getPlayer2Id() {
+            int first = offset + ReplayLog.RECORD_HEADER_BYTES;
+            return id(first + 2 + (data.getShort(first) & 0xFFFF));
+        }
+        
+        private String id(int at) {
+            int idLength = data.getShort(at) & 0xFFFF;
+            if (idLength == 0) {
+                return null;
+            }
+            byte[] bytes = new byte[idLength];
+            ByteBuffer view = data.duplicate();
+            view.position(at + 2);
+            view.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+        
+        /**
+         * Parcourt les coups de la partie
+         * 
+         * @param visitor Reçoit chaque coup, dans l'ordre
+         */
+        public void forEachMove(MoveVisitor visitor) {
+            int at = movesOffset;
+            long timestamp = getStartMillis();
+            int moveCount = getMoveCount();
+            for (int i = 0; i < moveCount; i++) {
+                int cell = 0;
+                for (int b = 0; b < cellBytes; b++) {
+                    cell = cell << 8 | data.get(at++) & 0xFF;
+                }
+                long delta = 0;
+                int shift = 0;
+                byte next;
+                do {
+                    next = data.get(at++);
+                    delta |= (long) (next & 0x7F) << shift;
+                    shift += 7;
+                } while (next < 0);
+                timestamp += delta;
+                visitor.visit(cell / size, cell % size, timestamp);
+            }
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("Partie %d:%d, %dx%d, %d coup(s), %s, %s contre %s",
+                    position >>> 32, offset, size, size, getMoveCount(), getStatus(), getPlayer1Id(), getPlayer2Id());
+        }
+    }
+    
+    /**
+     * Bilan d'une vérification
+     */
+    public static final class Summary {
+        
+        private long games;
+        private long moves;
+        private long mismatches;
+        private long firstMismatch = -1;
+        private long elapsedNanos;
+        
+        private Summary add(Summary other) {
+            Summary sum = new Summary();
+            sum.games = games + other.games;
+            sum.moves = moves + other.moves;
+            sum.mismatches = mismatches + other.mismatches;
+            sum.firstMismatch = firstMismatch >= 0 && (other.firstMismatch < 0 || firstMismatch < other.firstMismatch)
+                    ? firstMismatch : other.firstMismatch;
+            return sum;
+        }
+        
+        public long getGames() {
+            return games;
+        }
+        
+        public long getMoves() {
+            return moves;
+        }
+        
+        public long getMismatches() {
+            return mismatches;
+        }
+        
+        /**
+         * Obtient la position de la première partie incohérente
+         * 
+         * @return La position, ou -1 si toutes les parties sont cohérentes
+         */
+        public long getFirstMismatch() {
+            return firstMismatch;
+        }
+        
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+        
+        @Override
+        public String toString() {
+            double seconds = Math.max(1, elapsedNanos) / 1e9;
+            return String.format("%d partie(s), %d coup(s) rejoué(s) en %.0f ms (%.0f parties/s), %d incohérence(s)",
+                    games, moves, seconds * 1000, games / seconds, mismatches);
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.morpion.server.replay;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.morpion.model.GameState;
+
+/**
+ * Archive des parties jouées, dans des fichiers de taille fixe projetés en mémoire.
+ * 
+ * <p>Un fichier commence par un en-tête de 16 octets (signature, version, fin des données) suivi
+ * des parties, les unes à la suite des autres. Une partie se compose de sa longueur (4 octets),
+ * de la date de son premier coup (8), de la taille de la grille et du nombre de pions à aligner
+ * (2 + 2), de son statut final (1), de la taille d'un indice de case (1), du nombre de coups (4),
+ * des identifiants des deux joueurs (2 + n octets chacun, en UTF-8) puis des coups encodés par
+ * {@link MoveLog}. La fin des données n'est avancée qu'une fois la partie entièrement écrite :
+ * une partie interrompue par un arrêt brutal est simplement ignorée.</p>
+ * 
+ * <p>Quand un fichier est plein, le suivant est créé ({@code replays-000001.bin},
+ * {@code replays-000002.bin}...). Les fichiers se relisent avec {@link ReplayEngine}.</p>
+ */
+public final class ReplayLog implements Closeable {
+    
+    private static final Logger LOGGER = Logger.getLogger(ReplayLog.class.getName());
+    
+    /**
+     * Taille d'un fichier d'archive
+     */
+    public static final long DEFAULT_FILE_BYTES = Long.getLong("morpion.replay.fileBytes", 64L << 20);
+    
+    static final int MAGIC = 0x4D505231;        // "MPR1"
+    static final int VERSION = 1;
+    static final int FILE_HEADER_BYTES = 16;
+    static final int END_OFFSET = 8;
+    static final int RECORD_HEADER_BYTES = 4 + 8 + 2 + 2 + 1 + 1 + 4;
+    static final String PREFIX = "replays-";
+    static final String SUFFIX = ".bin";
+    
+    private final Path directory;
+    private final int fileBytes;
+    private final MatchIndex index;
+    private FileChannel channel;
+    private MappedByteBuffer map;
+    private int file;
+    private int end;
+    private boolean closed;
+    
+    private ReplayLog(Path directory, int fileBytes) {
+        this.directory = directory;
+        this.fileBytes = fileBytes;
+        this.index = new MatchIndex();
+    }
+    
+    /**
+     * Ouvre (ou crée) l'archive d'un répertoire et se place à la fin du dernier fichier
+     * 
+     * @param directory Le répertoire des rediffusions
+     * @return L'archive ouverte
+     * @throws IOException En cas d'erreur d'E/S
+     */
+    public static ReplayLog open(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        ReplayLog log = new ReplayLog(directory,
+                (int) Math.max(4096, Math.min(DEFAULT_FILE_BYTES, Integer.MAX_VALUE)));
+        List<Integer> files = files(directory);
+        int last = files.isEmpty() ? 0 : files.get(files.size() - 1);
+        if (last == 0 || !log.reopen(last)) {
+            log.create(last + 1);
+        }
+        
+        // Reconstruire les index à partir des parties déjà archivées, une fois pour toutes
+        try (ReplayEngine engine = ReplayEngine.open(directory)) {
+            engine.forEach(game -> log.index.add(game.getPosition(), game.getStartMillis(), game.getStatus(),
+                    game.getPlayer1Id(), game.getPlayer2Id(), game.getSize(), game.getFirstCell()));
+        } catch (IOException | RuntimeException e) {
+            log.close();
+            throw e;
+        }
+        LOGGER.log(Level.INFO, "{0} partie(s) archivée(s) indexée(s) dans {1}", new Object[]{log.index.size(), directory});
+        return log;
+    }
+    
+    private boolean reopen(int number) throws IOException {
+        Path path = path(directory, number);
+        if (Files.size(path) < FILE_HEADER_BYTES) {
+            return false;
+        }
+        FileChannel candidate = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer candidateMap = candidate.map(FileChannel.MapMode.READ_WRITE, 0, candidate.size());
+        long dataEnd = candidateMap.getLong(END_OFFSET);
+        if (candidateMap.getInt(0) != MAGIC || dataEnd < FILE_HEADER_BYTES || dataEnd > candidateMap.capacity()) {
+            LOGGER.log(Level.WARNING, "Fichier de rediffusions invalide, ignoré : {0}", path);
+            candidate.close();
+            return false;
+        }
+        channel = candidate;
+        map = candidateMap;
+        file = number;
+        end = (int) dataEnd;
+        return true;
+    }
+    
+    private void create(int number) throws IOException {
+        channel = FileChannel.open(path(directory, number), StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        map = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileBytes);
+        map.putInt(0, MAGIC).putInt(4, VERSION).putLong(END_OFFSET, FILE_HEADER_BYTES);
+        file = number;
+        end = FILE_HEADER_BYTES;
+    }
+    
+    /**
+     * Archive une partie
+     * 
+     * @param moves Les coups de la partie (copiés : le journal peut être vidé ensuite)
+     * @param status Le statut final de la partie
+     * @param player1Id Le premier joueur (peut être null)
+     * @param player2Id Le second joueur (peut être null)
+     * @return La position de la partie : numéro du fichier (32 bits de poids fort) et décalage
+     * @throws IOException En cas d'erreur d'E/S ou de partie trop longue pour un fichier
+     */
+    public synchronized long append(MoveLog moves, GameState.GameStatus status, String player1Id,
+            String player2Id) throws IOException {
+        if (closed) {
+            throw new IllegalStateException("Archive des rediffusions fermée : " + directory);
+        }
+        byte[] first = idBytes(player1Id);
+        byte[] second = idBytes(player2Id);
+        int length = RECORD_HEADER_BYTES + 2 + first.length + 2 + second.length + moves.getByteLength();
+        if (FILE_HEADER_BYTES + length > map.capacity()) {
+            throw new IOException("Partie trop longue pour un fichier de rediffusions : " + length + " octets");
+        }
+        if (end + length > map.capacity()) {
+            roll();
+        }
+        
+        ByteBuffer record = map.duplicate();
+        record.position(end);
+        record.putInt(length).putLong(moves.getStartMillis())
+                .putShort((short) moves.getSize()).putShort((short) moves.getWinLength())
+                .put((byte) status.ordinal()).put((byte) moves.getCellBytes()).putInt(moves.getMoveCount())
+                .putShort((short) first.length).put(first)
+                .putShort((short) second.length).put(second);
+        moves.copyTo(record);
+        
+        long position = (long) file << 32 | end;
+        end += length;
+        map.putLong(END_OFFSET, end);
+        index.add(position, moves.getStartMillis(), status, player1Id, player2Id, moves.getSize(),
+                moves.getFirstCell());
+        return position;
+    }
+    
+    /**
+     * Obtient les index des parties archivées, à jour de la dernière partie écrite
+     * 
+     * @return Les index de l'archive
+     */
+    public MatchIndex getMatchIndex() {
+        return index;
+    }
+    
+    private void roll() throws IOException {
+        map.force();
+        channel.close();
+        create(file + 1);
+        LOGGER.log(Level.FINE, "Nouveau fichier de rediffusions : {0}", path(directory, file));
+    }
+    
+    /**
+     * Écrit sur le disque les parties déjà archivées
+     */
+    public synchronized void force() {
+        if (!closed) {
+            map.force();
+        }
+    }
+    
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        map.force();
+        channel.close();
+    }
+    
+    private static byte[] idBytes(String playerId) {
+        byte[] id = playerId == null ? new byte[0] : playerId.getBytes(StandardCharsets.UTF_8);
+        return id.length > 0xFFFF ? new byte[0] : id;
+    }
+    
+    static List<Integer> files(Path directory) throws IOException {
+        List<Integer> numbers = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+            for (Path path : files) {
+                String name = path.getFileName().toString();
+                try {
+                    numbers.add(Integer.parseInt(name.substring(PREFIX.length(), name.length() - SUFFIX.length())));
+                } catch (NumberFormatException e) {
+                    LOGGER.log(Level.WARNING, "Fichier ignoré dans les rediffusions : {0}", path);
+                }
+            }
+        }
+        Collections.sort(numbers);
+        return numbers;
+    }
+    
+    static Path path(Path directory, int number) {
+        return directory.resolve(String.format("%s%06d%s", PREFIX, number, SUFFIX));
+    }
+}
@@ -0,0 +1,170 @@
+package com.morpion.server.stats;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.morpion.model.PlayerStatistics.GameResult;
+
+/**
+ * Classement Elo des joueurs, tenu à jour à chaque partie terminée.
+ * 
+ * <p>Les cotes sont rangées dans un {@link RankIndex} : les meilleurs joueurs, une page du
+ * classement et le rang d'un joueur s'obtiennent en temps logarithmique, sans parcourir tous
+ * les joueurs. Un nouveau joueur part de {@code morpion.rating.initial} (1500 par défaut) ;
+ * chaque partie déplace les cotes d'au plus {@code morpion.rating.k} points (32 par défaut).</p>
+ * 
+ * <p>Un joueur est désigné par une identité stable choisie par l'appelant (son nom pour le
+ * serveur, voir {@code SessionRegistry#getLeaderboard}) : le classement garde une entrée par
+ * identité, jamais une par connexion.</p>
+ */
+public final class Leaderboard {
+    
+    /**
+     * Cote d'un joueur qui n'a encore joué aucune partie
+     */
+    public static final double INITIAL_RATING = Double.parseDouble(System.getProperty("morpion.rating.initial", "1500"));
+    
+    // Variation maximale d'une cote en une partie
+    private static final double K_FACTOR = Double.parseDouble(System.getProperty("morpion.rating.k", "32"));
+    
+    private final Map<String, Rating> ratings = new HashMap<>();
+    private final RankIndex index = new RankIndex();
+    
+    /**
+     * Cote courante d'un joueur (protégée par le classement)
+     */
+    private static final class Rating {
+        double value = INITIAL_RATING;
+        int games;
+    }
+    
+    /**
+     * Enregistre une partie terminée et met à jour les cotes des deux joueurs
+     * 
+     * @param player1Id Le premier joueur
+     * @param player2Id Le second joueur
+     * @param result Le résultat du point de vue du premier joueur
+     */
+    public synchronized void recordGame(String player1Id, String player2Id, GameResult result) {
+        if (player1Id.equals(player2Id)) {
+            return;
+        }
+        Rating first = rating(player1Id);
+        Rating second = rating(player2Id);
+        double score = result == GameResult.WIN ? 1.0 : result == GameResult.LOSE ? 0.0 : 0.5;
+        double expected = 1.0 / (1.0 + Math.pow(10.0, (second.value - first.value) / 400.0));
+        double delta = K_FACTOR * (score - expected);
+        
+        update(player1Id, first, first.value + delta);
+        update(player2Id, second, second.value - delta);
+    }
+    
+    private Rating rating(String playerId) {
+        Rating rating = ratings.get(playerId);
+        if (rating == null) {
+            rating = new Rating();
+            ratings.put(playerId, rating);
+            index.insert(playerId, rating.value);
+        }
+        return rating;
+    }
+    
+    private void update(String playerId, Rating rating, double value) {
+        index.remove(playerId, rating.value);
+        rating.value = value;
+        rating.games++;
+        index.insert(playerId, value);
+    }
+    
+    /**
+     * Obtient la position d'un joueur dans le classement
+     * 
+     * @param playerId L'identifiant du joueur
+     * @return Sa position, ou null s'il n'a joué aucune partie classée
+     */
+    public synchronized Standing getStanding(String playerId) {
+        Rating rating = ratings.get(playerId);
+        if (rating == null) {
+            return null;
+        }
+        return new Standing(index.rank(playerId, rating.value), playerId, rating.value, rating.games);
+    }
+    
+    /**
+     * Obtient les meilleurs joueurs
+     * 
+     * @param count Le nombre de joueurs
+     * @return Les positions, de la meilleure à la moins bonne
+     */
+    public synchronized List<Standing> getTop(int count) {
+        return getPage(1, count);
+    }
+    
+    /**
+     * Obtient une page du classement
+     * 
+     * @param fromRank Le premier rang de la page (1 pour le premier)
+     * @param count Le nombre maximal de joueurs
+     * @return Les positions, dans l'ordre du classement
+     */
+    public synchronized List<Standing> getPage(int fromRank, int count) {
+        List<String> players = index.range(fromRank, count);
+        List<Standing> page = new ArrayList<>(players.size());
+        int rank = fromRank;
+        for (String playerId : players) {
+            Rating rating = ratings.get(playerId);
+            page.add(new Standing(rank++, playerId, rating.value, rating.games));
+        }
+        return page;
+    }
+    
+    /**
+     * Obtient le nombre de joueurs classés
+     * 
+     * @return Le nombre de joueurs
+     */
+    public synchronized int size() {
+        return index.size();
+    }
+    
+    /**
+     * Position d'un joueur dans le classement, à un instant donné
+     */
+    public static final class Standing {
+        
+        private final int rank;
+        private final String playerId;
+        private final double rating;
+        private final int games;
+        
+        Standing(int rank, String playerId, double rating, int games) {
+            this.rank = rank;
+            this.playerId = playerId;
+            this.rating = rating;
+            this.games = games;
+        }
+        
+        public int getRank() {
+            return rank;
+        }
+        
+        public String getPlayerId() {
+            return playerId;
+        }
+        
+        public double getRating() {
+            return rating;
+        }
+        
+        public int getGames() {
+            return games;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("%d. %s : %.0f (%d partie(s))", rank, playerId, rating, games);
+        }
+    }
+}
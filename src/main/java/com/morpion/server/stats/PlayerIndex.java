@@ -0,0 +1,255 @@
+package com.morpion.server.stats;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import com.morpion.model.PlayerStatistics.GameResult;
+
+/**
+ * Index des statistiques par joueur, projeté en mémoire hors du tas.
+ * 
+ * <p>Table à adressage ouvert (sondage linéaire) d'enregistrements de taille fixe. Un joueur
+ * est désigné par une empreinte de 128 bits de son identifiant ; chaque enregistrement contient
+ * l'empreinte (16 octets), la position dans le journal du dernier résultat appliqué (8 octets)
+ * et les compteurs de victoires, défaites et nuls (3 x 4 octets), soit 40 octets avec le bourrage.
+ * La position appliquée rend la relecture du journal idempotente.</p>
+ * 
+ * <p>L'en-tête conserve la capacité, le nombre de joueurs et le point de reprise : la position
+ * du journal jusqu'à laquelle l'index est à jour sur le disque. La table double de taille
+ * (dans un nouveau fichier, substitué au précédent) au-delà de 70 % de remplissage.</p>
+ */
+final class PlayerIndex implements Closeable {
+    
+    private static final int MAGIC = 0x4D505831;        // "MPX1"
+    private static final int HEADER_BYTES = 64;
+    private static final int SLOT_BYTES = 40;
+    private static final int MIN_CAPACITY = 1 << 10;
+    private static final int MAX_CAPACITY = Integer.highestOneBit((Integer.MAX_VALUE - HEADER_BYTES) / SLOT_BYTES);
+    
+    // Champs de l'en-tête
+    private static final int CAPACITY_OFFSET = 4;
+    private static final int COUNT_OFFSET = 8;
+    private static final int CHECKPOINT_OFFSET = 16;
+    
+    // Champs d'un enregistrement
+    private static final int KEY_LOW_OFFSET = 8;
+    private static final int APPLIED_OFFSET = 16;
+    private static final int COUNTERS_OFFSET = 24;
+    
+    private final Path file;
+    private FileChannel channel;
+    private MappedByteBuffer map;
+    private int capacity;
+    private int mask;
+    private int count;
+    
+    /**
+     * Ouvre l'index, ou en crée un vide s'il est absent ou invalide
+     * 
+     * @param file Le fichier de l'index
+     * @param initialCapacity Capacité d'un nouvel index
+     * @throws IOException En cas d'erreur d'E/S
+     */
+    PlayerIndex(Path file, int initialCapacity) throws IOException {
+        this.file = file;
+        if (!open()) {
+            create(file, capacityFor(initialCapacity));
+            open();
+        }
+    }
+    
+    private boolean open() throws IOException {
+        if (!Files.exists(file) || Files.size(file) < HEADER_BYTES) {
+            return false;
+        }
+        channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        map = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        int slots = map.getInt(CAPACITY_OFFSET);
+        if (map.getInt(0) != MAGIC || Integer.bitCount(slots) != 1
+                || channel.size() != HEADER_BYTES + (long) slots * SLOT_BYTES) {
+            channel.close();
+            map = null;
+            Files.delete(file);
+            return false;
+        }
+        capacity = slots;
+        mask = slots - 1;
+        count = (int) map.getLong(COUNT_OFFSET);
+        return true;
+    }
+    
+    private static void create(Path target, int slots) throws IOException {
+        try (FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer header = out.map(FileChannel.MapMode.READ_WRITE, 0,
+                    HEADER_BYTES + (long) slots * SLOT_BYTES);
+            header.putInt(0, MAGIC).putInt(CAPACITY_OFFSET, slots).putLong(COUNT_OFFSET, 0)
+                    .putLong(CHECKPOINT_OFFSET, 0);
+            header.force();
+        }
+    }
+    
+    private static int capacityFor(int players) {
+        long slots = Math.max(MIN_CAPACITY, (long) players * 10 / 7 + 1);
+        return slots >= MAX_CAPACITY ? MAX_CAPACITY : Integer.highestOneBit((int) slots - 1) << 1;
+    }
+    
+    /**
+     * Obtient le point de reprise : l'index reflète le journal jusqu'à cette position
+     * 
+     * @return La position du journal
+     */
+    long checkpoint() {
+        return map.getLong(CHECKPOINT_OFFSET);
+    }
+    
+    /**
+     * Écrit l'index sur le disque puis avance le point de reprise
+     * 
+     * @param position La position du journal désormais reflétée par l'index
+     */
+    void checkpoint(long position) {
+        map.force();
+        map.putLong(CHECKPOINT_OFFSET, position);
+        map.force();
+    }
+    
+    /**
+     * Applique un résultat, sauf s'il l'a déjà été (relecture du journal)
+     * 
+     * @param keyHigh Les 64 bits de poids fort de l'empreinte du joueur
+     * @param keyLow Les 64 bits de poids faible de l'empreinte du joueur (jamais nuls)
+     * @param result Le résultat
+     * @param position La position du résultat dans le journal
+     * @throws IOException Si l'index ne peut pas grandir
+     */
+    void apply(long keyHigh, long keyLow, GameResult result, long position) throws IOException {
+        int slot = find(keyHigh, keyLow);
+        if (slot < 0) {
+            if ((long) (count + 1) * 10 > (long) capacity * 7) {
+                grow();
+            }
+            slot = insert(keyHigh, keyLow);
+        }
+        int base = offset(slot);
+        if (map.getLong(base + APPLIED_OFFSET) >= position) {
+            return;
+        }
+        map.putLong(base + APPLIED_OFFSET, position);
+        int counter = base + COUNTERS_OFFSET + result.ordinal() * 4;
+        map.putInt(counter, map.getInt(counter) + 1);
+    }
+    
+    /**
+     * Lit les compteurs d'un joueur
+     * 
+     * @param keyHigh Les 64 bits de poids fort de l'empreinte du joueur
+     * @param keyLow Les 64 bits de poids faible de l'empreinte du joueur
+     * @param counters Reçoit les victoires, défaites et nuls, dans cet ordre
+     * @return false si le joueur est inconnu
+     */
+    boolean read(long keyHigh, long keyLow, int[] counters) {
+        int slot = find(keyHigh, keyLow);
+        if (slot < 0) {
+            return false;
+        }
+        int base = offset(slot) + COUNTERS_OFFSET;
+        for (int i = 0; i < counters.length && i < 3; i++) {
+            counters[i] = map.getInt(base + i * 4);
+        }
+        return true;
+    }
+    
+    /**
+     * Obtient le nombre de joueurs de l'index
+     * 
+     * @return Le nombre de joueurs
+     */
+    int size() {
+        return count;
+    }
+    
+    private int find(long keyHigh, long keyLow) {
+        for (int slot = home(keyHigh); ; slot = (slot + 1) & mask) {
+            int base = offset(slot);
+            long low = map.getLong(base + KEY_LOW_OFFSET);
+            if (low == 0) {
+                return -1;
+            }
+            if (low == keyLow && map.getLong(base) == keyHigh) {
+                return slot;
+            }
+        }
+    }
+    
+    private int insert(long keyHigh, long keyLow) {
+        int slot = home(keyHigh);
+        while (map.getLong(offset(slot) + KEY_LOW_OFFSET) != 0) {
+            slot = (slot + 1) & mask;
+        }
+        int base = offset(slot);
+        map.putLong(base, keyHigh).putLong(base + KEY_LOW_OFFSET, keyLow);
+        map.putLong(COUNT_OFFSET, ++count);
+        return slot;
+    }
+    
+    /**
+     * Double la capacité : recopie les enregistrements dans un nouveau fichier qui remplace l'ancien
+     */
+    private void grow() throws IOException {
+        if (capacity >= MAX_CAPACITY) {
+            throw new IOException("Index des joueurs plein : " + count + " joueurs");
+        }
+        Path next = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.deleteIfExists(next);
+        create(next, capacity * 2);
+        long savedCheckpoint = checkpoint();
+        MappedByteBuffer old = map;
+        int oldCapacity = capacity;
+        channel.close();
+        
+        channel = FileChannel.open(next, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        map = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        capacity = oldCapacity * 2;
+        mask = capacity - 1;
+        count = 0;
+        for (int slot = 0; slot < oldCapacity; slot++) {
+            int from = offset(slot);
+            long low = old.getLong(from + KEY_LOW_OFFSET);
+            if (low == 0) {
+                continue;
+            }
+            int base = offset(insert(old.getLong(from), low));
+            for (int i = APPLIED_OFFSET; i < SLOT_BYTES; i += 8) {
+                map.putLong(base + i, old.getLong(from + i));
+            }
+        }
+        map.putLong(CHECKPOINT_OFFSET, savedCheckpoint);
+        map.putLong(COUNT_OFFSET, count);
+        map.force();
+        channel.close();
+        Files.move(next, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        map = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+    }
+    
+    private int home(long keyHigh) {
+        return (int) (keyHigh ^ (keyHigh >>> 32)) & mask;
+    }
+    
+    private static int offset(int slot) {
+        return HEADER_BYTES + slot * SLOT_BYTES;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        map.force();
+        channel.close();
+    }
+}
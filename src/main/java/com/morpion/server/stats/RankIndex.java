@@ -0,0 +1,190 @@
+package com.morpion.server.stats;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Classement ordonné par cote décroissante (puis identifiant croissant), indexable par rang.
+ * 
+ * <p>Liste à enjambements dont chaque lien mémorise le nombre de joueurs qu'il saute : insertion,
+ * suppression, rang d'un joueur et accès au joueur d'un rang donné coûtent O(log n) en moyenne,
+ * et une page de k joueurs O(log n + k). Non synchronisé : protégé par son propriétaire.</p>
+ */
+final class RankIndex {
+    
+    private static final int MAX_LEVEL = 32;
+    
+    private static final class Node {
+        final String playerId;
+        final double rating;
+        final Node[] next;
+        final int[] span;       // Nombre de joueurs entre ce nœud (exclu) et next[i] (inclus)
+        
+        Node(String playerId, double rating, int level) {
+            this.playerId = playerId;
+            this.rating = rating;
+            this.next = new Node[level];
+            this.span = new int[level];
+        }
+    }
+    
+    private final Node head = new Node(null, Double.NaN, MAX_LEVEL);
+    private int level = 1;
+    private int size;
+    
+    /**
+     * Ajoute un joueur (absent du classement avec cette cote)
+     * 
+     * @param playerId L'identifiant du joueur
+     * @param rating Sa cote
+     */
+    void insert(String playerId, double rating) {
+        Node[] update = new Node[MAX_LEVEL];
+        int[] rank = new int[MAX_LEVEL];
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            rank[i] = i == level - 1 ? 0 : rank[i + 1];
+            while (x.next[i] != null && order(x.next[i], rating, playerId) < 0) {
+                rank[i] += x.span[i];
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+        
+        int nodeLevel = randomLevel();
+        if (nodeLevel > level) {
+            for (int i = level; i < nodeLevel; i++) {
+                rank[i] = 0;
+                update[i] = head;
+                head.span[i] = size;
+            }
+            level = nodeLevel;
+        }
+        
+        x = new Node(playerId, rating, nodeLevel);
+        for (int i = 0; i < nodeLevel; i++) {
+            x.next[i] = update[i].next[i];
+            update[i].next[i] = x;
+            x.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+            update[i].span[i] = rank[0] - rank[i] + 1;
+        }
+        for (int i = nodeLevel; i < level; i++) {
+            update[i].span[i]++;
+        }
+        size++;
+    }
+    
+    /**
+     * Retire un joueur
+     * 
+     * @param playerId L'identifiant du joueur
+     * @param rating La cote avec laquelle il a été ajouté
+     * @return false s'il n'était pas classé avec cette cote
+     */
+    boolean remove(String playerId, double rating) {
+        Node[] update = new Node[MAX_LEVEL];
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && order(x.next[i], rating, playerId) < 0) {
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+        x = x.next[0];
+        if (x == null || order(x, rating, playerId) != 0) {
+            return false;
+        }
+        
+        for (int i = 0; i < level; i++) {
+            if (update[i].next[i] == x) {
+                update[i].span[i] += x.span[i] - 1;
+                update[i].next[i] = x.next[i];
+            } else {
+                update[i].span[i]--;
+            }
+        }
+        while (level > 1 && head.next[level - 1] == null) {
+            level--;
+        }
+        size--;
+        return true;
+    }
+    
+    /**
+     * Calcule le rang d'un joueur
+     * 
+     * @param playerId L'identifiant du joueur
+     * @param rating Sa cote actuelle
+     * @return Son rang (1 pour le premier), ou 0 s'il n'est pas classé avec cette cote
+     */
+    int rank(String playerId, double rating) {
+        int rank = 0;
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && order(x.next[i], rating, playerId) <= 0) {
+                rank += x.span[i];
+                x = x.next[i];
+            }
+            if (x != head && order(x, rating, playerId) == 0) {
+                return rank;
+            }
+        }
+        return 0;
+    }
+    
+    /**
+     * Obtient les identifiants des joueurs classés à partir d'un rang
+     * 
+     * @param fromRank Le premier rang (1 pour le premier)
+     * @param count Le nombre maximal de joueurs
+     * @return Les identifiants, dans l'ordre du classement
+     */
+    List<String> range(int fromRank, int count) {
+        List<String> players = new ArrayList<>(Math.max(0, Math.min(count, size - fromRank + 1)));
+        if (fromRank < 1 || fromRank > size || count <= 0) {
+            return players;
+        }
+        // Descendre jusqu'au joueur du rang demandé en suivant les enjambements
+        int traversed = 0;
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && traversed + x.span[i] <= fromRank) {
+                traversed += x.span[i];
+                x = x.next[i];
+            }
+        }
+        for (; x != null && players.size() < count; x = x.next[0]) {
+            players.add(x.playerId);
+        }
+        return players;
+    }
+    
+    /**
+     * Obtient le nombre de joueurs classés
+     * 
+     * @return Le nombre de joueurs
+     */
+    int size() {
+        return size;
+    }
+    
+    /**
+     * Compare un nœud à une clé
+     * 
+     * @return Négatif si le nœud est classé avant la clé, 0 s'il la porte
+     */
+    private static int order(Node node, double rating, String playerId) {
+        int byRating = Double.compare(rating, node.rating);
+        return byRating != 0 ? byRating : node.playerId.compareTo(playerId);
+    }
+    
+    private static int randomLevel() {
+        int nodeLevel = 1;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (nodeLevel < MAX_LEVEL && (random.nextInt() & 3) == 0) {
+            nodeLevel++;
+        }
+        return nodeLevel;
+    }
+}
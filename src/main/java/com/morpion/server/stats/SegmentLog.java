@@ -0,0 +1,243 @@
+package com.morpion.server.stats;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+import com.morpion.model.PlayerStatistics.GameResult;
+
+/**
+ * Journal des résultats, découpé en segments qui ne sont jamais réécrits.
+ * 
+ * <p>Un enregistrement se compose de sa longueur (4 octets), de la somme CRC32 de son contenu
+ * (4 octets) puis du contenu : date en millisecondes (8 octets), résultat (1 octet), longueur
+ * de l'identifiant (2 octets) et identifiant en UTF-8. La position d'un enregistrement combine
+ * le numéro de son segment (32 bits de poids fort) et son décalage dans le segment.</p>
+ * 
+ * <p>Un enregistrement incomplet ou corrompu en fin du dernier segment (arrêt brutal pendant
+ * une écriture) est tronqué à l'ouverture.</p>
+ */
+final class SegmentLog implements Closeable {
+    
+    private static final Logger LOGGER = Logger.getLogger(SegmentLog.class.getName());
+    
+    private static final String PREFIX = "results-";
+    private static final String SUFFIX = ".log";
+    private static final int HEADER_BYTES = 8;
+    private static final int FIXED_BODY_BYTES = 8 + 1 + 2;
+    private static final int MAX_ID_BYTES = 0xFFFF;
+    
+    /**
+     * Reçoit les enregistrements relus
+     */
+    interface RecordVisitor {
+        void visit(long position, String playerId, GameResult result, long timestamp) throws IOException;
+    }
+    
+    private final Path directory;
+    private final long segmentBytes;
+    private final ByteBuffer buffer;
+    private final CRC32 crc;
+    private FileChannel channel;
+    private int segment;
+    private long size;
+    
+    /**
+     * Ouvre le journal d'un répertoire et se place à la fin du dernier segment valide
+     * 
+     * @param directory Le répertoire du journal
+     * @param segmentBytes Taille au-delà de laquelle un nouveau segment est commencé
+     * @throws IOException En cas d'erreur d'E/S
+     */
+    SegmentLog(Path directory, long segmentBytes) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = Math.max(segmentBytes, 1024);
+        this.buffer = ByteBuffer.allocateDirect(HEADER_BYTES + FIXED_BODY_BYTES + MAX_ID_BYTES);
+        this.crc = new CRC32();
+        
+        List<Integer> segments = segments();
+        this.segment = segments.isEmpty() ? 1 : segments.get(segments.size() - 1);
+        this.channel = FileChannel.open(segmentPath(segment), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.size = channel.size();
+    }
+    
+    /**
+     * Ajoute un enregistrement à la fin du journal
+     * 
+     * @param playerId L'identifiant du joueur
+     * @param result Le résultat de la partie
+     * @param timestamp La date du résultat, en millisecondes
+     * @return La position de l'enregistrement
+     * @throws IOException En cas d'erreur d'écriture
+     */
+    long append(String playerId, GameResult result, long timestamp) throws IOException {
+        byte[] id = playerId.getBytes(StandardCharsets.UTF_8);
+        if (id.length > MAX_ID_BYTES) {
+            throw new IOException("Identifiant de joueur trop long : " + id.length + " octets");
+        }
+        int length = FIXED_BODY_BYTES + id.length;
+        if (size > 0 && size + HEADER_BYTES + length > segmentBytes) {
+            roll();
+        }
+        
+        buffer.clear();
+        buffer.position(HEADER_BYTES);
+        buffer.putLong(timestamp).put((byte) result.ordinal()).putShort((short) id.length).put(id);
+        buffer.flip();
+        buffer.position(HEADER_BYTES);
+        crc.reset();
+        crc.update(buffer);
+        buffer.putInt(0, length).putInt(4, (int) crc.getValue());
+        buffer.position(0);
+        
+        long position = position(segment, size);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, size + buffer.position());
+        }
+        size += HEADER_BYTES + length;
+        return position;
+    }
+    
+    /**
+     * Relit les enregistrements à partir d'une position
+     * 
+     * @param from La première position à relire (0 pour tout relire)
+     * @param visitor Reçoit chaque enregistrement, dans l'ordre du journal
+     * @throws IOException En cas d'erreur de lecture ou de segment corrompu
+     */
+    void replay(long from, RecordVisitor visitor) throws IOException {
+        int fromSegment = (int) (from >>> 32);
+        for (int number : segments()) {
+            if (number < fromSegment) {
+                continue;
+            }
+            long offset = number == fromSegment ? from & 0xFFFFFFFFL : 0;
+            try (FileChannel in = FileChannel.open(segmentPath(number), StandardOpenOption.READ)) {
+                long end = replaySegment(in, number, offset, visitor);
+                if (end < in.size()) {
+                    if (number != segment) {
+                        throw new IOException("Segment corrompu : " + segmentPath(number) + " à l'octet " + end);
+                    }
+                    LOGGER.log(Level.WARNING, "Fin du journal tronquée à l''octet {0} : {1}",
+                            new Object[]{end, segmentPath(number)});
+                    channel.truncate(end);
+                    size = end;
+                }
+            }
+        }
+    }
+    
+    private long replaySegment(FileChannel in, int number, long offset, RecordVisitor visitor) throws IOException {
+        long fileSize = in.size();
+        while (offset + HEADER_BYTES <= fileSize) {
+            buffer.clear().limit(HEADER_BYTES);
+            readFully(in, offset);
+            int length = buffer.getInt(0);
+            int checksum = buffer.getInt(4);
+            if (length < FIXED_BODY_BYTES || length > FIXED_BODY_BYTES + MAX_ID_BYTES
+                    || offset + HEADER_BYTES + length > fileSize) {
+                return offset;
+            }
+            buffer.clear().limit(length);
+            readFully(in, offset + HEADER_BYTES);
+            buffer.flip();
+            crc.reset();
+            crc.update(buffer);
+            if ((int) crc.getValue() != checksum) {
+                return offset;
+            }
+            buffer.position(0);
+            long timestamp = buffer.getLong();
+            int result = buffer.get();
+            int idLength = buffer.getShort() & 0xFFFF;
+            if (result < 0 || result >= GameResult.values().length || idLength != length - FIXED_BODY_BYTES) {
+                return offset;
+            }
+            byte[] id = new byte[idLength];
+            buffer.get(id);
+            visitor.visit(position(number, offset), new String(id, StandardCharsets.UTF_8),
+                    GameResult.values()[result], timestamp);
+            offset += HEADER_BYTES + length;
+        }
+        return offset;
+    }
+    
+    private void readFully(FileChannel in, long offset) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (in.read(buffer, offset + buffer.position()) < 0) {
+                throw new IOException("Fin de segment inattendue");
+            }
+        }
+    }
+    
+    /**
+     * Obtient la position de fin du journal
+     * 
+     * @return La position du prochain enregistrement
+     */
+    long endPosition() {
+        return position(segment, size);
+    }
+    
+    /**
+     * Écrit sur le disque les enregistrements déjà ajoutés
+     * 
+     * @throws IOException En cas d'erreur d'E/S
+     */
+    void force() throws IOException {
+        channel.force(false);
+    }
+    
+    private void roll() throws IOException {
+        channel.force(false);
+        channel.close();
+        segment++;
+        channel = FileChannel.open(segmentPath(segment), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        size = channel.size();
+        LOGGER.log(Level.FINE, "Nouveau segment du journal : {0}", segmentPath(segment));
+    }
+    
+    private List<Integer> segments() throws IOException {
+        List<Integer> numbers = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    numbers.add(Integer.parseInt(name.substring(PREFIX.length(), name.length() - SUFFIX.length())));
+                } catch (NumberFormatException e) {
+                    LOGGER.log(Level.WARNING, "Fichier ignoré dans le journal : {0}", file);
+                }
+            }
+        }
+        Collections.sort(numbers);
+        return numbers;
+    }
+    
+    private Path segmentPath(int number) {
+        return directory.resolve(String.format("%s%06d%s", PREFIX, number, SUFFIX));
+    }
+    
+    private static long position(int segment, long offset) {
+        return (long) segment << 32 | offset;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        channel.force(false);
+        channel.close();
+    }
+}
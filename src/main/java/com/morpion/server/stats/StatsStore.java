@@ -0,0 +1,208 @@
+package com.morpion.server.stats;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.morpion.model.PlayerStatistics.GameResult;
+import com.morpion.model.PlayerStatistics.PlayerStats;
+
+/**
+ * Stockage durable des statistiques des joueurs.
+ * 
+ * <p>Chaque résultat est d'abord ajouté à un journal en segments ({@link SegmentLog}), puis
+ * appliqué à un index de taille fixe par joueur, projeté en mémoire ({@link PlayerIndex}) :
+ * une lecture coûte un accès direct hors du tas, quel que soit le nombre de joueurs.
+ * L'index est écrit sur le disque toutes les {@code morpion.stats.checkpointInterval} écritures
+ * (4096 par défaut) ; à l'ouverture, seule la fin du journal postérieure au dernier point de
+ * reprise est relue. Un index perdu ou invalide est reconstruit à partir du journal entier.</p>
+ * 
+ * <p>Par défaut, un résultat est durable dès qu'il est confié au système (il survit à un arrêt
+ * brutal du processus) ; {@code -Dmorpion.stats.sync=true} force aussi son écriture sur le disque.</p>
+ */
+public final class StatsStore implements Closeable {
+    
+    private static final Logger LOGGER = Logger.getLogger(StatsStore.class.getName());
+    
+    /**
+     * Taille des segments du journal
+     */
+    public static final long DEFAULT_SEGMENT_BYTES = Long.getLong("morpion.stats.segmentBytes", 64L << 20);
+    
+    // Nombre d'écritures entre deux points de reprise
+    private static final int CHECKPOINT_INTERVAL = Integer.getInteger("morpion.stats.checkpointInterval", 4096);
+    
+    // Écrire chaque résultat sur le disque avant de rendre la main
+    private static final boolean SYNC = Boolean.getBoolean("morpion.stats.sync");
+    
+    // Capacité initiale de l'index, en joueurs
+    private static final int INITIAL_PLAYERS = Integer.getInteger("morpion.stats.initialPlayers", 1 << 16);
+    
+    private static final String INDEX_FILE = "players.idx";
+    
+    private final Path directory;
+    private final SegmentLog log;
+    private final PlayerIndex index;
+    private int sinceCheckpoint;
+    private boolean closed;
+    
+    // Empreinte du dernier identifiant haché (accès sous verrou)
+    private long keyHigh;
+    private long keyLow;
+    
+    private StatsStore(Path directory, SegmentLog log, PlayerIndex index) {
+        this.directory = directory;
+        this.log = log;
+        this.index = index;
+    }
+    
+    /**
+     * Ouvre (ou crée) le stockage d'un répertoire et rejoue la fin du journal
+     * 
+     * @param directory Le répertoire des statistiques
+     * @return Le stockage ouvert
+     * @throws IOException En cas d'erreur d'E/S ou de journal corrompu
+     */
+    public static StatsStore open(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        SegmentLog log = new SegmentLog(directory, Math.min(DEFAULT_SEGMENT_BYTES, Integer.MAX_VALUE));
+        PlayerIndex index;
+        try {
+            index = new PlayerIndex(directory.resolve(INDEX_FILE), INITIAL_PLAYERS);
+        } catch (IOException e) {
+            log.close();
+            throw e;
+        }
+        StatsStore store = new StatsStore(directory, log, index);
+        try {
+            store.recover();
+        } catch (IOException e) {
+            store.close();
+            throw e;
+        }
+        return store;
+    }
+    
+    private void recover() throws IOException {
+        long start = System.nanoTime();
+        long from = index.checkpoint();
+        long[] replayed = {0};
+        log.replay(from, (position, playerId, result, timestamp) -> {
+            hash(playerId);
+            index.apply(keyHigh, keyLow, result, position);
+            replayed[0]++;
+        });
+        index.checkpoint(log.endPosition());
+        LOGGER.log(Level.INFO, "Statistiques ouvertes dans {0} : {1} joueur(s), {2} résultat(s) rejoué(s) en {3} ms",
+                new Object[]{directory, index.size(), replayed[0], (System.nanoTime() - start) / 1_000_000});
+    }
+    
+    /**
+     * Enregistre le résultat d'une partie pour un joueur
+     * 
+     * @param playerId Identifiant du joueur
+     * @param result Résultat de la partie
+     * @throws IOException En cas d'erreur d'écriture
+     */
+    public synchronized void record(String playerId, GameResult result) throws IOException {
+        ensureOpen();
+        long position = log.append(playerId, result, System.currentTimeMillis());
+        if (SYNC) {
+            log.force();
+        }
+        hash(playerId);
+        index.apply(keyHigh, keyLow, result, position);
+        if (++sinceCheckpoint >= CHECKPOINT_INTERVAL) {
+            checkpoint();
+        }
+    }
+    
+    /**
+     * Obtient les statistiques d'un joueur
+     * 
+     * @param playerId Identifiant du joueur
+     * @return Statistiques du joueur, ou null s'il n'a aucun résultat
+     */
+    public synchronized PlayerStats getPlayerStats(String playerId) {
+        ensureOpen();
+        int[] counters = new int[3];
+        hash(playerId);
+        if (!index.read(keyHigh, keyLow, counters)) {
+            return null;
+        }
+        return new PlayerStats(counters[0], counters[1], counters[2]);
+    }
+    
+    /**
+     * Obtient le nombre de joueurs ayant au moins un résultat
+     * 
+     * @return Le nombre de joueurs
+     */
+    public synchronized int getPlayerCount() {
+        return index.size();
+    }
+    
+    /**
+     * Écrit le journal et l'index sur le disque et avance le point de reprise
+     * 
+     * @throws IOException En cas d'erreur d'E/S
+     */
+    public synchronized void checkpoint() throws IOException {
+        ensureOpen();
+        log.force();
+        index.checkpoint(log.endPosition());
+        sinceCheckpoint = 0;
+    }
+    
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Statistiques fermées : " + directory);
+        }
+    }
+    
+    /**
+     * Calcule l'empreinte de 128 bits d'un identifiant dans keyHigh et keyLow,
+     * par deux hachages indépendants des caractères suivis d'un mélange final
+     */
+    private void hash(String playerId) {
+        long high = 0xCBF29CE484222325L;
+        long low = 0x84222325CBF29CE4L;
+        for (int i = 0; i < playerId.length(); i++) {
+            char c = playerId.charAt(i);
+            high = (high ^ c) * 0x100000001B3L;
+            low = (low ^ c) * 0x9E3779B97F4A7C15L;
+        }
+        keyHigh = mix(high ^ playerId.length());
+        keyLow = mix(low + playerId.length());
+        if (keyLow == 0) {
+            keyLow = 1;      // 0 désigne un emplacement vide
+        }
+    }
+    
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+    
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            log.force();
+            index.checkpoint(log.endPosition());
+        } finally {
+            try {
+                index.close();
+            } finally {
+                log.close();
+            }
+        }
+    }
+}
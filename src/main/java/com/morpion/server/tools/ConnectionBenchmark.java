@@ -0,0 +1,172 @@
+package com.morpion.server.tools;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.morpion.common.network.SessionRegistry;
+import com.morpion.common.utils.VirtualThreads;
+
+/**
+ * Banc d'essai du serveur bloquant : ouvre un grand nombre de connexions inactives
+ * et mesure la mémoire consommée, avec un pool de threads classiques
+ * ({@code newCachedThreadPool}) puis avec des threads virtuels.
+ * Les piles des threads classiques sont hors du tas : la mémoire résidente du
+ * processus est donc affichée en plus du tas.
+ * 
+ * Utilisation : {@code ConnectionBenchmark [cached|virtual|both] [connexions]}
+ */
+public class ConnectionBenchmark {
+    
+    private static final double GIGABYTE = 1024.0 * 1024.0 * 1024.0;
+    
+    /**
+     * Point d'entrée du banc d'essai
+     * 
+     * @param args Le mode et le nombre de connexions
+     * @throws Exception En cas d'erreur
+     */
+    public static void main(String[] args) throws Exception {
+        String mode = args.length > 0 ? args[0] : "both";
+        int connections = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        
+        // Les journaux par connexion (et par déconnexion) fausseraient la mesure
+        Logger.getLogger("").setLevel(Level.SEVERE);
+        
+        if (!VirtualThreads.isAvailable() && !"cached".equalsIgnoreCase(mode)) {
+            System.out.println("Threads virtuels indisponibles sur Java " + System.getProperty("java.version")
+                    + " : le mode virtual utilisera des threads classiques");
+        }
+        
+        System.out.printf("%-8s %8s %10s %10s %12s %12s %10s%n",
+                "mode", "connex.", "tas (Mo)", "RSS (Mo)", "connex./Go", "connex./Go", "threads");
+        System.out.printf("%-8s %8s %10s %10s %12s %12s %10s%n",
+                "", "", "", "", "(tas)", "(RSS)", "");
+        
+        if ("cached".equalsIgnoreCase(mode) || "both".equalsIgnoreCase(mode)) {
+            run("cached", connections);
+        }
+        if ("virtual".equalsIgnoreCase(mode) || "both".equalsIgnoreCase(mode)) {
+            run("virtual", connections);
+        }
+    }
+    
+    /**
+     * Mesure un mode d'exécution
+     * 
+     * @param mode "cached" ou "virtual"
+     * @param connections Le nombre de connexions à ouvrir
+     * @throws Exception En cas d'erreur
+     */
+    private static void run(String mode, int connections) throws Exception {
+        boolean virtual = "virtual".equals(mode);
+        
+        long heapBefore = usedHeap();
+        long rssBefore = residentMemory();
+        int threadsBefore = Thread.activeCount();
+        
+        ExecutorService executor = virtual ? VirtualThreads.newPerTaskExecutor() : Executors.newCachedThreadPool();
+        SessionRegistry registry = new SessionRegistry(null, executor);
+        ServerSocket serverSocket = new ServerSocket(0, connections, InetAddress.getLoopbackAddress());
+        
+        Runnable acceptLoop = () -> {
+            while (!serverSocket.isClosed()) {
+                try {
+                    registry.addClient(serverSocket.accept());
+                } catch (IOException e) {
+                    // Fermeture de la socket serveur
+                }
+            }
+        };
+        if (virtual) {
+            VirtualThreads.start("benchmark-accept", acceptLoop);
+        } else {
+            Thread acceptThread = new Thread(acceptLoop, "benchmark-accept");
+            acceptThread.setDaemon(true);
+            acceptThread.start();
+        }
+        
+        // Ouvrir les connexions, qui restent inactives : chaque client bloque en lecture côté serveur
+        List<Socket> clients = new ArrayList<>(connections);
+        for (int i = 0; i < connections; i++) {
+            clients.add(new Socket(InetAddress.getLoopbackAddress(), serverSocket.getLocalPort()));
+        }
+        int expectedSessions = (connections + 1) / 2;
+        while (registry.getSessionCount() < expectedSessions) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(500);
+        
+        long heap = usedHeap() - heapBefore;
+        long rss = residentMemory() - rssBefore;
+        int threads = Thread.activeCount() - threadsBefore;
+        
+        System.out.printf("%-8s %8d %10.1f %10s %12s %12s %10d%n",
+                mode, connections, heap / 1048576.0,
+                rssBefore < 0 ? "n/d" : String.format("%.1f", rss / 1048576.0),
+                perGigabyte(connections, heap),
+                rssBefore < 0 ? "n/d" : perGigabyte(connections, rss),
+                threads);
+        
+        for (Socket client : clients) {
+            client.close();
+        }
+        serverSocket.close();
+        registry.close();
+        Thread.sleep(500);
+    }
+    
+    private static String perGigabyte(int connections, long bytes) {
+        return bytes <= 0 ? "n/d" : String.format("%.0f", connections / (bytes / GIGABYTE));
+    }
+    
+    /**
+     * Mesure le tas occupé après plusieurs ramassages
+     * 
+     * @return Les octets occupés
+     * @throws InterruptedException Si le thread est interrompu
+     */
+    private static long usedHeap() throws InterruptedException {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+    
+    /**
+     * Lit la mémoire résidente du processus (Linux uniquement)
+     * 
+     * @return Les octets résidents, ou -1 si l'information n'est pas disponible
+     */
+    private static long residentMemory() {
+        Path status = Paths.get("/proc/self/status");
+        if (!Files.isReadable(status)) {
+            return -1;
+        }
+        try {
+            for (String line : Files.readAllLines(status, StandardCharsets.UTF_8)) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("[^0-9]", "")) * 1024;
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            return -1;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,172 @@
+package com.morpion.server.tools;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.morpion.model.PlayerStatistics;
+import com.morpion.model.PlayerStatistics.GameResult;
+import com.morpion.model.PlayerStatistics.PlayerStats;
+
+/**
+ * Banc d'essai des statistiques sous contention : de nombreux threads, comme autant de sessions,
+ * enregistrent des résultats pendant qu'un lecteur copie les statistiques en continu.
+ * Compare {@link PlayerStatistics} à une table protégée par un verrou unique, puis vérifie
+ * qu'aucun résultat n'a été perdu.
+ * 
+ * Utilisation : {@code StatisticsBenchmark [locked|concurrent|both] [threads] [joueurs] [secondes]}
+ */
+public class StatisticsBenchmark {
+    
+    /**
+     * Statistiques mesurées
+     */
+    private interface Statistics {
+        void record(String playerId, GameResult result);
+        
+        PlayerStats read(String playerId);
+        
+        long total();
+    }
+    
+    /**
+     * Point d'entrée du banc d'essai
+     * 
+     * @param args Le mode, le nombre de threads, de joueurs et la durée
+     * @throws Exception En cas d'erreur
+     */
+    public static void main(String[] args) throws Exception {
+        String mode = args.length > 0 ? args[0] : "both";
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 32;
+        int players = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+        int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 5;
+        
+        String[] ids = new String[players];
+        for (int i = 0; i < players; i++) {
+            ids[i] = "joueur-" + i;
+        }
+        
+        System.out.printf("%-11s %8s %8s %16s %14s %10s%n",
+                "mode", "threads", "joueurs", "écritures/s", "lectures/s", "perdues");
+        
+        if ("locked".equalsIgnoreCase(mode) || "both".equalsIgnoreCase(mode)) {
+            run("locked", locked(), threads, ids, seconds);
+        }
+        if ("concurrent".equalsIgnoreCase(mode) || "both".equalsIgnoreCase(mode)) {
+            run("concurrent", concurrent(), threads, ids, seconds);
+        }
+    }
+    
+    /**
+     * Mesure une implémentation
+     * 
+     * @param mode Le nom affiché
+     * @param statistics Les statistiques à mesurer
+     * @param threads Le nombre de threads écrivains
+     * @param ids Les identifiants des joueurs
+     * @param seconds La durée de la mesure
+     * @throws InterruptedException Si le thread est interrompu
+     */
+    private static void run(String mode, Statistics statistics, int threads, String[] ids, int seconds)
+            throws InterruptedException {
+        AtomicBoolean stop = new AtomicBoolean();
+        LongAdder writes = new LongAdder();
+        LongAdder reads = new LongAdder();
+        CountDownLatch done = new CountDownLatch(threads + 1);
+        
+        for (int t = 0; t < threads; t++) {
+            Thread writer = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                GameResult[] results = GameResult.values();
+                long count = 0;
+                while (!stop.get()) {
+                    statistics.record(ids[random.nextInt(ids.length)], results[random.nextInt(results.length)]);
+                    count++;
+                }
+                writes.add(count);
+                done.countDown();
+            }, "benchmark-session-" + t);
+            writer.setDaemon(true);
+            writer.start();
+        }
+        
+        Thread reader = new Thread(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long count = 0;
+            while (!stop.get()) {
+                statistics.read(ids[random.nextInt(ids.length)]);
+                count++;
+            }
+            reads.add(count);
+            done.countDown();
+        }, "benchmark-reader");
+        reader.setDaemon(true);
+        reader.start();
+        
+        Thread.sleep(seconds * 1000L);
+        stop.set(true);
+        done.await();
+        
+        System.out.printf("%-11s %8d %8d %16.0f %14.0f %10d%n", mode, threads, ids.length,
+                writes.sum() / (double) seconds, reads.sum() / (double) seconds, writes.sum() - statistics.total());
+    }
+    
+    /**
+     * Référence : une table ordinaire derrière un verrou unique
+     */
+    private static Statistics locked() {
+        Map<String, PlayerStats> map = new HashMap<>();
+        return new Statistics() {
+            @Override
+            public synchronized void record(String playerId, GameResult result) {
+                PlayerStats stats = map.computeIfAbsent(playerId, k -> new PlayerStats());
+                switch (result) {
+                    case WIN:
+                        stats.incrementWins();
+                        break;
+                    case LOSE:
+                        stats.incrementLosses();
+                        break;
+                    case DRAW:
+                        stats.incrementDraws();
+                        break;
+                }
+            }
+            
+            @Override
+            public synchronized PlayerStats read(String playerId) {
+                PlayerStats stats = map.get(playerId);
+                return stats == null ? null : new PlayerStats(stats.getWins(), stats.getLosses(), stats.getDraws());
+            }
+            
+            @Override
+            public synchronized long total() {
+                return map.values().stream().mapToLong(s -> s.getWins() + s.getLosses() + s.getDraws()).sum();
+            }
+        };
+    }
+    
+    private static Statistics concurrent() {
+        PlayerStatistics statistics = new PlayerStatistics();
+        return new Statistics() {
+            @Override
+            public void record(String playerId, GameResult result) {
+                statistics.recordGameResult(playerId, result);
+            }
+            
+            @Override
+            public PlayerStats read(String playerId) {
+                return statistics.getPlayerStats(playerId);
+            }
+            
+            @Override
+            public long total() {
+                return statistics.snapshot().values().stream()
+                        .mapToLong(s -> s.getWins() + s.getLosses() + s.getDraws()).sum();
+            }
+        };
+    }
+}
@@ -0,0 +1,64 @@
+package com.morpion.server.view;
+
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Moniteur serveur sans interface graphique : les événements sont envoyés au journal.
+ * Les messages et les connexions sont journalisés au niveau INFO, l'état du serveur,
+ * les commandes échangées et l'état du jeu au niveau FINE.
+ */
+public class LoggingServerMonitor implements ServerMonitor {
+    
+    private static final Logger LOGGER = Logger.getLogger(LoggingServerMonitor.class.getName());
+    
+    @Override
+    public void setStartServerCallback(Consumer<Integer> callback) {
+        // Pas de bouton de démarrage sans interface
+    }
+    
+    @Override
+    public void setStopServerCallback(Runnable callback) {
+        // Pas de bouton d'arrêt sans interface
+    }
+    
+    @Override
+    public void updateServerStatus(boolean running, String ipAddress, int port) {
+        // Les démarrages et arrêts sont déjà annoncés par addLogMessage
+        if (running) {
+            LOGGER.log(Level.FINE, "Serveur en écoute sur {0}:{1}", new Object[]{ipAddress, String.valueOf(port)});
+        } else {
+            LOGGER.fine("Serveur arrêté");
+        }
+    }
+    
+    @Override
+    public void addLogMessage(String message) {
+        LOGGER.info(message);
+    }
+    
+    @Override
+    public void addClient(String clientId, String clientName, String clientAddress) {
+        LOGGER.log(Level.INFO, "Client ajouté : {0} ({1}) depuis {2}", new Object[]{clientName, clientId, clientAddress});
+    }
+    
+    @Override
+    public void removeClient(String clientId) {
+        LOGGER.log(Level.INFO, "Client retiré : {0}", clientId);
+    }
+    
+    @Override
+    public void logCommand(String clientId, String direction, String commandType, String details) {
+        if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.log(Level.FINE, "{0} {1} {2} : {3}", new Object[]{direction, clientId, commandType, details});
+        }
+    }
+    
+    @Override
+    public void updateGameState(String gameStateText) {
+        if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.fine("État du jeu :\n" + gameStateText);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.morpion.server.view;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tampon circulaire de capacité fixe : une fois plein, chaque ajout remplace l'élément le plus
+ * ancien. La mémoire occupée ne dépend donc que de la capacité, pas du nombre d'ajouts.
+ * 
+ * <p>Non synchronisé : l'appelant protège le tampon s'il est partagé entre plusieurs threads.</p>
+ * 
+ * @param <T> Le type des éléments
+ */
+public final class RingBuffer<T> {
+    
+    private final Object[] elements;
+    private int head;
+    private int size;
+    
+    /**
+     * Crée un tampon vide
+     * 
+     * @param capacity Le nombre maximal d'éléments conservés
+     */
+    public RingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacité invalide : " + capacity);
+        }
+        this.elements = new Object[capacity];
+    }
+    
+    /**
+     * Ajoute un élément à la fin du tampon
+     * 
+     * @param element L'élément à ajouter
+     * @return L'élément le plus ancien, retiré pour faire de la place, ou null si le tampon n'était pas plein
+     */
+    @SuppressWarnings("unchecked")
+    public T add(T element) {
+        if (size < elements.length) {
+            elements[(head + size++) % elements.length] = element;
+            return null;
+        }
+        T evicted = (T) elements[head];
+        elements[head] = element;
+        head = (head + 1) % elements.length;
+        return evicted;
+    }
+    
+    /**
+     * Obtient un élément
+     * 
+     * @param index La position de l'élément, 0 pour le plus ancien
+     * @return L'élément
+     */
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Indice " + index + " hors de [0, " + size + ")");
+        }
+        return (T) elements[(head + index) % elements.length];
+    }
+    
+    /**
+     * Retire tous les éléments et les renvoie
+     * 
+     * @return Les éléments, du plus ancien au plus récent
+     */
+    public List<T> drain() {
+        List<T> drained = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            drained.add(get(i));
+        }
+        clear();
+        return drained;
+    }
+    
+    /**
+     * Vide le tampon
+     */
+    public void clear() {
+        // Ne libérer que les cases occupées : un petit lot ne parcourt pas tout le tableau
+        int tail = head + size;
+        Arrays.fill(elements, head, Math.min(tail, elements.length), null);
+        if (tail > elements.length) {
+            Arrays.fill(elements, 0, tail - elements.length, null);
+        }
+        head = 0;
+        size = 0;
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    
+    public int capacity() {
+        return elements.length;
+    }
+}
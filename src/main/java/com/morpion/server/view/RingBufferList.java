@@ -0,0 +1,94 @@
+package com.morpion.server.view;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javafx.collections.ObservableListBase;
+
+/**
+ * Liste observable en lecture seule adossée à un {@link RingBuffer} : elle sert de modèle à une
+ * {@code ListView}, qui ne crée des cellules que pour les lignes visibles. Les ajouts se font par
+ * lots ; au-delà de la capacité, les éléments les plus anciens sortent de la liste, et une seule
+ * notification décrit à la fois les éléments retirés en tête et les éléments ajoutés en fin.
+ * 
+ * <p>À n'utiliser que depuis le thread JavaFX.</p>
+ * 
+ * @param <T> Le type des éléments
+ */
+public final class RingBufferList<T> extends ObservableListBase<T> {
+    
+    private final RingBuffer<T> buffer;
+    
+    /**
+     * Crée une liste vide
+     * 
+     * @param capacity Le nombre maximal d'éléments conservés
+     */
+    public RingBufferList(int capacity) {
+        this.buffer = new RingBuffer<>(capacity);
+    }
+    
+    /**
+     * Ajoute des éléments en fin de liste, en retirant les plus anciens si nécessaire
+     * 
+     * @param batch Les éléments à ajouter, du plus ancien au plus récent
+     */
+    public void append(List<? extends T> batch) {
+        // Au-delà de la capacité, seuls les derniers éléments du lot resteraient visibles
+        int first = Math.max(0, batch.size() - buffer.capacity());
+        int added = batch.size() - first;
+        if (added == 0) {
+            return;
+        }
+        List<T> removed = new ArrayList<>();
+        for (int i = first; i < batch.size(); i++) {
+            T evicted = buffer.add(batch.get(i));
+            if (evicted != null) {
+                removed.add(evicted);
+            }
+        }
+        
+        beginChange();
+        try {
+            if (!removed.isEmpty()) {
+                nextRemove(0, removed);
+            }
+            nextAdd(buffer.size() - added, buffer.size());
+        } finally {
+            endChange();
+        }
+    }
+    
+    @Override
+    public void clear() {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        List<T> removed = buffer.drain();
+        beginChange();
+        try {
+            nextRemove(0, removed);
+        } finally {
+            endChange();
+        }
+    }
+    
+    @Override
+    public T get(int index) {
+        return buffer.get(index);
+    }
+    
+    @Override
+    public int size() {
+        return buffer.size();
+    }
+    
+    /**
+     * Obtient le nombre maximal d'éléments conservés
+     * 
+     * @return La capacité de la liste
+     */
+    public int capacity() {
+        return buffer.capacity();
+    }
+}
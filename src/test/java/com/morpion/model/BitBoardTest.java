@@ -0,0 +1,155 @@
+package com.morpion.model;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Équivalence du bitboard avec les règles d'origine du morpion 3x3 : toutes les parties possibles
+ * sont jouées, coup par coup, sur {@link GameState} et sur une grille {@code int[3][3]} arbitrée par
+ * l'ancien {@code checkGameStatus}.
+ */
+class BitBoardTest {
+    
+    private static final String PLAYER1 = "p1";
+    private static final String PLAYER2 = "p2";
+    
+    private final Set<Integer> positions = new HashSet<>();
+    private int games;
+    private int player1Wins;
+    private int player2Wins;
+    private int draws;
+    
+    @Test
+    void everyReachablePositionMatchesTheOriginalRules() {
+        positions.add(0);
+        explore(new int[9], 0, new int[3][3]);
+        
+        // Nombres connus pour le morpion 3x3
+        assertEquals(255_168, games);
+        assertEquals(131_184, player1Wins);
+        assertEquals(77_904, player2Wins);
+        assertEquals(46_080, draws);
+        assertEquals(5_478, positions.size());
+    }
+    
+    /**
+     * Joue tous les coups possibles depuis une position et compare chaque position obtenue
+     * 
+     * @param moves Les cases jouées (ligne x 3 + colonne), dans l'ordre
+     * @param count Le nombre de coups joués
+     * @param grid La grille de référence correspondante
+     */
+    private void explore(int[] moves, int count, int[][] grid) {
+        for (int cell = 0; cell < 9; cell++) {
+            int row = cell / 3;
+            int col = cell % 3;
+            if (grid[row][col] != 0) {
+                continue;
+            }
+            int player = count % 2 == 0 ? 1 : 2;
+            grid[row][col] = player;
+            moves[count] = cell;
+            
+            GameState.GameStatus expected = checkGameStatus(grid);
+            GameState state = replay(moves, count + 1);
+            assertEquals(expected, state.getStatus(), () -> "Statut différent pour " + describe(grid));
+            assertArrayEquals(grid, state.getGrid());
+            
+            int bits = BitBoard.fromGrid(grid);
+            positions.add(bits);
+            assertEquals(expected == statusFor(player), BitBoard.isWin(BitBoard.mask(bits, player)));
+            assertEquals(expected == statusFor(player), BitBoard.isWinThrough(BitBoard.mask(bits, player), row, col));
+            assertFalse(BitBoard.isWin(BitBoard.mask(bits, 3 - player)), () -> "Deux gagnants pour " + describe(grid));
+            
+            if (expected == GameState.GameStatus.IN_PROGRESS) {
+                assertEquals(3 - player, state.getCurrentPlayer());
+                explore(moves, count + 1, grid);
+            } else {
+                // Partie terminée : plus aucun coup n'est accepté
+                assertEquals(player, state.getCurrentPlayer());
+                for (int other = 0; other < 9; other++) {
+                    assertFalse(state.makeMove(other / 3, other % 3, PLAYER1));
+                    assertFalse(state.makeMove(other / 3, other % 3, PLAYER2));
+                }
+                games++;
+                if (expected == GameState.GameStatus.PLAYER1_WON) {
+                    player1Wins++;
+                } else if (expected == GameState.GameStatus.PLAYER2_WON) {
+                    player2Wins++;
+                } else {
+                    draws++;
+                }
+            }
+            grid[row][col] = 0;
+        }
+    }
+    
+    private static GameState replay(int[] moves, int count) {
+        GameState state = new GameState(GameVariant.CLASSIC);
+        state.setPlayer1Id(PLAYER1);
+        state.setPlayer2Id(PLAYER2);
+        for (int i = 0; i < count; i++) {
+            assertTrue(state.makeMove(moves[i] / 3, moves[i] % 3, i % 2 == 0 ? PLAYER1 : PLAYER2));
+        }
+        return state;
+    }
+    
+    private static GameState.GameStatus statusFor(int player) {
+        return player == 1 ? GameState.GameStatus.PLAYER1_WON : GameState.GameStatus.PLAYER2_WON;
+    }
+    
+    /**
+     * Règles d'origine, sur une grille {@code int[3][3]}
+     */
+    private static GameState.GameStatus checkGameStatus(int[][] grid) {
+        // Vérifier les lignes
+        for (int i = 0; i < 3; i++) {
+            if (grid[i][0] != 0 && grid[i][0] == grid[i][1] && grid[i][1] == grid[i][2]) {
+                return statusFor(grid[i][0]);
+            }
+        }
+        
+        // Vérifier les colonnes
+        for (int i = 0; i < 3; i++) {
+            if (grid[0][i] != 0 && grid[0][i] == grid[1][i] && grid[1][i] == grid[2][i]) {
+                return statusFor(grid[0][i]);
+            }
+        }
+        
+        // Vérifier les diagonales
+        if (grid[0][0] != 0 && grid[0][0] == grid[1][1] && grid[1][1] == grid[2][2]) {
+            return statusFor(grid[0][0]);
+        }
+        if (grid[0][2] != 0 && grid[0][2] == grid[1][1] && grid[1][1] == grid[2][0]) {
+            return statusFor(grid[0][2]);
+        }
+        
+        // Match nul si toutes les cases sont remplies
+        for (int[] line : grid) {
+            for (int cell : line) {
+                if (cell == 0) {
+                    return GameState.GameStatus.IN_PROGRESS;
+                }
+            }
+        }
+        return GameState.GameStatus.DRAW;
+    }
+    
+    private static String describe(int[][] grid) {
+        StringBuilder text = new StringBuilder();
+        for (int[] line : grid) {
+            for (int cell : line) {
+                text.append(cell == 0 ? '.' : cell == 1 ? 'X' : 'O');
+            }
+            text.append('/');
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,137 @@
+package com.morpion.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Détection incrémentale des alignements : {@link Board#completesLine} est comparé, sur des grilles
+ * remplies au hasard, aux alignements trouvés en parcourant toute la grille.
+ */
+class BoardTest {
+
+    private static final int[][] DIRECTIONS = {{0, 1}, {1, 0}, {1, 1}, {1, -1}};
+
+    // Tailles de grille et nombres de pions à aligner testés
+    private static final int[][] VARIANTS = {
+        {1, 1}, {3, 3}, {4, 3}, {4, 4}, {5, 4}, {6, 6}, {7, 5}, {10, 5}, {15, 5}, {19, 5}, {12, 2}
+    };
+
+    @Test
+    void arrayBoardMatchesFullScan() {
+        for (int[] variant : VARIANTS) {
+            check(() -> new ArrayBoard(variant[0], variant[1]), variant[0], variant[1], 0, 0);
+        }
+    }
+
+    @Test
+    void sparseBoardMatchesFullScan() {
+        for (int[] variant : VARIANTS) {
+            check(() -> new SparseBoard(variant[0], variant[1]), variant[0], variant[1], 0, 0);
+        }
+    }
+
+    @Test
+    void compactBoardMatchesFullScan() {
+        check(CompactBoard::new, 3, 3, 0, 0);
+    }
+
+    @Test
+    void boardCreatedForVariantMatchesFullScan() {
+        for (int[] variant : VARIANTS) {
+            check(() -> Board.create(variant[0], variant[1]), variant[0], variant[1], 0, 0);
+        }
+    }
+
+    @Test
+    void sparseBoardMatchesFullScanOnLargeGrid() {
+        // Les pions ne sont posés que dans une zone de 16 x 16 : coin, bord puis milieu d'une grande grille
+        int size = 1000;
+        check(() -> new SparseBoard(size, 5), 16, 5, size - 16, size - 16);
+        check(() -> new SparseBoard(size, 5), 16, 5, 0, size / 2);
+        check(() -> new SparseBoard(size, 5), 16, 5, size / 2, size / 2);
+    }
+
+    /**
+     * Remplit plusieurs grilles au hasard, avec quelques retraits, et compare après chaque coup
+     * toutes les cases de la zone jouée au parcours complet
+     *
+     * @param factory Crée une grille vide
+     * @param area Taille de la zone jouée
+     * @param winLength Nombre de pions à aligner
+     * @param top Première ligne de la zone
+     * @param left Première colonne de la zone
+     */
+    private static void check(Supplier<Board> factory, int area, int winLength, int top, int left) {
+        Random random = new Random(31L * area + winLength + top + left);
+        for (int game = 0; game < 20; game++) {
+            Board board = factory.get();
+            int[][] reference = new int[area][area];
+            int moves = 0;
+            int steps = area * area * 2;
+            for (int step = 0; step < steps; step++) {
+                int row = random.nextInt(area);
+                int col = random.nextInt(area);
+                int player = random.nextInt(8) == 0 ? 0 : 1 + random.nextInt(2);
+                if (reference[row][col] == 0 && player != 0) {
+                    moves++;
+                } else if (reference[row][col] != 0 && player == 0) {
+                    moves--;
+                }
+                reference[row][col] = player;
+                board.set(top + row, left + col, player);
+
+                assertEquals(moves, board.getMoveCount());
+                boolean[][] winning = scan(reference, winLength);
+                for (int r = 0; r < area; r++) {
+                    for (int c = 0; c < area; c++) {
+                        assertEquals(reference[r][c], board.get(top + r, left + c));
+                        int cellRow = r;
+                        int cellCol = c;
+                        assertEquals(winning[r][c], board.completesLine(top + r, left + c),
+                                () -> "Case (" + cellRow + "," + cellCol + ") en " + area + "x" + area + ", "
+                                        + winLength + " à aligner, grille " + board.getClass().getSimpleName());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Parcourt tous les segments de la grille et marque les cases des segments d'un seul joueur
+     *
+     * @param grid La grille (0 : vide)
+     * @param winLength Longueur d'un segment gagnant
+     * @return Les cases qui appartiennent à un alignement
+     */
+    private static boolean[][] scan(int[][] grid, int winLength) {
+        int size = grid.length;
+        boolean[][] winning = new boolean[size][size];
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                int player = grid[row][col];
+                if (player == 0) {
+                    continue;
+                }
+                for (int[] direction : DIRECTIONS) {
+                    int endRow = row + direction[0] * (winLength - 1);
+                    int endCol = col + direction[1] * (winLength - 1);
+                    if (endRow < 0 || endRow >= size || endCol < 0 || endCol >= size) {
+                        continue;
+                    }
+                    boolean line = true;
+                    for (int i = 1; i < winLength && line; i++) {
+                        line = grid[row + direction[0] * i][col + direction[1] * i] == player;
+                    }
+                    for (int i = 0; i < winLength && line; i++) {
+                        winning[row + direction[0] * i][col + direction[1] * i] = true;
+                    }
+                }
+            }
+        }
+        return winning;
+    }
+}
@@ -0,0 +1,117 @@
+package com.morpion.server.stats;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classement indexé par rang : après des ajouts, retraits et changements de cote tirés au hasard,
+ * {@link RankIndex} est comparé à un {@link TreeSet} trié dans le même ordre.
+ */
+class RankIndexTest {
+    
+    private static final class Entry {
+        final String playerId;
+        final double rating;
+        
+        Entry(String playerId, double rating) {
+            this.playerId = playerId;
+            this.rating = rating;
+        }
+    }
+    
+    // Cote décroissante, puis identifiant croissant
+    private static final Comparator<Entry> ORDER = Comparator.<Entry>comparingDouble(entry -> -entry.rating)
+            .thenComparing(entry -> entry.playerId);
+    
+    @Test
+    void matchesSortedReference() {
+        for (long seed = 0; seed < 10; seed++) {
+            check(new Random(seed), 20 + 40 * (int) seed, 3_000);
+        }
+    }
+    
+    /**
+     * Applique des opérations au hasard : la taille du classement est comparée à la référence après
+     * chacune, les rangs et les pages toutes les 50 opérations
+     * 
+     * @param random Le générateur
+     * @param players Le nombre d'identifiants différents
+     * @param operations Le nombre d'opérations
+     */
+    private static void check(Random random, int players, int operations) {
+        RankIndex index = new RankIndex();
+        TreeSet<Entry> reference = new TreeSet<>(ORDER);
+        Map<String, Entry> ratings = new HashMap<>();
+        
+        for (int step = 0; step < operations; step++) {
+            String playerId = "joueur-" + random.nextInt(players);
+            // Peu de cotes différentes : beaucoup d'égalités, départagées par l'identifiant
+            double rating = 1400 + random.nextInt(25) * 8 + (random.nextInt(4) == 0 ? 0.5 : 0);
+            Entry current = ratings.get(playerId);
+            int operation = random.nextInt(3);
+            if (current == null) {
+                // Retirer un joueur absent ne change rien
+                assertFalse(index.remove(playerId, rating));
+                index.insert(playerId, rating);
+                add(reference, ratings, new Entry(playerId, rating));
+            } else if (operation == 0) {
+                assertTrue(index.remove(playerId, current.rating));
+                reference.remove(current);
+                ratings.remove(playerId);
+            } else {
+                // Changement de cote, comme après une partie
+                if (rating != current.rating) {
+                    assertFalse(index.remove(playerId, rating));
+                }
+                assertTrue(index.remove(playerId, current.rating));
+                reference.remove(current);
+                index.insert(playerId, rating);
+                add(reference, ratings, new Entry(playerId, rating));
+            }
+            
+            assertEquals(reference.size(), index.size());
+            if (step % 50 == 0 || step == operations - 1) {
+                compare(random, index, reference);
+            }
+        }
+    }
+    
+    private static void add(TreeSet<Entry> reference, Map<String, Entry> ratings, Entry entry) {
+        reference.add(entry);
+        ratings.put(entry.playerId, entry);
+    }
+    
+    private static void compare(Random random, RankIndex index, TreeSet<Entry> reference) {
+        List<String> ordered = new ArrayList<>();
+        for (Entry entry : reference) {
+            ordered.add(entry.playerId);
+            assertEquals(ordered.size(), index.rank(entry.playerId, entry.rating), entry.playerId);
+            assertEquals(0, index.rank(entry.playerId, entry.rating + 0.25));
+        }
+        assertEquals(0, index.rank("absent", 1500));
+        
+        int size = ordered.size();
+        assertEquals(ordered, index.range(1, size));
+        assertEquals(ordered, index.range(1, size + 10));
+        assertEquals(List.of(), index.range(0, 5));
+        assertEquals(List.of(), index.range(size + 1, 5));
+        assertEquals(List.of(), index.range(1, 0));
+        for (int i = 0; i < 20 && size > 0; i++) {
+            int fromRank = 1 + random.nextInt(size);
+            int count = 1 + random.nextInt(15);
+            assertEquals(ordered.subList(fromRank - 1, Math.min(size, fromRank - 1 + count)),
+                    index.range(fromRank, count), () -> "Rangs à partir de " + fromRank);
+        }
+    }
+}
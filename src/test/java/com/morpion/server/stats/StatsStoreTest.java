@@ -0,0 +1,182 @@
+package com.morpion.server.stats;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.morpion.model.PlayerStatistics.GameResult;
+import com.morpion.model.PlayerStatistics.PlayerStats;
+
+/**
+ * Statistiques durables : les compteurs relus après réouverture sont comparés à ceux tenus en
+ * mémoire, après un arrêt propre, une fin de journal tronquée, une relecture au-delà du point de
+ * reprise et l'agrandissement de l'index.
+ */
+class StatsStoreTest {
+    
+    @TempDir
+    Path directory;
+    
+    @Test
+    void resultsSurviveReopening() throws IOException {
+        Map<String, int[]> expected = new HashMap<>();
+        try (StatsStore store = StatsStore.open(directory)) {
+            recordRandom(store, expected, new Random(1), 2_000, 50);
+        }
+        try (StatsStore store = StatsStore.open(directory)) {
+            assertMatches(expected, store);
+            assertNull(store.getPlayerStats("inconnu"));
+            
+            // Les écritures reprennent à la suite du journal relu
+            recordRandom(store, expected, new Random(2), 500, 60);
+        }
+        try (StatsStore store = StatsStore.open(directory)) {
+            assertMatches(expected, store);
+        }
+    }
+    
+    @Test
+    void truncatedLastRecordIsDropped() throws IOException {
+        // Journal écrit sans index : tout est relu à l'ouverture
+        try (SegmentLog log = new SegmentLog(directory, StatsStore.DEFAULT_SEGMENT_BYTES)) {
+            log.append("alice", GameResult.WIN, 1);
+            log.append("bob", GameResult.LOSE, 2);
+            log.append("alice", GameResult.DRAW, 3);
+        }
+        Path segment = onlySegment();
+        long complete = Files.size(segment);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            // Arrêt brutal au milieu de l'écriture du dernier enregistrement
+            channel.truncate(complete - 3);
+        }
+        
+        try (StatsStore store = StatsStore.open(directory)) {
+            assertCounters(1, 0, 0, store.getPlayerStats("alice"));
+            assertCounters(0, 1, 0, store.getPlayerStats("bob"));
+            assertTrue(Files.size(segment) < complete - 3, "L'enregistrement incomplet doit être retiré");
+            store.record("alice", GameResult.LOSE);
+        }
+        try (StatsStore store = StatsStore.open(directory)) {
+            assertCounters(1, 1, 0, store.getPlayerStats("alice"));
+            assertCounters(0, 1, 0, store.getPlayerStats("bob"));
+        }
+    }
+    
+    @Test
+    void replayPastCheckpointDoesNotCountTwice(@TempDir Path crashed) throws IOException {
+        Map<String, int[]> expected = new HashMap<>();
+        try (StatsStore store = StatsStore.open(directory)) {
+            Random random = new Random(3);
+            recordRandom(store, expected, random, 300, 20);
+            store.checkpoint();
+            recordRandom(store, expected, random, 300, 30);
+            
+            // Copie des fichiers sans fermeture, comme après un arrêt brutal : l'index contient déjà
+            // les résultats postérieurs au point de reprise, que l'ouverture va relire
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+                for (Path file : files) {
+                    Files.copy(file, crashed.resolve(file.getFileName()));
+                }
+            }
+        }
+        try (StatsStore store = StatsStore.open(crashed)) {
+            assertMatches(expected, store);
+        }
+        try (StatsStore store = StatsStore.open(crashed)) {
+            assertMatches(expected, store);
+        }
+    }
+    
+    @Test
+    void indexGrowsPastLoadFactor() throws IOException {
+        Path file = directory.resolve("players.idx");
+        long[][] keys = new long[3_000][];
+        Random random = new Random(4);
+        try (PlayerIndex index = new PlayerIndex(file, 1)) {
+            long initialBytes = Files.size(file);
+            index.checkpoint(42);
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = new long[]{random.nextLong(), random.nextLong() | 1};
+                for (int result = 0; result <= i % 3; result++) {
+                    index.apply(keys[i][0], keys[i][1], GameResult.values()[result], 1 + 3L * i + result);
+                }
+            }
+            assertEquals(keys.length, index.size());
+            assertTrue(Files.size(file) > 2 * initialBytes, "L'index doit avoir doublé au moins deux fois");
+            assertEquals(42, index.checkpoint());
+            assertIndexed(keys, index);
+        }
+        try (PlayerIndex index = new PlayerIndex(file, 1)) {
+            assertEquals(keys.length, index.size());
+            assertEquals(42, index.checkpoint());
+            assertIndexed(keys, index);
+            
+            // Un résultat déjà appliqué n'est plus compté
+            index.apply(keys[0][0], keys[0][1], GameResult.WIN, 1);
+            int[] counters = new int[3];
+            assertTrue(index.read(keys[0][0], keys[0][1], counters));
+            assertArrayEquals(new int[]{1, 0, 0}, counters);
+            assertFalse(index.read(7, 7, counters));
+        }
+    }
+    
+    private static void recordRandom(StatsStore store, Map<String, int[]> expected, Random random,
+            int results, int players) throws IOException {
+        for (int i = 0; i < results; i++) {
+            String player = "joueur-" + random.nextInt(players);
+            GameResult result = GameResult.values()[random.nextInt(3)];
+            store.record(player, result);
+            expected.computeIfAbsent(player, key -> new int[3])[result.ordinal()]++;
+        }
+    }
+    
+    private static void assertMatches(Map<String, int[]> expected, StatsStore store) {
+        assertEquals(expected.size(), store.getPlayerCount());
+        for (Map.Entry<String, int[]> entry : expected.entrySet()) {
+            int[] counters = entry.getValue();
+            assertCounters(counters[0], counters[1], counters[2], store.getPlayerStats(entry.getKey()));
+        }
+    }
+    
+    private static void assertCounters(int wins, int losses, int draws, PlayerStats stats) {
+        assertEquals(wins, stats.getWins());
+        assertEquals(losses, stats.getLosses());
+        assertEquals(draws, stats.getDraws());
+    }
+    
+    private static void assertIndexed(long[][] keys, PlayerIndex index) {
+        int[] counters = new int[3];
+        for (int i = 0; i < keys.length; i++) {
+            assertTrue(index.read(keys[i][0], keys[i][1], counters));
+            for (int result = 0; result < 3; result++) {
+                assertEquals(result <= i % 3 ? 1 : 0, counters[result]);
+            }
+        }
+    }
+    
+    private Path onlySegment() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "results-*.log")) {
+            Path found = null;
+            for (Path file : files) {
+                assertNull(found, "Un seul segment attendu");
+                found = file;
+            }
+            return found;
+        }
+    }
+}